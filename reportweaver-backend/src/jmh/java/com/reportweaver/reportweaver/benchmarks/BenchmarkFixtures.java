@@ -0,0 +1,91 @@
+package com.reportweaver.reportweaver.benchmarks;
+
+import com.reportweaver.reportweaver.model.Error;
+import com.reportweaver.reportweaver.model.ErrorSummary;
+import com.reportweaver.reportweaver.tests.synthetic.SyntheticReportGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the fixture data used by the benchmarks. Every generator takes a
+ * seed, so two runs of a benchmark always measure the same input. Reports
+ * and errors come from {@link SyntheticReportGenerator}, shared with the
+ * tests and the load harness.
+ */
+public class BenchmarkFixtures {
+
+    // Words used to build page paths and error names.
+    private static final String[] WORDS = { "about", "admissions", "contact", "news", "events", "faculty",
+            "research", "students", "library", "athletics", "alumni", "campus", "apply", "tuition", "housing" };
+
+    /**
+     * Generates URLs of affected pages.
+     *
+     * @param count Number of URLs.
+     * @param seed  Seed of the random generator.
+     * @return The URLs, some of them repeated as on a real site.
+     */
+    public static String[] pageUrls(int count, long seed) {
+        Random random = new Random(seed);
+        String[] urls = new String[count];
+        int distinctPages = Math.max(1, count / 4);
+        for (int i = 0; i < count; i++) {
+            int page = random.nextInt(distinctPages);
+            urls[i] = "https://www.example.edu/" + WORDS[page % WORDS.length] + "/" + slug(new Random(page), 4)
+                    + "-" + page + (page % 3 == 0 ? "/" : "");
+        }
+        return urls;
+    }
+
+    /**
+     * Generates errors with their documentation and affected pages, as
+     * extracted from a {@link SyntheticReportGenerator} report.
+     *
+     * @param errors          Number of errors.
+     * @param entriesPerError Number of affected pages per error.
+     * @param seed            Seed of the random generator.
+     * @return The errors, in report order.
+     */
+    public static List<Error> errors(int errors, int entriesPerError, long seed) {
+        SyntheticReportGenerator generator = new SyntheticReportGenerator(errors, 1, entriesPerError, seed);
+        List<Error> result = new ArrayList<>(errors);
+        for (int i = 0; i < errors; i++) {
+            result.add(generator.expectedError("www.example.edu", i));
+        }
+        return result;
+    }
+
+    /**
+     * Builds the summary table of a list of errors.
+     *
+     * @param errors The errors.
+     * @return The total number of instances of each error.
+     */
+    public static List<ErrorSummary> summary(List<Error> errors) {
+        List<ErrorSummary> summary = new ArrayList<>(errors.size());
+        for (Error error : errors) {
+            summary.add(new ErrorSummary(error.getErrorName(), error.getTotalErrors()));
+        }
+        return summary;
+    }
+
+    /**
+     * Joins random words with hyphens.
+     *
+     * @param random The random generator.
+     * @param words  Number of words.
+     * @return The slug.
+     */
+    private static String slug(Random random, int words) {
+        StringBuilder slug = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                slug.append('-');
+            }
+            slug.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return slug.toString();
+    }
+}
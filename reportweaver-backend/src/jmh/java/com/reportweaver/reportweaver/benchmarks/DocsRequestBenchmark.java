@@ -0,0 +1,62 @@
+package com.reportweaver.reportweaver.benchmarks;
+
+import com.google.api.services.docs.v1.model.Request;
+import com.reportweaver.reportweaver.model.Error;
+import com.reportweaver.reportweaver.model.ErrorSummary;
+import com.reportweaver.reportweaver.util.GoogleDocsFormatter;
+import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures laying out a report with {@link GoogleDocsFormatter} and turning it
+ * into the batchUpdate requests that write it, without calling the Docs API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocsRequestBenchmark {
+
+    // Number of errors in the report.
+    @Param({ "20" })
+    public int errors;
+
+    // Number of affected pages listed under each error.
+    @Param({ "1000", "10000" })
+    public int entriesPerError;
+
+    // Formatter without a Docs client; only the request building is measured.
+    private GoogleDocsFormatter formatter;
+
+    // The generated report.
+    private List<Error> report;
+    private List<ErrorSummary> summary;
+
+    @Setup
+    public void generateReport() {
+        formatter = new GoogleDocsFormatter(null, new SeleniumStatusHandler());
+        report = BenchmarkFixtures.errors(errors, entriesPerError, 42);
+        summary = BenchmarkFixtures.summary(report);
+    }
+
+    @Benchmark
+    public List<Request> buildRequests() {
+        return formatter.buildReport(summary, report).toRequests(100_000);
+    }
+}
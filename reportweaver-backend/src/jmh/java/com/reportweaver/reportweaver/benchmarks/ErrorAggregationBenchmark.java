@@ -0,0 +1,54 @@
+package com.reportweaver.reportweaver.benchmarks;
+
+import com.reportweaver.reportweaver.model.Error;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures collecting the affected pages of one error with
+ * {@link Error#addDataEntry(String, int)}, as done while paginating through
+ * PopeTech's error count tables. Each invocation builds a whole error, so it
+ * runs as a single shot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ErrorAggregationBenchmark {
+
+    // Number of affected pages added to the error.
+    @Param({ "10000", "100000", "1000000" })
+    public int entries;
+
+    // URLs of the affected pages.
+    private String[] urls;
+
+    @Setup
+    public void generateUrls() {
+        urls = BenchmarkFixtures.pageUrls(entries, 42);
+    }
+
+    @Benchmark
+    public int addDataEntries() {
+        Error error = new Error(entries, "Missing alternative text", "Errors", "Documentation", "Why it matters",
+                "How to fix it");
+        for (int i = 0; i < urls.length; i++) {
+            error.addDataEntry(urls[i], 1 + (i & 15));
+        }
+        return error.getTotalErrors();
+    }
+}
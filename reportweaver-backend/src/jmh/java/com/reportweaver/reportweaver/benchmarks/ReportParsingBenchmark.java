@@ -0,0 +1,53 @@
+package com.reportweaver.reportweaver.benchmarks;
+
+import com.reportweaver.reportweaver.model.ParsedReport;
+import com.reportweaver.reportweaver.tests.synthetic.SyntheticReportGenerator;
+import com.reportweaver.reportweaver.util.ReportFileParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a downloaded report with {@link ReportFileParser}, from the
+ * raw HTML bytes to the report rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportParsingBenchmark {
+
+    // Number of error rows in the report.
+    @Param({ "100", "1000", "10000" })
+    public int rows;
+
+    // The generated report.
+    private byte[] html;
+
+    @Setup
+    public void generateReport() {
+        html = new SyntheticReportGenerator(rows, 1, 1, 42).reportHtml("www.example.edu", "https://app.pope.tech")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ParsedReport parseReport() throws IOException {
+        return ReportFileParser.parse(new ByteArrayInputStream(html), "https://app.pope.tech/reports/1");
+    }
+}
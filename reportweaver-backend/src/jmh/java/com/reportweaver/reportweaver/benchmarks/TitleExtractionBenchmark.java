@@ -0,0 +1,48 @@
+package com.reportweaver.reportweaver.benchmarks;
+
+import com.reportweaver.reportweaver.util.GoogleDocsFormatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GoogleDocsFormatter#extractTitleFromUrl(String)}, which runs
+ * once for every affected page listed in a report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TitleExtractionBenchmark {
+
+    // Number of URLs titled per invocation.
+    private static final int URLS = 1024;
+
+    // The generated URLs.
+    private String[] urls;
+
+    @Setup
+    public void generateUrls() {
+        urls = BenchmarkFixtures.pageUrls(URLS, 42);
+    }
+
+    @Benchmark
+    public void extractTitles(Blackhole blackhole) {
+        for (String url : urls) {
+            blackhole.consume(GoogleDocsFormatter.extractTitleFromUrl(url));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.reportweaver.reportweaver.config;
+
+import com.reportweaver.reportweaver.util.JobContext;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Configuration class for the executor that runs {@code @Async} methods.
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Creates the decorator Spring Boot applies to the {@code @Async} executor,
+     * so asynchronous steps of a report keep the job's {@link JobContext}.
+     *
+     * @return The task decorator.
+     */
+    @Bean
+    public TaskDecorator jobContextTaskDecorator() {
+        return JobContext::wrap;
+    }
+}
@@ -0,0 +1,70 @@
+package com.reportweaver.reportweaver.config;
+
+import com.reportweaver.reportweaver.service.DocumentationCacheService;
+import com.reportweaver.reportweaver.service.ReportJobService;
+import com.reportweaver.reportweaver.util.WebDriverManager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the gauges exposed next to the pipeline timers and
+ * counters recorded by {@link com.reportweaver.reportweaver.util.PipelineMetrics}.
+ * Gauges read the pools' own statistics whenever the registry is scraped.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Registers gauges for the WebDriver pool, the job browser slots, the job
+     * queue and the documentation cache.
+     *
+     * @param seleniumManager    The WebDriver pool.
+     * @param reportJobService   The job queue.
+     * @param documentationCache The documentation cache.
+     * @return The binder registering the gauges.
+     */
+    @Bean
+    public MeterBinder pipelineGauges(WebDriverManager seleniumManager, ReportJobService reportJobService,
+            DocumentationCacheService documentationCache) {
+        return registry -> {
+            Gauge.builder("reportweaver.driver.pool.size", seleniumManager,
+                    manager -> manager.getPoolStats().getSize())
+                    .description("Pooled WebDrivers, idle plus leased")
+                    .register(registry);
+            Gauge.builder("reportweaver.driver.pool.idle", seleniumManager,
+                    manager -> manager.getPoolStats().getIdle())
+                    .description("Pooled WebDrivers ready to be leased")
+                    .register(registry);
+            Gauge.builder("reportweaver.driver.pool.leased", seleniumManager,
+                    manager -> manager.getPoolStats().getLeased())
+                    .description("Pooled WebDrivers currently leased")
+                    .register(registry);
+            Gauge.builder("reportweaver.driver.pool.waiting", seleniumManager,
+                    manager -> manager.getPoolStats().getWaiting())
+                    .description("Threads waiting for a pooled WebDriver")
+                    .register(registry);
+            Gauge.builder("reportweaver.job.browsers.active", seleniumManager,
+                    manager -> manager.getPoolStats().getJobBrowsers())
+                    .description("Job browsers currently open")
+                    .register(registry);
+            Gauge.builder("reportweaver.job.browsers.waiting", seleniumManager,
+                    manager -> manager.getPoolStats().getJobBrowsersWaiting())
+                    .description("Jobs waiting for a browser slot")
+                    .register(registry);
+            Gauge.builder("reportweaver.jobs.queued", reportJobService, ReportJobService::getQueuedJobCount)
+                    .description("Report jobs waiting to run")
+                    .register(registry);
+            Gauge.builder("reportweaver.jobs.running", reportJobService, ReportJobService::getRunningJobCount)
+                    .description("Report jobs currently running")
+                    .register(registry);
+            Gauge.builder("reportweaver.documentation.cache.size", documentationCache,
+                    cache -> cache.getCacheStats().getSize())
+                    .description("Rule documentation entries held in memory")
+                    .register(registry);
+        };
+    }
+}
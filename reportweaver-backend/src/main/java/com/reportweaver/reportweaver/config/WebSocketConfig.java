@@ -1,11 +1,13 @@
 package com.reportweaver.reportweaver.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
+import com.reportweaver.reportweaver.websocket.SessionOutbox;
 
 /**
  * Configuration class for WebSocket support in the application.
@@ -15,6 +17,24 @@ import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
 @EnableWebSocket
 public class WebSocketConfig implements WebSocketConfigurer {
 
+    /**
+     * Applies the outbox settings from application.properties to the status
+     * handler.
+     *
+     * @param capacity         Maximum number of updates queued per session.
+     * @param flushInterval    Minimum time between two frames, in milliseconds.
+     * @param policy           What happens to updates when a queue is full.
+     * @param progressInterval Minimum time between two progress events of a
+     *                         job, in milliseconds.
+     */
+    public WebSocketConfig(@Value("${reportweaver.websocket.outbox-capacity:256}") int capacity,
+            @Value("${reportweaver.websocket.flush-interval-millis:100}") long flushInterval,
+            @Value("${reportweaver.websocket.overflow-policy:DROP_OLDEST}") SessionOutbox.OverflowPolicy policy,
+            @Value("${reportweaver.websocket.progress-interval-millis:250}") long progressInterval) {
+        SeleniumStatusHandler.configureOutbox(capacity, flushInterval, policy);
+        SeleniumStatusHandler.configureProgress(progressInterval);
+    }
+
     /**
      * Registers WebSocket handlers for handling real-time communication.
      *
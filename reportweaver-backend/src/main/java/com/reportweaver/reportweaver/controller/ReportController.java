@@ -1,13 +1,15 @@
 package com.reportweaver.reportweaver.controller;
 
-import com.reportweaver.reportweaver.service.ReportService;
+import com.reportweaver.reportweaver.model.ReportJob;
+import com.reportweaver.reportweaver.service.ReportJobService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import org.springframework.web.context.request.async.DeferredResult;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
 import org.springframework.http.ResponseEntity;
@@ -18,28 +20,28 @@ import org.slf4j.LoggerFactory;
 
 /**
  * REST controller for handling report generation requests.
- * This controller exposes an endpoint for processing reports asynchronously.
+ * Reports are generated by queued jobs: submitting a request returns a job ID
+ * immediately, and the job's status and result are polled separately.
  */
 @RestController
 @RequestMapping("")
 @CrossOrigin(origins = "http://localhost:5173") // Allow frontend requests
 public class ReportController {
 
-    private final ReportService reportService;
+    private final ReportJobService reportJobService;
 
     private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
 
-    // Use a dedicated thread pool to avoid ForkJoinPool exhaustion
-    private static final ExecutorService executorService = Executors.newFixedThreadPool(10);
+    // Seconds a client is asked to wait before retrying a rejected request
+    private static final String RETRY_AFTER_SECONDS = "60";
 
     /**
-     * Constructor-based dependency injection for ReportService.
+     * Constructor-based dependency injection for ReportJobService.
      *
-     * @param reportService Service responsible for handling report generation
-     *                      logic.
+     * @param reportJobService Service that queues and runs report jobs.
      */
-    public ReportController(ReportService reportService) {
-        this.reportService = reportService;
+    public ReportController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
     }
 
     /**
@@ -53,44 +55,69 @@ public class ReportController {
         public String email;
     }
 
+    /**
+     * DTO (Data Transfer Object) class to represent the status of a report job.
+     * Credentials are never included.
+     */
+    public static class JobResponse {
+        public String jobId;
+        public ReportJob.Status status;
+        public int queuePosition;
+        public String documentId;
+        public String error;
+        public long createdAt;
+        public long startedAt;
+        public long finishedAt;
+
+        JobResponse(ReportJob job, int queuePosition) {
+            this.jobId = job.getJobId();
+            this.status = job.getStatus();
+            this.queuePosition = queuePosition;
+            this.documentId = job.getDocumentId();
+            this.error = job.getError();
+            this.createdAt = job.getCreatedAt();
+            this.startedAt = job.getStartedAt();
+            this.finishedAt = job.getFinishedAt();
+        }
+    }
+
     /**
      * Handles POST requests for generating a report.
-     * The processing is performed asynchronously using {@link DeferredResult}.
+     * The request is queued and answered immediately with the new job's ID.
      *
      * @param request The request payload containing report parameters.
-     * @return A {@link DeferredResult} containing the generated document ID or an
-     *         error response.
+     * @return 202 with the queued job, or 429 if the job queue is full.
      */
     @PostMapping("/")
-    public DeferredResult<ResponseEntity<String>> generateReport(@RequestBody ReportRequest request) {
-        DeferredResult<ResponseEntity<String>> deferredResult = new DeferredResult<>(600000L); // 10-minute timeout
-
-        // Handle timeout to prevent 503 errors
-        deferredResult.onTimeout(() -> {
-            deferredResult.setErrorResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                    .body("Request timed out. Please try again later."));
-            logger.error("Report generation request timed out.");
-        });
+    public ResponseEntity<?> generateReport(@RequestBody ReportRequest request) {
+        try {
+            ReportJob job = reportJobService.submit(request.website, request.username, request.password,
+                    request.email);
+            logger.info("Report job ID: " + job.getJobId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new JobResponse(job, reportJobService.getQueuePosition(job)));
+        } catch (RejectedExecutionException e) {
+            logger.error("Report generation request rejected: job queue is full.");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body("The report queue is full. Please try again later.");
+        }
+    }
 
-        // Execute asynchronously with a dedicated thread pool
-        executorService.submit(() -> {
-            try {
-                String documentId = reportService.runReportProcess(
-                        request.website, request.username, request.password, request.email).get();
-                deferredResult.setResult(ResponseEntity.ok(documentId));
-                logger.info("Document ID: " + documentId);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // Restore interrupt status
-                deferredResult.setErrorResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                        .body("Request was interrupted. Try again later."));
-                logger.error("Report generation was interrupted.");
-            } catch (Exception e) {
-                deferredResult.setErrorResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Error generating report: " + e.getMessage()));
-                logger.error("Error generating report: " + e.getMessage());
-            }
-        });
-        return deferredResult;
+    /**
+     * Handles GET requests for the status of a report job.
+     *
+     * @param jobId The ID returned when the job was submitted.
+     * @return The job's status and, once completed, its Google Doc ID; 404 if the
+     *         job is unknown.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<JobResponse> getJobStatus(@PathVariable String jobId) {
+        ReportJob job = reportJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new JobResponse(job, reportJobService.getQueuePosition(job)));
     }
 
 }
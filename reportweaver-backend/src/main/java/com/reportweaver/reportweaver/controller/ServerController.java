@@ -3,7 +3,10 @@ package com.reportweaver.reportweaver.controller;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.reportweaver.reportweaver.service.DocumentationCacheService;
+import com.reportweaver.reportweaver.util.GoogleApiQuotaManager;
 import com.reportweaver.reportweaver.util.WebDriverManager;
+import com.reportweaver.reportweaver.websocket.SessionOutbox;
 
 /**
  * REST controller for managing Selenium WebDriver sessions.
@@ -16,14 +19,23 @@ public class ServerController {
 
     private final WebDriverManager seleniumManager;
 
+    private final DocumentationCacheService documentationCache;
+
+    private final GoogleApiQuotaManager quotaManager;
+
     /**
      * Constructor-based dependency injection for SeleniumManager.
      *
-     * @param seleniumManager Service responsible for managing Selenium WebDriver
-     *                        sessions.
+     * @param seleniumManager    Service responsible for managing Selenium WebDriver
+     *                           sessions.
+     * @param documentationCache Cache of scraped rule documentation.
+     * @param quotaManager       Shared rate limiter for Google API requests.
      */
-    public ServerController(WebDriverManager seleniumManager) {
+    public ServerController(WebDriverManager seleniumManager, DocumentationCacheService documentationCache,
+            GoogleApiQuotaManager quotaManager) {
         this.seleniumManager = seleniumManager;
+        this.documentationCache = documentationCache;
+        this.quotaManager = quotaManager;
     }
 
     /**
@@ -49,4 +61,47 @@ public class ServerController {
 
         return ResponseEntity.ok("All active Selenium WebDriver sessions have been stopped.");
     }
+
+    /**
+     * Reports the state of the WebDriver pool, including its size, lease counts
+     * and how long callers waited for a browser.
+     *
+     * @return ResponseEntity with the current pool statistics.
+     */
+    @GetMapping("/driver-pool")
+    public ResponseEntity<WebDriverManager.PoolStats> getDriverPoolStats() {
+        return ResponseEntity.ok(seleniumManager.getPoolStats());
+    }
+
+    /**
+     * Reports the size and hit/miss counters of the rule documentation cache.
+     *
+     * @return ResponseEntity with the current cache statistics.
+     */
+    @GetMapping("/documentation-cache")
+    public ResponseEntity<DocumentationCacheService.CacheStats> getDocumentationCacheStats() {
+        return ResponseEntity.ok(documentationCache.getCacheStats());
+    }
+
+    /**
+     * Reports Google API quota usage, including throttling waits, 429 and 5xx
+     * responses and retries.
+     *
+     * @return ResponseEntity with the current quota statistics.
+     */
+    @GetMapping("/google-api-quota")
+    public ResponseEntity<GoogleApiQuotaManager.QuotaStats> getGoogleApiQuotaStats() {
+        return ResponseEntity.ok(quotaManager.getQuotaStats());
+    }
+
+    /**
+     * Reports WebSocket delivery counters, including updates dropped because a
+     * client could not keep up.
+     *
+     * @return ResponseEntity with the current WebSocket statistics.
+     */
+    @GetMapping("/websocket")
+    public ResponseEntity<SessionOutbox.OutboxStats> getWebSocketStats() {
+        return ResponseEntity.ok(SessionOutbox.getOutboxStats());
+    }
 }
@@ -0,0 +1,83 @@
+package com.reportweaver.reportweaver.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the authenticated state of a browser after logging in.
+ * This model holds the cookies and web storage captured from one browser so
+ * they can be injected into other browsers, which then skip the interactive
+ * login.
+ */
+public class BrowserSession {
+
+    // ✅ The origin (scheme, host and port) the storage entries belong to.
+    private final String origin;
+
+    // ✅ Cookies in DevTools "CookieParam" form (name, value, domain, path, ...).
+    private final List<Map<String, Object>> cookies;
+
+    // ✅ The origin's localStorage entries.
+    private final Map<String, String> localStorage;
+
+    // ✅ Time (epoch milliseconds) when the session was captured.
+    private final long capturedAt;
+
+    /**
+     * Constructs a BrowserSession with the captured browser state.
+     *
+     * @param origin       The origin the storage entries belong to.
+     * @param cookies      The captured cookies.
+     * @param localStorage The origin's localStorage entries.
+     * @param capturedAt   Time (epoch milliseconds) when the session was captured.
+     */
+    @JsonCreator
+    public BrowserSession(@JsonProperty("origin") String origin,
+            @JsonProperty("cookies") List<Map<String, Object>> cookies,
+            @JsonProperty("localStorage") Map<String, String> localStorage,
+            @JsonProperty("capturedAt") long capturedAt) {
+        this.origin = origin;
+        this.cookies = cookies;
+        this.localStorage = localStorage;
+        this.capturedAt = capturedAt;
+    }
+
+    /**
+     * Retrieves the origin the storage entries belong to.
+     *
+     * @return The origin, e.g. "https://app.pope.tech".
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Retrieves the captured cookies.
+     *
+     * @return A list of cookies in DevTools "CookieParam" form.
+     */
+    public List<Map<String, Object>> getCookies() {
+        return cookies;
+    }
+
+    /**
+     * Retrieves the origin's localStorage entries.
+     *
+     * @return A map of localStorage keys to values.
+     */
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    /**
+     * Retrieves the time when the session was captured.
+     *
+     * @return The capture time in epoch milliseconds.
+     */
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+}
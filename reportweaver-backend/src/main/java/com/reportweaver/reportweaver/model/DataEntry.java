@@ -1,5 +1,8 @@
 package com.reportweaver.reportweaver.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
  * Represents a data entry containing a URL and an associated count.
  * This model is used to store and process extracted data, particularly in web
@@ -20,7 +23,8 @@ public class DataEntry {
      * @param url   The URL related to the entry.
      * @param count The number of occurrences associated with the URL.
      */
-    public DataEntry(String url, int count) {
+    @JsonCreator
+    public DataEntry(@JsonProperty("url") String url, @JsonProperty("count") int count) {
         this.url = url;
         this.count = count;
     }
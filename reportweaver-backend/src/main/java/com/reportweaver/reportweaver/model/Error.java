@@ -1,6 +1,12 @@
 package com.reportweaver.reportweaver.model;
 
-import java.util.ArrayList;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -9,7 +15,13 @@ import java.util.List;
  * and remediation steps.
  * This class also keeps track of associated data entries and calculates the
  * total number of errors.
+ * Data entries are stored column-wise: the ID of each page URL in a
+ * {@link UrlTable} shared by the report's errors, and the count of each page
+ * in an int array. The total is updated as entries are added, and
+ * {@link #getDataEntries()} is a read-only view that creates
+ * {@link DataEntry} objects on access.
  */
+@JsonIgnoreProperties(value = "totalErrors", allowGetters = true)
 public class Error {
 
     // ✅ The number of instances where this error occurs.
@@ -30,8 +42,15 @@ public class Error {
     // ✅ Steps to fix the error.
     private final String howToFixIt;
 
-    // ✅ List of associated data entries where this error occurs.
-    private final List<DataEntry> dataEntries;
+    // ✅ Dictionary of the URLs of the pages where this error occurs.
+    private final UrlTable urlTable;
+
+    // ✅ URL ID and count of each data entry, in insertion order.
+    private int[] urlIds;
+    private int[] counts;
+
+    // ✅ Number of data entries.
+    private int size;
 
     // ✅ The total number of occurrences of this error.
     private int totalErrors;
@@ -49,16 +68,64 @@ public class Error {
      */
     public Error(int instanceCount, String errorName, String errorCategory, String errorDocumentation,
             String whyItMatters, String howToFixIt) {
+        this(instanceCount, errorName, errorCategory, errorDocumentation, whyItMatters, howToFixIt,
+                new UrlTable());
+    }
+
+    /**
+     * Constructs an Error object whose page URLs are stored in a table shared
+     * with the other errors of the same report.
+     *
+     * @param instanceCount      Number of times this error occurs.
+     * @param errorName          The name or identifier of the error.
+     * @param errorCategory      The category or type of the error.
+     * @param errorDocumentation Link or reference to documentation explaining the
+     *                           error.
+     * @param whyItMatters       Explanation of the impact of this error.
+     * @param howToFixIt         Recommended steps to resolve the error.
+     * @param urlTable           The report's URL table.
+     */
+    public Error(int instanceCount, String errorName, String errorCategory, String errorDocumentation,
+            String whyItMatters, String howToFixIt, UrlTable urlTable) {
         this.instanceCount = instanceCount;
         this.errorName = errorName;
         this.errorCategory = errorCategory;
         this.errorDocumentation = errorDocumentation;
         this.whyItMatters = whyItMatters;
         this.howToFixIt = howToFixIt;
-        this.dataEntries = new ArrayList<>();
+        this.urlTable = urlTable;
+        this.urlIds = new int[16];
+        this.counts = new int[16];
         this.totalErrors = 0;
     }
 
+    /**
+     * Constructs an Error object together with its data entries, used when
+     * reading a stored report snapshot.
+     *
+     * @param instanceCount      Number of times this error occurs.
+     * @param errorName          The name or identifier of the error.
+     * @param errorCategory      The category or type of the error.
+     * @param errorDocumentation Link or reference to documentation explaining the
+     *                           error.
+     * @param whyItMatters       Explanation of the impact of this error.
+     * @param howToFixIt         Recommended steps to resolve the error.
+     * @param dataEntries        The pages where the error occurs.
+     */
+    @JsonCreator
+    public Error(@JsonProperty("instanceCount") int instanceCount, @JsonProperty("errorName") String errorName,
+            @JsonProperty("errorCategory") String errorCategory,
+            @JsonProperty("errorDocumentation") String errorDocumentation,
+            @JsonProperty("whyItMatters") String whyItMatters, @JsonProperty("howToFixIt") String howToFixIt,
+            @JsonProperty("dataEntries") List<DataEntry> dataEntries) {
+        this(instanceCount, errorName, errorCategory, errorDocumentation, whyItMatters, howToFixIt);
+        if (dataEntries != null) {
+            for (DataEntry entry : dataEntries) {
+                addDataEntry(entry.getUrl(), entry.getCount());
+            }
+        }
+    }
+
     /**
      * Retrieves the number of instances where this error occurs.
      *
@@ -116,10 +183,73 @@ public class Error {
     /**
      * Retrieves the list of data entries associated with this error.
      *
-     * @return A list of {@link DataEntry} objects.
+     * @return A read-only view of the entries as {@link DataEntry} objects,
+     *         created on access.
      */
     public List<DataEntry> getDataEntries() {
-        return dataEntries;
+        return new AbstractList<>() {
+            @Override
+            public DataEntry get(int index) {
+                return new DataEntry(getUrl(index), getCount(index));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the number of data entries.
+     *
+     * @return The number of pages where this error occurs.
+     */
+    @JsonIgnore
+    public int getDataEntryCount() {
+        return size;
+    }
+
+    /**
+     * Retrieves the URL ID of a data entry in {@link #getUrlTable()}.
+     *
+     * @param index The position of the entry.
+     * @return The URL ID.
+     */
+    public int getUrlId(int index) {
+        checkIndex(index);
+        return urlIds[index];
+    }
+
+    /**
+     * Retrieves the URL of a data entry.
+     *
+     * @param index The position of the entry.
+     * @return The URL.
+     */
+    public String getUrl(int index) {
+        return urlTable.get(getUrlId(index));
+    }
+
+    /**
+     * Retrieves the count of a data entry.
+     *
+     * @param index The position of the entry.
+     * @return The number of times the error occurs on the entry's page.
+     */
+    public int getCount(int index) {
+        checkIndex(index);
+        return counts[index];
+    }
+
+    /**
+     * Retrieves the table the URLs of the data entries are stored in.
+     *
+     * @return The URL table.
+     */
+    @JsonIgnore
+    public UrlTable getUrlTable() {
+        return urlTable;
     }
 
     /**
@@ -132,22 +262,33 @@ public class Error {
     }
 
     /**
-     * Adds a data entry to the list and updates the total error count.
+     * Adds a data entry and updates the total error count in constant
+     * amortized time.
      *
      * @param url   The URL where the error occurs.
      * @param count The number of times the error occurs at the given URL.
      */
     public void addDataEntry(String url, int count) {
-        this.dataEntries.add(new DataEntry(url, count));
-        updateTotalErrors();
+        if (size == urlIds.length) {
+            urlIds = Arrays.copyOf(urlIds, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        urlIds[size] = urlTable.intern(url);
+        counts[size] = count;
+        size++;
+        totalErrors += count;
     }
 
     /**
-     * Updates the total error count by summing up occurrences from all data
-     * entries.
+     * Checks that a data entry exists.
+     *
+     * @param index The position of the entry.
+     * @throws IndexOutOfBoundsException If there is no entry at the position.
      */
-    private void updateTotalErrors() {
-        this.totalErrors = dataEntries.stream().mapToInt(DataEntry::getCount).sum();
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
     }
 }
 
@@ -0,0 +1,209 @@
+package com.reportweaver.reportweaver.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Inverted index of a report's errors by page: for every affected page, the
+ * errors found on it and how often.
+ * It is built in linear time from the errors' columnar data entries and
+ * stored as flat int arrays, with the postings of each page next to each
+ * other, so it takes a few ints per data entry and no object per page.
+ * Only the pages asked for are turned into objects, so listing the worst
+ * pages of a large site never materializes every page and error pair.
+ */
+public class PageErrorIndex {
+
+    // ✅ The indexed errors, in report order.
+    private final List<Error> errors;
+
+    // ✅ Dictionary of the page URLs; page IDs are URL IDs in this table.
+    private final UrlTable urlTable;
+
+    // ✅ Postings of page p are at positions start[p] to end[p] - 1.
+    private final int[] start;
+    private final int[] end;
+
+    // ✅ Error index and count of each posting.
+    private final int[] postingErrors;
+    private final int[] postingCounts;
+
+    // ✅ Total number of errors on each page.
+    private final int[] pageTotals;
+
+    // ✅ Number of pages with at least one error.
+    private final int pageCount;
+
+    /**
+     * Indexes the data entries of a report's errors by page.
+     * Errors extracted together share a {@link UrlTable} whose IDs are used
+     * directly; errors with separate tables, e.g. restored from a snapshot, are
+     * merged into a new table first.
+     *
+     * @param errors The errors, in report order.
+     */
+    public PageErrorIndex(List<Error> errors) {
+        this.errors = errors;
+
+        // Map every entry to a page ID, reusing the shared table when there is one
+        UrlTable sharedTable = errors.isEmpty() ? new UrlTable() : errors.get(0).getUrlTable();
+        for (Error error : errors) {
+            if (error.getUrlTable() != sharedTable) {
+                sharedTable = null;
+                break;
+            }
+        }
+        this.urlTable = sharedTable != null ? sharedTable : new UrlTable();
+        int[][] pageIds = new int[errors.size()][];
+        for (int e = 0; e < errors.size(); e++) {
+            Error error = errors.get(e);
+            pageIds[e] = new int[error.getDataEntryCount()];
+            for (int i = 0; i < pageIds[e].length; i++) {
+                pageIds[e][i] = sharedTable != null ? error.getUrlId(i) : urlTable.intern(error.getUrl(i));
+            }
+        }
+
+        // Count the postings of each page, then lay them out page by page
+        int pages = urlTable.size();
+        start = new int[pages];
+        end = new int[pages];
+        pageTotals = new int[pages];
+        int postings = 0;
+        for (int[] ids : pageIds) {
+            for (int page : ids) {
+                start[page]++;
+                postings++;
+            }
+        }
+        int offset = 0;
+        for (int page = 0; page < pages; page++) {
+            int count = start[page];
+            start[page] = offset;
+            end[page] = offset;
+            offset += count;
+        }
+
+        postingErrors = new int[postings];
+        postingCounts = new int[postings];
+        int affectedPages = 0;
+        for (int e = 0; e < errors.size(); e++) {
+            Error error = errors.get(e);
+            for (int i = 0; i < pageIds[e].length; i++) {
+                int page = pageIds[e][i];
+                int count = error.getCount(i);
+                pageTotals[page] += count;
+                if (end[page] == start[page]) {
+                    affectedPages++;
+                } else if (postingErrors[end[page] - 1] == e) {
+                    // A page listed twice under the same error is merged into one posting
+                    postingCounts[end[page] - 1] += count;
+                    continue;
+                }
+                postingErrors[end[page]] = e;
+                postingCounts[end[page]] = count;
+                end[page]++;
+            }
+        }
+        pageCount = affectedPages;
+    }
+
+    /**
+     * Retrieves the number of pages with at least one error.
+     *
+     * @return The number of affected pages.
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Finds the pages with the most errors, using a heap of at most
+     * {@code limit} pages. Pages with the same total keep the order in which
+     * they were first found.
+     *
+     * @param limit Maximum number of pages to return.
+     * @return The pages, worst first, each with its errors by decreasing count.
+     */
+    public List<PageSummary> getWorstPages(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        // The root is the best page kept so far, replaced by any worse page
+        Comparator<Integer> worse = Comparator.<Integer>comparingInt(page -> pageTotals[page])
+                .thenComparing(Comparator.reverseOrder());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, Math.max(1, pageCount)), worse);
+        for (int page = 0; page < pageTotals.length; page++) {
+            if (end[page] == start[page]) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(page);
+            } else if (worse.compare(page, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(page);
+            }
+        }
+
+        PageSummary[] worst = new PageSummary[heap.size()];
+        for (int i = worst.length - 1; i >= 0; i--) {
+            worst[i] = summarize(heap.poll());
+        }
+        return Arrays.asList(worst);
+    }
+
+    /**
+     * Builds the summary of one page.
+     *
+     * @param page The page ID.
+     * @return The page with its errors by decreasing count.
+     */
+    private PageSummary summarize(int page) {
+        Integer[] order = new Integer[end[page] - start[page]];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = start[page] + i;
+        }
+        // Postings are in report order, so the stable sort keeps ties in that order
+        Arrays.sort(order, Comparator.comparingInt((Integer posting) -> postingCounts[posting]).reversed());
+
+        List<ErrorSummary> pageErrors = new ArrayList<>(order.length);
+        for (int posting : order) {
+            pageErrors.add(new ErrorSummary(errors.get(postingErrors[posting]).getErrorName(),
+                    postingCounts[posting]));
+        }
+        return new PageSummary(urlTable.get(page), pageTotals[page], pageErrors);
+    }
+
+    /**
+     * The errors found on one page.
+     */
+    public static final class PageSummary {
+
+        private final String url;
+        private final int totalErrors;
+        private final List<ErrorSummary> errors;
+
+        private PageSummary(String url, int totalErrors, List<ErrorSummary> errors) {
+            this.url = url;
+            this.totalErrors = totalErrors;
+            this.errors = errors;
+        }
+
+        /** @return The URL of the page. */
+        public String getUrl() {
+            return url;
+        }
+
+        /** @return The total number of errors on the page. */
+        public int getTotalErrors() {
+            return totalErrors;
+        }
+
+        /** @return The errors on the page with their counts, by decreasing count. */
+        public List<ErrorSummary> getErrors() {
+            return errors;
+        }
+    }
+}
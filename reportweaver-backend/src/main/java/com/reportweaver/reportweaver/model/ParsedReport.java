@@ -0,0 +1,46 @@
+package com.reportweaver.reportweaver.model;
+
+import java.util.List;
+
+/**
+ * Represents the contents of a downloaded PopeTech report file.
+ * This model holds the base URL of the scanned website and the rows of the
+ * report table, as read directly from the HTML without a browser.
+ */
+public class ParsedReport {
+
+    // ✅ The protocol and host of the scanned website, or an empty string.
+    private final String baseUrl;
+
+    // ✅ The rows of the report table, in document order.
+    private final List<ReportRow> rows;
+
+    /**
+     * Constructs a ParsedReport with the values read from the report file.
+     *
+     * @param baseUrl The protocol and host of the scanned website.
+     * @param rows    The rows of the report table.
+     */
+    public ParsedReport(String baseUrl, List<ReportRow> rows) {
+        this.baseUrl = baseUrl;
+        this.rows = rows;
+    }
+
+    /**
+     * Retrieves the base URL of the scanned website.
+     *
+     * @return The base URL, or an empty string if it could not be determined.
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Retrieves the rows of the report table.
+     *
+     * @return A list of {@link ReportRow} objects in document order.
+     */
+    public List<ReportRow> getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,100 @@
+package com.reportweaver.reportweaver.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Represents the progress of a report job at one point in time.
+ * Events are sent to the job's WebSocket subscribers as compact JSON, so
+ * clients can show a stage, a counter and an estimate of the time left.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({ "type", "jobId", "stage", "done", "total", "elapsedMillis", "etaMillis" })
+public class ProgressEvent {
+
+    /**
+     * Stages of the report pipeline, in the order they run.
+     */
+    public enum Stage {
+        QUEUED, LOGGING_IN, FINDING_REPORT, DOWNLOADING, EXTRACTING, ENRICHING, WRITING_DOCUMENT, SHARING,
+        COMPLETED, FAILED;
+
+        /**
+         * Checks whether the stage ends the job.
+         *
+         * @return True for COMPLETED and FAILED.
+         */
+        public boolean isFinal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    // ✅ The job the event belongs to.
+    private final String jobId;
+
+    // ✅ The current stage of the job.
+    private final Stage stage;
+
+    // ✅ Items finished and the total number of items in the stage; 0 if the
+    // stage has no countable items.
+    private final int done;
+    private final int total;
+
+    // ✅ Time since the job started, in milliseconds.
+    private final long elapsedMillis;
+
+    // ✅ Estimated time left in the stage, in milliseconds, or null if unknown.
+    private final Long etaMillis;
+
+    /**
+     * Constructs a ProgressEvent.
+     *
+     * @param jobId         The job the event belongs to.
+     * @param stage         The current stage of the job.
+     * @param done          Items finished in the stage.
+     * @param total         Total number of items in the stage.
+     * @param elapsedMillis Time since the job started, in milliseconds.
+     * @param etaMillis     Estimated time left in the stage, or null.
+     */
+    public ProgressEvent(String jobId, Stage stage, int done, int total, long elapsedMillis, Long etaMillis) {
+        this.jobId = jobId;
+        this.stage = stage;
+        this.done = done;
+        this.total = total;
+        this.elapsedMillis = elapsedMillis;
+        this.etaMillis = etaMillis;
+    }
+
+    /**
+     * Retrieves the message type, which tells clients how to read the event.
+     *
+     * @return Always "progress".
+     */
+    public String getType() {
+        return "progress";
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public int getDone() {
+        return done;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Long getEtaMillis() {
+        return etaMillis;
+    }
+}
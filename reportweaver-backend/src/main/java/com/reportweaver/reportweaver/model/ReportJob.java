@@ -0,0 +1,185 @@
+package com.reportweaver.reportweaver.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Represents a queued or completed report generation job.
+ * Jobs are persisted as JSON so that queued work survives a restart; the
+ * PopeTech password is only ever stored encrypted.
+ */
+public class ReportJob {
+
+    /**
+     * Lifecycle states of a report job.
+     */
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    // ✅ Unique identifier returned to the client.
+    private String jobId;
+
+    // ✅ Current state of the job.
+    private Status status;
+
+    // ✅ The website whose report should be generated.
+    private String website;
+
+    // ✅ The PopeTech username.
+    private String username;
+
+    // ✅ The PopeTech password, encrypted and base64-encoded.
+    private String encryptedPassword;
+
+    // ✅ The email address the report is shared with.
+    private String email;
+
+    // ✅ Emails of later requests that were attached to this job instead of
+    // starting their own; the document is shared with each of them.
+    private List<String> additionalEmails = new CopyOnWriteArrayList<>();
+
+    // ✅ The Google Doc ID once the job has completed.
+    private String documentId;
+
+    // ✅ The reason the job failed, if it did.
+    private String error;
+
+    // ✅ Times (epoch milliseconds) when the job was created, started and finished.
+    private long createdAt;
+    private long startedAt;
+    private long finishedAt;
+
+    /**
+     * Constructs an empty ReportJob, used when reading persisted jobs.
+     */
+    public ReportJob() {
+    }
+
+    /**
+     * Constructs a new queued ReportJob.
+     *
+     * @param jobId             Unique identifier of the job.
+     * @param website           The website whose report should be generated.
+     * @param username          The PopeTech username.
+     * @param encryptedPassword The encrypted, base64-encoded PopeTech password.
+     * @param email             The email address the report is shared with.
+     */
+    public ReportJob(String jobId, String website, String username, String encryptedPassword, String email) {
+        this.jobId = jobId;
+        this.status = Status.QUEUED;
+        this.website = website;
+        this.username = username;
+        this.encryptedPassword = encryptedPassword;
+        this.email = email;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks whether the job has finished, successfully or not.
+     *
+     * @return True if the job is completed or failed.
+     */
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getWebsite() {
+        return website;
+    }
+
+    public void setWebsite(String website) {
+        this.website = website;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEncryptedPassword() {
+        return encryptedPassword;
+    }
+
+    public void setEncryptedPassword(String encryptedPassword) {
+        this.encryptedPassword = encryptedPassword;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public List<String> getAdditionalEmails() {
+        return additionalEmails;
+    }
+
+    public void setAdditionalEmails(List<String> additionalEmails) {
+        this.additionalEmails = new CopyOnWriteArrayList<>(additionalEmails);
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(String documentId) {
+        this.documentId = documentId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
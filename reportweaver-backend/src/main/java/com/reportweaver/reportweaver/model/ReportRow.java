@@ -0,0 +1,88 @@
+package com.reportweaver.reportweaver.model;
+
+/**
+ * Represents a single row of the downloaded PopeTech report table.
+ * This model captures everything needed to enrich an error with its
+ * documentation and affected pages, so that the enrichment can run without
+ * touching the report page again.
+ */
+public class ReportRow {
+
+    // ✅ The name of the error as shown in the report.
+    private final String errorName;
+
+    // ✅ The category of the error (e.g. "Errors", "Contrast Errors").
+    private final String errorCategory;
+
+    // ✅ The number of instances reported for this error.
+    private final int instanceCount;
+
+    // ✅ Link to the documentation page for this error.
+    private final String documentationUrl;
+
+    // ✅ Link to the page listing where this error occurs.
+    private final String detailUrl;
+
+    /**
+     * Constructs a ReportRow with the values read from the report table.
+     *
+     * @param errorName        The name of the error.
+     * @param errorCategory    The category of the error.
+     * @param instanceCount    The number of instances reported for the error.
+     * @param documentationUrl Link to the error documentation page.
+     * @param detailUrl        Link to the error details page.
+     */
+    public ReportRow(String errorName, String errorCategory, int instanceCount, String documentationUrl,
+            String detailUrl) {
+        this.errorName = errorName;
+        this.errorCategory = errorCategory;
+        this.instanceCount = instanceCount;
+        this.documentationUrl = documentationUrl;
+        this.detailUrl = detailUrl;
+    }
+
+    /**
+     * Retrieves the name of the error.
+     *
+     * @return The error name as a string.
+     */
+    public String getErrorName() {
+        return errorName;
+    }
+
+    /**
+     * Retrieves the category of the error.
+     *
+     * @return The error category as a string.
+     */
+    public String getErrorCategory() {
+        return errorCategory;
+    }
+
+    /**
+     * Retrieves the number of instances reported for the error.
+     *
+     * @return The instance count.
+     */
+    public int getInstanceCount() {
+        return instanceCount;
+    }
+
+    /**
+     * Retrieves the link to the error documentation page.
+     *
+     * @return The documentation URL.
+     */
+    public String getDocumentationUrl() {
+        return documentationUrl;
+    }
+
+    /**
+     * Retrieves the link to the error details page.
+     *
+     * @return The detail URL.
+     */
+    public String getDetailUrl() {
+        return detailUrl;
+    }
+}
@@ -0,0 +1,114 @@
+package com.reportweaver.reportweaver.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Represents the result of a completed report run for a website and
+ * PopeTech account.
+ * The snapshot records the hash of the downloaded report file together with
+ * the extracted errors and the Google Doc built from them, so an unchanged
+ * report can be answered without extracting it again.
+ */
+public class ReportSnapshot {
+
+    // ✅ The website the report was generated for.
+    private final String website;
+
+    // ✅ The PopeTech username whose report it is; the document is only ever
+    // reused for the same account.
+    private final String username;
+
+    // ✅ SHA-256 hash of the downloaded report file.
+    private final String fileHash;
+
+    // ✅ The Google Doc built from the report.
+    private final String documentId;
+
+    // ✅ The errors extracted from the report.
+    private final List<Error> errors;
+
+    // ✅ Time (epoch milliseconds) when the snapshot was taken.
+    private final long createdAt;
+
+    /**
+     * Constructs a ReportSnapshot for a completed run.
+     *
+     * @param website    The website the report was generated for.
+     * @param username   The PopeTech username whose report it is.
+     * @param fileHash   SHA-256 hash of the downloaded report file.
+     * @param documentId The Google Doc built from the report.
+     * @param errors     The errors extracted from the report.
+     * @param createdAt  Time (epoch milliseconds) when the snapshot was taken.
+     */
+    @JsonCreator
+    public ReportSnapshot(@JsonProperty("website") String website,
+            @JsonProperty("username") String username,
+            @JsonProperty("fileHash") String fileHash,
+            @JsonProperty("documentId") String documentId,
+            @JsonProperty("errors") List<Error> errors,
+            @JsonProperty("createdAt") long createdAt) {
+        this.website = website;
+        this.username = username;
+        this.fileHash = fileHash;
+        this.documentId = documentId;
+        this.errors = errors == null ? List.of() : errors;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Retrieves the website the report was generated for.
+     *
+     * @return The website.
+     */
+    public String getWebsite() {
+        return website;
+    }
+
+    /**
+     * Retrieves the PopeTech username whose report it is.
+     *
+     * @return The username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Retrieves the hash of the downloaded report file.
+     *
+     * @return The SHA-256 hash as a lowercase hex string.
+     */
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    /**
+     * Retrieves the Google Doc built from the report.
+     *
+     * @return The Google Doc ID.
+     */
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * Retrieves the errors extracted from the report.
+     *
+     * @return The extracted errors.
+     */
+    public List<Error> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Retrieves the time when the snapshot was taken.
+     *
+     * @return The time in epoch milliseconds.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
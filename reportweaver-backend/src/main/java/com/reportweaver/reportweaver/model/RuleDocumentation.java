@@ -0,0 +1,80 @@
+package com.reportweaver.reportweaver.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Represents the documentation scraped for an accessibility rule.
+ * This model is cached between jobs, since the documentation for a rule rarely
+ * changes.
+ */
+public class RuleDocumentation {
+
+    // ✅ General documentation text for the rule.
+    private final String documentation;
+
+    // ✅ Explanation of why the rule matters.
+    private final String whyItMatters;
+
+    // ✅ Steps to fix violations of the rule.
+    private final String howToFixIt;
+
+    // ✅ Time (epoch milliseconds) when the documentation was scraped.
+    private final long fetchedAt;
+
+    /**
+     * Constructs a RuleDocumentation object with the scraped details.
+     *
+     * @param documentation General documentation text for the rule.
+     * @param whyItMatters  Explanation of why the rule matters.
+     * @param howToFixIt    Steps to fix violations of the rule.
+     * @param fetchedAt     Time (epoch milliseconds) when the documentation was
+     *                      scraped.
+     */
+    @JsonCreator
+    public RuleDocumentation(@JsonProperty("documentation") String documentation,
+            @JsonProperty("whyItMatters") String whyItMatters,
+            @JsonProperty("howToFixIt") String howToFixIt,
+            @JsonProperty("fetchedAt") long fetchedAt) {
+        this.documentation = documentation;
+        this.whyItMatters = whyItMatters;
+        this.howToFixIt = howToFixIt;
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * Retrieves the general documentation text for the rule.
+     *
+     * @return The documentation text.
+     */
+    public String getDocumentation() {
+        return documentation;
+    }
+
+    /**
+     * Retrieves the explanation of why the rule matters.
+     *
+     * @return A string describing why the rule matters.
+     */
+    public String getWhyItMatters() {
+        return whyItMatters;
+    }
+
+    /**
+     * Retrieves the steps to fix violations of the rule.
+     *
+     * @return A string describing how to fix the rule.
+     */
+    public String getHowToFixIt() {
+        return howToFixIt;
+    }
+
+    /**
+     * Retrieves the time when the documentation was scraped.
+     *
+     * @return The fetch time in epoch milliseconds.
+     */
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+}
@@ -0,0 +1,123 @@
+package com.reportweaver.reportweaver.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary of the page URLs of one report, shared by all of its
+ * {@link Error}s.
+ * Each distinct URL is stored once and referred to by a dense int ID, so an
+ * error only keeps an int per affected page. URLs are further split into
+ * their origin (scheme and host), stored once per site, and their path, so
+ * the base URL repeated by every page is not stored again for each of them.
+ * Safe for concurrent use by the extraction workers.
+ */
+public class UrlTable {
+
+    // ✅ Distinct origins, e.g. "https://www.example.edu". Replaced, never
+    // modified in place, when one is added.
+    private volatile String[] origins = new String[0];
+
+    // ✅ ID of each path, per origin; guarded by this table.
+    private final List<Map<String, Integer>> idsByOrigin = new ArrayList<>();
+
+    // ✅ Origin index of each URL ID. Replaced, never modified in place, when grown.
+    private volatile int[] originOf = new int[64];
+
+    // ✅ Path of each URL ID. Replaced, never modified in place, when grown.
+    private volatile String[] paths = new String[64];
+
+    // ✅ Number of distinct URLs; guarded by this table.
+    private int size;
+
+    /**
+     * Retrieves the ID of a URL, adding it to the table if needed.
+     *
+     * @param url The URL.
+     * @return The ID of the URL, between 0 and {@link #size()} - 1.
+     */
+    public synchronized int intern(String url) {
+        int split = pathStart(url);
+        String origin = url.substring(0, split);
+        String path = url.substring(split);
+
+        int originIndex = indexOfOrigin(origin);
+        if (originIndex < 0) {
+            originIndex = origins.length;
+            String[] grown = Arrays.copyOf(origins, originIndex + 1);
+            grown[originIndex] = origin;
+            origins = grown;
+            idsByOrigin.add(new HashMap<>());
+        }
+        Integer id = idsByOrigin.get(originIndex).get(path);
+        if (id != null) {
+            return id;
+        }
+
+        if (size == paths.length) {
+            // Publish grown copies, so readers never see a partially copied array
+            originOf = Arrays.copyOf(originOf, size * 2);
+            paths = Arrays.copyOf(paths, size * 2);
+        }
+        originOf[size] = originIndex;
+        paths[size] = path;
+        idsByOrigin.get(originIndex).put(path, size);
+        return size++;
+    }
+
+    /**
+     * Retrieves the URL with an ID. Lock-free; the ID must have been handed over from the interning thread,
+     * e.g. through the {@link Error} that stores it.
+     *
+     * @param id An ID returned by {@link #intern(String)}.
+     * @return The URL.
+     */
+    public String get(int id) {
+        String path = paths[id];
+        String origin = origins[originOf[id]];
+        return path.isEmpty() ? origin : origin + path;
+    }
+
+    /**
+     * Retrieves the number of distinct URLs in the table.
+     *
+     * @return The number of URLs.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Finds the index of an origin. Sites have a handful of origins at most,
+     * so a scan beats hashing.
+     *
+     * @param origin The origin.
+     * @return The index of the origin, or -1 if it is not in the table.
+     */
+    private int indexOfOrigin(String origin) {
+        String[] current = origins;
+        for (int i = current.length - 1; i >= 0; i--) {
+            if (current[i].equals(origin)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds where the path of a URL starts: at the first slash after the
+     * host, or at the end of the URL if it has no path.
+     *
+     * @param url The URL.
+     * @return The index of the path.
+     */
+    private static int pathStart(String url) {
+        int scheme = url.indexOf("://");
+        int hostStart = scheme < 0 ? 0 : scheme + 3;
+        int slash = url.indexOf('/', hostStart);
+        return slash < 0 ? url.length() : slash;
+    }
+}
@@ -0,0 +1,300 @@
+package com.reportweaver.reportweaver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportweaver.reportweaver.model.RuleDocumentation;
+import com.reportweaver.reportweaver.util.HashUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service that caches scraped rule documentation between jobs.
+ * Entries are kept in a size-bounded in-memory tier backed by an on-disk tier
+ * that survives restarts. Both tiers honour the same time-to-live, after which
+ * the documentation is scraped again.
+ */
+@Service
+public class DocumentationCacheService {
+
+    // Logger instance for logging cache activity.
+    private static final Logger logger = LoggerFactory.getLogger(DocumentationCacheService.class);
+
+    // Serializes cache entries to and from the on-disk tier.
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // In-memory tier, kept in access order so the least recently used entry is
+    // evicted first.
+    private final LinkedHashMap<String, RuleDocumentation> memoryCache;
+
+    // Maximum number of entries held in memory.
+    private final int maxEntries;
+
+    // How long an entry stays valid after it was scraped.
+    private final Duration ttl;
+
+    // Directory for the on-disk tier, or null if the disk tier is disabled.
+    private final Path cacheDirectory;
+
+    // Cache counters exposed through getCacheStats().
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructs the DocumentationCacheService with the cache settings from
+     * application.properties.
+     *
+     * @param maxEntries Maximum number of entries held in memory.
+     * @param ttlHours   Hours an entry stays valid after it was scraped.
+     * @param directory  Directory for the on-disk tier; blank disables it.
+     */
+    public DocumentationCacheService(
+            @Value("${reportweaver.documentation-cache.max-entries:500}") int maxEntries,
+            @Value("${reportweaver.documentation-cache.ttl-hours:168}") long ttlHours,
+            @Value("${reportweaver.documentation-cache.directory:}") String directory) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cacheDirectory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+        this.memoryCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RuleDocumentation> eldest) {
+                if (size() > DocumentationCacheService.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        if (cacheDirectory != null) {
+            try {
+                Files.createDirectories(cacheDirectory);
+            } catch (IOException e) {
+                logger.error("Could not create documentation cache directory {}: {}", cacheDirectory,
+                        e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Builds the cache key for a rule, preferring its documentation URL and
+     * falling back to the rule name.
+     *
+     * @param documentationUrl The documentation URL of the rule, if known.
+     * @param ruleName         The name of the rule.
+     * @return The cache key.
+     */
+    public static String cacheKey(String documentationUrl, String ruleName) {
+        if (documentationUrl != null && !documentationUrl.isBlank()) {
+            int fragment = documentationUrl.indexOf('#');
+            return "url:" + (fragment >= 0 ? documentationUrl.substring(0, fragment) : documentationUrl).trim();
+        }
+        return "rule:" + ruleName.trim().toLowerCase();
+    }
+
+    /**
+     * Looks up cached documentation, first in memory and then on disk.
+     *
+     * @param key The cache key from {@link #cacheKey(String, String)}.
+     * @return The cached documentation, or null if it is missing or expired.
+     */
+    public RuleDocumentation get(String key) {
+        synchronized (memoryCache) {
+            RuleDocumentation cached = memoryCache.get(key);
+            if (cached != null) {
+                if (!isExpired(cached)) {
+                    memoryHits.incrementAndGet();
+                    return cached;
+                }
+                memoryCache.remove(key);
+                expired.incrementAndGet();
+            }
+        }
+
+        RuleDocumentation stored = readFromDisk(key);
+        if (stored != null) {
+            if (!isExpired(stored)) {
+                diskHits.incrementAndGet();
+                synchronized (memoryCache) {
+                    memoryCache.put(key, stored);
+                }
+                return stored;
+            }
+            expired.incrementAndGet();
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores documentation in both cache tiers.
+     *
+     * @param key           The cache key from {@link #cacheKey(String, String)}.
+     * @param documentation The scraped documentation.
+     */
+    public void put(String key, RuleDocumentation documentation) {
+        synchronized (memoryCache) {
+            memoryCache.put(key, documentation);
+        }
+        writeToDisk(key, documentation);
+    }
+
+    /**
+     * Takes a snapshot of the cache counters.
+     *
+     * @return The current cache statistics.
+     */
+    public CacheStats getCacheStats() {
+        int size;
+        synchronized (memoryCache) {
+            size = memoryCache.size();
+        }
+        return new CacheStats(size, maxEntries, memoryHits.get(), diskHits.get(), misses.get(), expired.get(),
+                evictions.get());
+    }
+
+    /**
+     * Checks whether an entry is older than the configured time-to-live.
+     *
+     * @param documentation The cached documentation.
+     * @return True if the entry has expired.
+     */
+    private boolean isExpired(RuleDocumentation documentation) {
+        return System.currentTimeMillis() - documentation.getFetchedAt() > ttl.toMillis();
+    }
+
+    /**
+     * Reads an entry from the on-disk tier.
+     *
+     * @param key The cache key.
+     * @return The stored documentation, or null if it is not on disk.
+     */
+    private RuleDocumentation readFromDisk(String key) {
+        if (cacheDirectory == null) {
+            return null;
+        }
+        Path file = cacheDirectory.resolve(fileName(key));
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), RuleDocumentation.class);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable documentation cache entry {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes an entry to the on-disk tier. The file is written to a temporary
+     * name first so concurrent readers never see a partial entry.
+     *
+     * @param key           The cache key.
+     * @param documentation The documentation to store.
+     */
+    private void writeToDisk(String key, RuleDocumentation documentation) {
+        if (cacheDirectory == null) {
+            return;
+        }
+        Path file = cacheDirectory.resolve(fileName(key));
+        try {
+            Path temp = Files.createTempFile(cacheDirectory, "entry", ".tmp");
+            objectMapper.writeValue(temp.toFile(), documentation);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write documentation cache entry {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Derives a file name for a cache key.
+     *
+     * @param key The cache key.
+     * @return A file name that is safe on every platform.
+     */
+    private static String fileName(String key) {
+        return HashUtils.sha256Hex(key) + ".json";
+    }
+
+    /**
+     * Point-in-time statistics about the documentation cache.
+     */
+    public static final class CacheStats {
+
+        private final int size;
+        private final int maxEntries;
+        private final long memoryHits;
+        private final long diskHits;
+        private final long misses;
+        private final long expired;
+        private final long evictions;
+
+        private CacheStats(int size, int maxEntries, long memoryHits, long diskHits, long misses, long expired,
+                long evictions) {
+            this.size = size;
+            this.maxEntries = maxEntries;
+            this.memoryHits = memoryHits;
+            this.diskHits = diskHits;
+            this.misses = misses;
+            this.expired = expired;
+            this.evictions = evictions;
+        }
+
+        /** @return The number of entries held in memory. */
+        public int getSize() {
+            return size;
+        }
+
+        /** @return The maximum number of entries held in memory. */
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        /** @return The number of lookups answered from memory. */
+        public long getMemoryHits() {
+            return memoryHits;
+        }
+
+        /** @return The number of lookups answered from disk. */
+        public long getDiskHits() {
+            return diskHits;
+        }
+
+        /** @return The number of lookups that required a fresh scrape. */
+        public long getMisses() {
+            return misses;
+        }
+
+        /** @return The number of entries discarded because they expired. */
+        public long getExpired() {
+            return expired;
+        }
+
+        /** @return The number of entries evicted from memory to stay in bounds. */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /** @return The fraction of lookups answered from either tier. */
+        public double getHitRatio() {
+            long hits = memoryHits + diskHits;
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
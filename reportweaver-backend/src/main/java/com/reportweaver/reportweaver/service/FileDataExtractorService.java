@@ -1,37 +1,57 @@
 package com.reportweaver.reportweaver.service;
 
+import com.reportweaver.reportweaver.model.BrowserSession;
 import com.reportweaver.reportweaver.model.Error;
 import com.reportweaver.reportweaver.model.ErrorSummary;
-
+import com.reportweaver.reportweaver.model.ParsedReport;
+import com.reportweaver.reportweaver.model.ProgressEvent;
+import com.reportweaver.reportweaver.model.ReportRow;
+import com.reportweaver.reportweaver.model.RuleDocumentation;
+import com.reportweaver.reportweaver.model.UrlTable;
+
+import com.reportweaver.reportweaver.util.BrowserSessionUtils;
+import com.reportweaver.reportweaver.util.PipelineMetrics;
+import com.reportweaver.reportweaver.util.ReportFileParser;
+import com.reportweaver.reportweaver.util.TaskExecutorFactory;
+import com.reportweaver.reportweaver.util.WebDriverManager;
 import com.reportweaver.reportweaver.util.WebScraperUtils;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class FileDataExtractorService {
 
     // Logger instance for logging important information and errors.
     private static final Logger logger = LoggerFactory.getLogger(FileDataExtractorService.class);
 
-    // WebDriver instance used for interacting with web pages.
-    private final WebDriver driver;
+    // Link on the error details page that opens the list of affected pages.
+    private static final By ERROR_DETAIL_LINK = By.cssSelector(WebScraperUtils.ERROR_DETAIL_SELECTOR);
 
-    // WebDriverWait instance to handle dynamic waits for web elements.
-    private final WebDriverWait wait;
+    // Cells read from each row of the error count table.
+    private static final List<WebScraperUtils.ColumnSpec> ERROR_COUNT_COLUMNS = List.of(
+            WebScraperUtils.ColumnSpec.text("uri", ".column-uri"),
+            WebScraperUtils.ColumnSpec.text("count", ".column-count"));
 
     // Service responsible for handling login operations.
     private final LoginService loginService;
@@ -39,26 +59,41 @@ public class FileDataExtractorService {
     // WebSocket handler for sending real-time status updates to the frontend.
     private final SeleniumStatusHandler seleniumStatusHandler;
 
-    // Stores the base URL extracted from the report or webpage.
-    private String baseURL;
+    // Pool of reusable browsers used for documentation and error detail lookups.
+    private final WebDriverManager seleniumManager;
+
+    // Cache of rule documentation shared across jobs.
+    private final DocumentationCacheService documentationCache;
+
+    // Maximum number of report rows enriched at the same time.
+    private final int parallelism;
+
+    // Creates the executor that enriches rows in parallel.
+    private final TaskExecutorFactory taskExecutorFactory;
 
     /**
      * Constructor for FileDataExtractorService.
      *
-     * @param driver                Selenium WebDriver instance for interacting with
-     *                              the web.
-     * @param wait                  WebDriverWait instance for handling wait
-     *                              conditions.
      * @param loginService          Service responsible for login operations.
      * @param seleniumStatusHandler WebSocket handler for sending real-time status
      *                              updates.
+     * @param seleniumManager       Driver pool that supplies browsers for
+     *                              documentation and detail lookups.
+     * @param documentationCache    Cache of rule documentation shared across
+     *                              jobs.
+     * @param parallelism           Maximum number of rows enriched concurrently;
+     *                              1 processes rows sequentially.
+     * @param taskExecutorFactory   Creates the executor for parallel enrichment.
      */
-    public FileDataExtractorService(WebDriver driver, WebDriverWait wait, LoginService loginService,
-            SeleniumStatusHandler seleniumStatusHandler) {
-        this.driver = driver;
-        this.wait = wait;
+    public FileDataExtractorService(LoginService loginService, SeleniumStatusHandler seleniumStatusHandler,
+            WebDriverManager seleniumManager, DocumentationCacheService documentationCache, int parallelism,
+            TaskExecutorFactory taskExecutorFactory) {
         this.loginService = loginService;
         this.seleniumStatusHandler = seleniumStatusHandler;
+        this.seleniumManager = seleniumManager;
+        this.documentationCache = documentationCache;
+        this.parallelism = Math.max(1, parallelism);
+        this.taskExecutorFactory = taskExecutorFactory;
     }
 
     /**
@@ -77,46 +112,60 @@ public class FileDataExtractorService {
     }
 
     /**
-     * Extracts data from a specified file by navigating through web elements and
-     * retrieving error details.
+     * Extracts data from a specified file and retrieves error details.
+     * The report file is parsed directly from disk; each valid row is then
+     * enriched with its documentation and affected pages, using up to
+     * {@code parallelism} workers. The returned errors keep the order of the rows
+     * in the report.
      *
      * @param filePath The path to the file being processed.
+     * @param session  The job's authenticated browser session, injected into
+     *                 every worker browser; null forces a full login per worker.
      * @param username The username for authentication if required.
      * @param password The password for authentication if required.
      * @return A list of extracted errors.
      */
-    public List<Error> extractData(String filePath, String username, String password) {
+    public List<Error> extractData(String filePath, BrowserSession session, String username, String password) {
         seleniumStatusHandler.sendUpdate("Starting data extraction from file: " + filePath);
-        List<Error> errors = new ArrayList<>();
+        Timer.Sample extractionTimer = PipelineMetrics.start();
 
-        // Load the file into the browser
-        driver.get("file:///" + filePath.replace("\\", "/"));
+        // Parse the report file without a browser
+        ParsedReport report;
+        try {
+            report = ReportFileParser.parse(new File(filePath));
+        } catch (IOException e) {
+            seleniumStatusHandler.sendUpdate("Error reading report file: " + e.getMessage());
+            logger.error("Error reading report file: {}", e.getMessage(), e);
+            PipelineMetrics.stop(extractionTimer, PipelineMetrics.EXTRACTION, false);
+            return new ArrayList<>();
+        }
 
-        // Retrieve all table rows containing report data
-        List<WebElement> rows = WebScraperUtils.waitForElements(wait, By.cssSelector(WebScraperUtils.ROW_SELECTOR));
+        seleniumStatusHandler.sendUpdate("Number of rows found: " + report.getRows().size());
+        logger.info("Number of rows found: {}", report.getRows().size());
 
-        seleniumStatusHandler.sendUpdate("Number of rows found: " + rows.size());
-        logger.info("Number of rows found: {}", rows.size());
+        String baseURL = report.getBaseUrl();
+        seleniumStatusHandler.sendUpdate("Base URL extracted: " + baseURL);
+        logger.info("Base URL: {}", baseURL);
 
-        // Extract the base URL from the report
-        try {
-            WebElement linkElement = WebScraperUtils.waitForElement(wait,
-                    By.cssSelector(WebScraperUtils.ERROR_LINK_SELECTOR));
-            String fullUrl = linkElement.getAttribute("href");
-            seleniumStatusHandler.sendUpdate("Extracting base URL...");
-            extractBaseURL(fullUrl);
-            seleniumStatusHandler.sendUpdate("Base URL extracted: " + baseURL);
-            logger.info("Base URL: " + baseURL);
-        } catch (Exception e) {
-            seleniumStatusHandler.sendUpdate("Error extracting base URL: " + e.getMessage());
-            logger.error("Error extracting base URL: {}", e.getMessage(), e);
-            baseURL = ""; // Default to an empty string if parsing fails
+        // Keep only rows with instances in the reported categories
+        List<ReportRow> reportRows = new ArrayList<>();
+        for (ReportRow reportRow : report.getRows()) {
+            if (reportRow.getInstanceCount() > 0 && isValidCategory(reportRow.getErrorCategory())) {
+                seleniumStatusHandler.sendUpdate("Found valid error: " + reportRow.getErrorName());
+                reportRows.add(reportRow);
+            }
         }
 
-        // Process each row in the report to extract relevant error details
-        for (WebElement row : rows) {
-            processRow(row, errors, username, password);
-        }
+        // Enrich each valid row with its documentation and affected pages. The
+        // errors share one URL table, as most pages appear under several errors
+        AtomicReference<BrowserSession> sharedSession = new AtomicReference<>(session);
+        UrlTable urlTable = new UrlTable();
+        List<Error> errors = enrichRows(reportRows, baseURL, urlTable, sharedSession, username, password);
+        PipelineMetrics.stop(extractionTimer, PipelineMetrics.EXTRACTION, true);
+        PipelineMetrics.countEntries("report_rows", reportRows.size());
+        PipelineMetrics.countEntries("errors", errors.size());
+        PipelineMetrics.countEntries("data_entries",
+                errors.stream().mapToInt(Error::getDataEntryCount).sum());
 
         // Print extracted errors to the console
         System.out.println("Errors found:");
@@ -126,88 +175,134 @@ public class FileDataExtractorService {
     }
 
     /**
-     * Extracts the base URL from a given full URL.
-     * This method parses the URL and stores only the protocol (http/https) and
-     * host.
+     * Enriches report rows with their documentation and affected pages.
+     * Rows are independent of each other, so they are fanned out across a fixed
+     * number of workers. Results are collected in submission order, which keeps
+     * the errors in the same order as the report.
      *
-     * @param fullUrl The full URL extracted from the document.
+     * @param reportRows    The valid rows read from the report.
+     * @param baseURL       The base URL of the scanned website.
+     * @param urlTable      The URL table shared by the report's errors.
+     * @param sharedSession The job's authenticated session, shared by all
+     *                      workers.
+     * @param username      The username used for authentication if required.
+     * @param password      The password used for authentication if required.
+     * @return The enriched errors, in report order.
      */
-    private void extractBaseURL(String fullUrl) {
+    private List<Error> enrichRows(List<ReportRow> reportRows, String baseURL, UrlTable urlTable,
+            AtomicReference<BrowserSession> sharedSession, String username, String password) {
+        List<Error> errors = new ArrayList<>();
+        int workers = Math.min(parallelism, reportRows.size());
+        int total = reportRows.size();
+        AtomicInteger done = new AtomicInteger();
+        seleniumStatusHandler.sendProgress(ProgressEvent.Stage.ENRICHING, 0, total);
+
+        // Sequential mode keeps the original one-row-at-a-time behaviour
+        if (workers <= 1) {
+            for (ReportRow reportRow : reportRows) {
+                Error error = enrichRow(reportRow, baseURL, urlTable, sharedSession, username, password);
+                if (error != null) {
+                    errors.add(error);
+                }
+                seleniumStatusHandler.sendProgress(ProgressEvent.Stage.ENRICHING, done.incrementAndGet(), total);
+            }
+            return errors;
+        }
+
+        seleniumStatusHandler.sendUpdate("Enriching " + reportRows.size() + " errors using " + workers + " workers...");
+        // At most "workers" errors are enriched at once, on virtual threads or not
+        ExecutorService executor = taskExecutorFactory.newFanOutExecutor("enrich-", workers);
         try {
-            // Parse the URL to extract protocol and host
-            URL url = new URL(fullUrl);
-            baseURL = url.getProtocol() + "://" + url.getHost();
+            List<Callable<Error>> tasks = new ArrayList<>();
+            for (ReportRow reportRow : reportRows) {
+                tasks.add(() -> {
+                    try {
+                        return enrichRow(reportRow, baseURL, urlTable, sharedSession, username, password);
+                    } finally {
+                        seleniumStatusHandler.sendProgress(ProgressEvent.Stage.ENRICHING, done.incrementAndGet(),
+                                total);
+                    }
+                });
+            }
 
-            // Send update about the extracted base URL
-            seleniumStatusHandler.sendUpdate("Base URL extracted: " + baseURL);
-            logger.info("Base URL: {}", baseURL);
-        } catch (Exception e) {
-            // Log the error if URL parsing fails and reset baseURL to an empty string
-            logger.error("Error extracting base URL: {}", e.getMessage(), e);
-            baseURL = "";
+            // invokeAll returns the futures in the same order as the tasks
+            for (Future<Error> future : executor.invokeAll(tasks)) {
+                try {
+                    Error error = future.get();
+                    if (error != null) {
+                        errors.add(error);
+                    }
+                } catch (ExecutionException e) {
+                    seleniumStatusHandler.sendUpdate("Error processing row: " + e.getCause().getMessage());
+                    logger.error("Error processing row: {}", e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore interrupt status
+            seleniumStatusHandler.sendUpdate("Data extraction was interrupted.");
+            logger.error("Data extraction was interrupted.");
+        } finally {
+            executor.shutdownNow();
         }
+        return errors;
     }
 
     /**
-     * Processes a single row from the extracted report to retrieve error details.
-     * This method extracts error-related information, validates it, and fetches
-     * additional details if needed.
+     * Fetches the documentation and affected pages for a single report row.
      *
-     * @param row      The WebElement representing a row in the report table.
-     * @param errors   A list to store extracted errors.
-     * @param username The username used for authentication if required.
-     * @param password The password used for authentication if required.
+     * @param reportRow     The row to enrich.
+     * @param baseURL       The base URL of the scanned website.
+     * @param urlTable      The URL table shared by the report's errors.
+     * @param sharedSession The job's authenticated session.
+     * @param username      The username used for authentication if required.
+     * @param password      The password used for authentication if required.
+     * @return The enriched error, or null if its documentation could not be
+     *         retrieved.
      */
-    private void processRow(WebElement row, List<Error> errors, String username, String password) {
-        try {
-            seleniumStatusHandler.sendUpdate("Processing row...");
-
-            // Extracting error details from the table row
-            int instanceCount = Integer.parseInt(WebScraperUtils.getElementText(wait, row, "td:nth-child(4)").trim());
-            String errorName = WebScraperUtils.getElementText(wait, row, "th > span > a").trim();
-            String categoryText = WebScraperUtils.getElementText(wait, row, "td:nth-child(3)").trim();
-
-            // Validate if the extracted row contains a valid error category
-            if (instanceCount > 0 && isValidCategory(categoryText)) {
-                seleniumStatusHandler.sendUpdate("Found valid error: " + errorName);
-
-                // Extract documentation and error detail URLs
-                String documentationUrl = WebScraperUtils.getAttribute(wait, row, "td:nth-child(1) > a", "href");
-                String detailUrl = WebScraperUtils.getAttribute(wait, row, "th > span > a", "href");
-
-                // Fetch error documentation and process details if available
-                Error error = fetchErrorDocumentation(documentationUrl, instanceCount, categoryText, errorName);
-                if (error != null) {
-                    errors.add(error);
-                    fetchErrorDetails(detailUrl, error, username, password);
-                }
-            }
-        } catch (Exception e) {
-            // Handle exceptions that occur during row processing
-            seleniumStatusHandler.sendUpdate("Error processing row: " + e.getMessage());
-            logger.info("Error processing row: " + e.getMessage());
+    private Error enrichRow(ReportRow reportRow, String baseURL, UrlTable urlTable,
+            AtomicReference<BrowserSession> sharedSession, String username, String password) {
+        // Fetch error documentation and process details if available
+        Error error = fetchErrorDocumentation(reportRow.getDocumentationUrl(), reportRow.getInstanceCount(),
+                reportRow.getErrorCategory(), reportRow.getErrorName(), urlTable);
+        if (error != null) {
+            fetchErrorDetails(reportRow.getDetailUrl(), error, baseURL, sharedSession, username, password);
         }
+        return error;
     }
 
     /**
      * Fetches error documentation from a given URL.
      * This method retrieves additional details such as documentation, why the error
      * matters,
-     * and how to fix it.
+     * and how to fix it. Cached documentation is used when available, and freshly
+     * scraped documentation is added to the cache.
      *
      * @param url           The URL where the error documentation is located.
      * @param instanceCount The number of occurrences of this error.
      * @param categoryText  The category of the error.
      * @param errorName     The name of the error.
+     * @param urlTable      The URL table shared by the report's errors.
      * @return An Error object populated with extracted documentation details, or
      *         null if retrieval fails.
      */
-    private Error fetchErrorDocumentation(String url, int instanceCount, String categoryText, String errorName) {
+    private Error fetchErrorDocumentation(String url, int instanceCount, String categoryText, String errorName,
+            UrlTable urlTable) {
+        // Reuse documentation scraped by an earlier job when it is still fresh
+        String cacheKey = DocumentationCacheService.cacheKey(url, errorName);
+        RuleDocumentation cached = documentationCache.get(cacheKey);
+        if (cached != null) {
+            seleniumStatusHandler.sendUpdate("Using cached documentation for: " + errorName);
+            return new Error(instanceCount, errorName, categoryText, cached.getDocumentation(),
+                    cached.getWhyItMatters(), cached.getHowToFixIt(), urlTable);
+        }
+
         seleniumStatusHandler.sendUpdate("Fetching error documentation for: " + errorName);
+        Timer.Sample fetchTimer = PipelineMetrics.start();
+        boolean success = false;
         WebDriver newDriver = null;
         try {
-            // Initialize a new WebDriver instance for independent browsing
-            newDriver = createDriver();
+            // Lease a browser from the pool for independent browsing
+            newDriver = seleniumManager.leaseDriver();
             WebDriverWait newWait = new WebDriverWait(newDriver, Duration.ofSeconds(10));
             newDriver.get(url);
 
@@ -217,98 +312,131 @@ public class FileDataExtractorService {
                     "#result-documentation-content p:nth-child(2)");
             String howToFixIt = WebScraperUtils.getElementText(newWait, "#result-documentation-content p:nth-child(4)");
 
+            documentationCache.put(cacheKey, new RuleDocumentation(errorDocumentation, whyItMatters, howToFixIt,
+                    System.currentTimeMillis()));
+
             // Return an Error object with extracted details
             seleniumStatusHandler.sendUpdate("Successfully retrieved documentation for: " + errorName);
-            return new Error(instanceCount, errorName, categoryText, errorDocumentation, whyItMatters, howToFixIt);
+            success = true;
+            return new Error(instanceCount, errorName, categoryText, errorDocumentation, whyItMatters, howToFixIt,
+                    urlTable);
         } catch (Exception e) {
             // Log error if documentation retrieval fails
             seleniumStatusHandler.sendUpdate("Error fetching documentation for " + errorName + ": " + e.getMessage());
             logger.info("Error fetching error documentation: " + e.getMessage());
             return null;
         } finally {
-            // Ensure the WebDriver instance is properly closed
-            if (newDriver != null) {
-                newDriver.quit();
-            }
+            // Return the WebDriver instance to the pool for the next lookup
+            seleniumManager.releaseDriver(newDriver);
+            PipelineMetrics.stop(fetchTimer, PipelineMetrics.DOCUMENTATION_FETCH, success);
         }
     }
 
     /**
      * Fetches additional details for a specific error by navigating to its details
      * page.
-     * This method logs in if necessary, clicks on the error details link, and
-     * processes error count pages.
+     * This method reuses the job's authenticated session, falls back to a full
+     * login only if the session is rejected, clicks on the error details link,
+     * and processes error count pages.
      *
-     * @param url      The URL of the error details page.
-     * @param error    The Error object that will be updated with additional
-     *                 details.
-     * @param username The username for authentication if required.
-     * @param password The password for authentication if required.
+     * @param url           The URL of the error details page.
+     * @param error         The Error object that will be updated with additional
+     *                      details.
+     * @param baseURL       The base URL of the scanned website.
+     * @param sharedSession The job's authenticated session; replaced with a
+     *                      fresh one after a fallback login.
+     * @param username      The username for authentication if required.
+     * @param password      The password for authentication if required.
      */
-    private void fetchErrorDetails(String url, Error error, String username, String password) {
+    private void fetchErrorDetails(String url, Error error, String baseURL,
+            AtomicReference<BrowserSession> sharedSession, String username, String password) {
         seleniumStatusHandler.sendUpdate("Fetching error details for: " + error.getErrorName());
         WebDriver newDriver = null;
 
         try {
-            // Initialize a new WebDriver instance for independent browsing
-            newDriver = createDriver();
+            // Lease a browser from the pool for independent browsing
+            newDriver = seleniumManager.leaseDriver();
             WebDriverWait newWait = new WebDriverWait(newDriver, Duration.ofSeconds(30));
+
+            // Inject the job's session so the browser starts out logged in
+            BrowserSession session = sharedSession.get();
+            if (session != null) {
+                BrowserSessionUtils.apply(newDriver, session);
+            }
             newDriver.get(url);
 
-            // Perform login if authentication is required
-            loginService.performLogin(newDriver, null, username, password);
+            // Perform a full login only if the session was missing or rejected
+            if (session == null || loginService.isLoginRequired(newDriver, ERROR_DETAIL_LINK)) {
+                seleniumStatusHandler.sendUpdate((session == null ? "Logging in for: " : "Shared session rejected, logging in for: ")
+                        + error.getErrorName());
+                loginService.performLogin(newDriver, null, username, password);
+                try {
+                    WebScraperUtils.waitForElement(newWait, ERROR_DETAIL_LINK);
+                    sharedSession.compareAndSet(session, BrowserSessionUtils.capture(newDriver));
+                } catch (Exception e) {
+                    logger.debug("Could not refresh the shared session: {}", e.getMessage());
+                }
+            }
 
             // Locate and click the error details link button
-            WebElement errorDetailLinkButton = WebScraperUtils.waitForElement(newWait,
-                    By.cssSelector(".table > tbody > tr > td:nth-child(7) > a"));
+            WebElement errorDetailLinkButton = WebScraperUtils.waitForElement(newWait, ERROR_DETAIL_LINK);
             errorDetailLinkButton.click();
 
             // Process error details across multiple pages if necessary
-            processErrorCountPages(newWait, error);
+            processErrorCountPages(newDriver, newWait, error, baseURL);
         } catch (Exception e) {
             // Log error if fetching error details fails
             seleniumStatusHandler
                     .sendUpdate("Error fetching details for " + error.getErrorName() + ": " + e.getMessage());
             logger.error("Error fetching error details: " + e.getMessage());
         } finally {
-            // Ensure the WebDriver instance is properly closed
-            if (newDriver != null) {
-                newDriver.quit();
-            }
+            // Return the WebDriver instance to the pool for the next lookup
+            seleniumManager.releaseDriver(newDriver);
         }
     }
 
     /**
      * Processes multiple pages of error counts, extracting data for each error.
      * This method iterates through paginated results and extracts relevant error
-     * details.
+     * details. Each page is read with a single script call instead of one
+     * lookup per cell.
      *
-     * @param wait  WebDriverWait instance for handling dynamic waits.
-     * @param error The Error object to which extracted data will be added.
+     * @param driver  WebDriver instance showing the error count table.
+     * @param wait    WebDriverWait instance for handling dynamic waits.
+     * @param error   The Error object to which extracted data will be added.
+     * @param baseURL The base URL prepended to each affected page path.
      */
-    private void processErrorCountPages(WebDriverWait wait, Error error) {
+    private void processErrorCountPages(WebDriver driver, WebDriverWait wait, Error error, String baseURL) {
+        Timer.Sample paginationTimer = PipelineMetrics.start();
         while (true) {
             try {
                 seleniumStatusHandler.sendUpdate("Processing error count pages for: " + error.getErrorName());
 
-                // Retrieve all rows from the error details table
-                List<WebElement> rows = WebScraperUtils.waitForElements(wait,
-                        By.cssSelector(WebScraperUtils.ERROR_COUNT_ROW_SELECTOR));
+                // Read the URL and count of every row in a single round trip
+                List<WebScraperUtils.ScrapedRow> rows = WebScraperUtils.extractTable(driver, wait,
+                        WebScraperUtils.ERROR_COUNT_ROW_SELECTOR, ERROR_COUNT_COLUMNS);
+                PipelineMetrics.countPage(PipelineMetrics.PAGINATION);
+
+                for (WebScraperUtils.ScrapedRow row : rows) {
+                    String uri = row.get("uri");
+                    String countText = row.get("count");
+                    if (uri == null || countText == null) {
+                        // Handle cases where expected elements are not found in a row
+                        seleniumStatusHandler.sendUpdate("Cell not found in current row.");
+                        logger.error("Cell not found in current row.");
+                        continue;
+                    }
 
-                // Iterate through each row and extract error data
-                for (WebElement row : rows) {
                     try {
-                        String url = baseURL + WebScraperUtils.getElementText(wait, row, ".column-uri");
-                        int count = Integer.parseInt(WebScraperUtils.getElementText(wait, row, ".column-count"));
+                        String url = baseURL + uri;
+                        int count = Integer.parseInt(countText);
 
                         // Log and store extracted error data
                         seleniumStatusHandler.sendUpdate("Extracted error data - URL: " + url + ", Count: " + count);
                         logger.info("URL: " + url);
                         error.addDataEntry(url, count);
-                    } catch (TimeoutException e) {
-                        // Handle cases where expected elements are not found in a row
-                        seleniumStatusHandler.sendUpdate("Cell not found in current row.");
-                        logger.error("Cell not found in current row.");
+                    } catch (NumberFormatException e) {
+                        logger.error("Invalid count '{}' in current row.", countText);
                     }
                 }
 
@@ -321,26 +449,16 @@ public class FileDataExtractorService {
                 }
 
                 // Click to navigate to the next page and wait for the new rows to load
+                WebElement firstRow = driver.findElement(By.cssSelector(WebScraperUtils.ERROR_COUNT_ROW_SELECTOR));
                 nextPageButton.click();
-                wait.until(ExpectedConditions.stalenessOf(rows.get(0)));
+                wait.until(ExpectedConditions.stalenessOf(firstRow));
             } catch (TimeoutException e) {
                 // Handle the case where no more pagination is available
                 seleniumStatusHandler.sendUpdate("Pagination ended for: " + error.getErrorName());
                 break;
             }
         }
-    }
-
-    /**
-     * Creates and returns a new WebDriver instance for handling separate browsing
-     * sessions.
-     * This is useful when multiple instances of a browser are needed for different
-     * tasks.
-     *
-     * @return A new instance of ChromeDriver.
-     */
-    private WebDriver createDriver() {
-        return new ChromeDriver();
+        PipelineMetrics.stop(paginationTimer, PipelineMetrics.PAGINATION, true);
     }
 
     /**
@@ -3,8 +3,10 @@ package com.reportweaver.reportweaver.service;
 import com.google.api.services.docs.v1.Docs;
 import com.google.api.services.drive.Drive;
 import com.google.auth.http.HttpCredentialsAdapter;
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.api.client.json.gson.GsonFactory;
+import com.reportweaver.reportweaver.util.GoogleApiQuotaManager;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +18,9 @@ import java.util.List;
 /**
  * Service responsible for authenticating and managing Google API credentials.
  * This service initializes authentication for Google Docs and Google Drive
- * APIs.
+ * APIs. When GOOGLE_API_ROOT_URL is set, both clients talk to that server
+ * instead of Google with a placeholder token, e.g. to a local stand-in during
+ * load tests.
  */
 @Service
 public class GoogleAuthService {
@@ -41,30 +45,47 @@ public class GoogleAuthService {
 
     /**
      * Constructs the GoogleAuthService and initializes API clients for Google Docs
-     * and Drive.
+     * and Drive. All requests of both clients are rate limited and retried by
+     * the shared quota manager.
      *
+     * @param quotaManager Shared rate limiter and retry policy for Google APIs.
      * @throws IOException If authentication fails due to incorrect credentials or
      *                     file issues.
      */
-    public GoogleAuthService() throws IOException {
-        GoogleCredentials credentials = loadGoogleCredentials();
+    public GoogleAuthService(GoogleApiQuotaManager quotaManager) throws IOException {
+        String rootUrl = dotenv.get("GOOGLE_API_ROOT_URL");
+        boolean localApi = rootUrl != null && !rootUrl.isBlank();
+        if (localApi) {
+            rootUrl = rootUrl.endsWith("/") ? rootUrl : rootUrl + "/";
+            logger.warn("Google API requests are sent to {} instead of Google.", rootUrl);
+        }
+
+        // A local API server accepts any token, so no real credentials are used
+        GoogleCredentials credentials = localApi
+                ? GoogleCredentials.create(new AccessToken("local", null))
+                : loadGoogleCredentials();
         HttpCredentialsAdapter httpCredentialsAdapter = new HttpCredentialsAdapter(credentials);
 
         // Initialize the Google Docs API client
-        this.docsService = new Docs.Builder(
+        Docs.Builder docsBuilder = new Docs.Builder(
                 new com.google.api.client.http.javanet.NetHttpTransport(),
                 JSON_FACTORY,
-                httpCredentialsAdapter)
-                .setApplicationName(APPLICATION_NAME)
-                .build();
+                quotaManager.initializer(GoogleApiQuotaManager.DOCS_API, httpCredentialsAdapter))
+                .setApplicationName(APPLICATION_NAME);
 
         // Initialize the Google Drive API client
-        this.driveService = new Drive.Builder(
+        Drive.Builder driveBuilder = new Drive.Builder(
                 new com.google.api.client.http.javanet.NetHttpTransport(),
                 JSON_FACTORY,
-                httpCredentialsAdapter)
-                .setApplicationName(APPLICATION_NAME)
-                .build();
+                quotaManager.initializer(GoogleApiQuotaManager.DRIVE_API, httpCredentialsAdapter))
+                .setApplicationName(APPLICATION_NAME);
+
+        if (localApi) {
+            docsBuilder.setRootUrl(rootUrl);
+            driveBuilder.setRootUrl(rootUrl);
+        }
+        this.docsService = docsBuilder.build();
+        this.driveService = driveBuilder.build();
     }
 
     /**
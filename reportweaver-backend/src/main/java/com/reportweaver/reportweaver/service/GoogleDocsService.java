@@ -2,12 +2,15 @@ package com.reportweaver.reportweaver.service;
 
 import com.reportweaver.reportweaver.model.Error;
 import com.reportweaver.reportweaver.model.ErrorSummary;
+import com.reportweaver.reportweaver.util.GoogleDocsDocumentModel;
 import com.reportweaver.reportweaver.util.GoogleDocsFormatter;
+import com.reportweaver.reportweaver.util.PipelineMetrics;
 
 import com.google.api.services.docs.v1.Docs;
 import com.google.api.services.docs.v1.model.*;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.model.Permission;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Async;
@@ -18,8 +21,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -48,18 +49,35 @@ public class GoogleDocsService {
         // WebSocket handler for sending real-time status updates to the frontend.
         private final SeleniumStatusHandler seleniumStatusHandler;
 
+        // Maximum number of changed paragraphs applied as incremental edits.
+        private final int maxIncrementalParagraphs;
+
         /**
          * Constructs the GoogleDocsService with the necessary dependencies.
          *
          * @param googleAuthService     The authentication service that provides API
          *                              clients.
          * @param seleniumStatusHandler WebSocket handler for sending updates.
+         * @param maxRequestsPerBatch   Maximum number of requests per batchUpdate
+         *                              call.
+         * @param maxCharactersPerBatch Maximum number of characters inserted per
+         *                              batchUpdate call.
+         * @param maxIncrementalParagraphs Maximum number of changed paragraphs
+         *                              applied as incremental edits.
+         * @param topPages              Number of pages listed in the "Errors by
+         *                              Page" section.
          */
-        public GoogleDocsService(GoogleAuthService googleAuthService, SeleniumStatusHandler seleniumStatusHandler) {
+        public GoogleDocsService(GoogleAuthService googleAuthService, SeleniumStatusHandler seleniumStatusHandler,
+                        @Value("${reportweaver.google-docs.max-requests-per-batch:500}") int maxRequestsPerBatch,
+                        @Value("${reportweaver.google-docs.max-characters-per-batch:100000}") int maxCharactersPerBatch,
+                        @Value("${reportweaver.google-docs.max-incremental-paragraphs:2000}") int maxIncrementalParagraphs,
+                        @Value("${reportweaver.google-docs.top-pages:25}") int topPages) {
                 this.docsService = googleAuthService.getDocsService();
+                this.maxIncrementalParagraphs = maxIncrementalParagraphs;
                 this.driveService = googleAuthService.getDriveService();
                 this.seleniumStatusHandler = seleniumStatusHandler;
-                this.googleDocsFormatter = new GoogleDocsFormatter(this.docsService, this.seleniumStatusHandler);
+                this.googleDocsFormatter = new GoogleDocsFormatter(this.docsService, this.seleniumStatusHandler,
+                                maxRequestsPerBatch, maxCharactersPerBatch, topPages);
         }
 
         /**
@@ -73,59 +91,36 @@ public class GoogleDocsService {
          *                                 errors.
          * @return A CompletableFuture containing the Google Doc ID upon successful
          *         creation.
-         * @throws IOException          If an error occurs while interacting with the
-         *                              Google Docs API.
-         * @throws InterruptedException If the thread is interrupted while formatting
-         *                              the document.
+         * @throws IOException If an error occurs while creating the Google
+         *                     Document.
          */
         @Async
         public CompletableFuture<String> createAccessibilityReport(String title,
                         List<Error> errors,
                         FileDataExtractorService fileDataExtractorService)
-                        throws IOException, InterruptedException {
+                        throws IOException {
 
                 seleniumStatusHandler.sendUpdate("Starting Google Docs report creation...");
 
                 // Generate a summary of extracted errors
                 List<ErrorSummary> errorSummary = fileDataExtractorService.getErrorSummary(errors);
-                List<Error> reversedErrors = new ArrayList<>(errors);
-                Collections.reverse(reversedErrors);
 
                 // Create a new Google Document
                 seleniumStatusHandler.sendUpdate("Creating new Google Document...");
                 Document doc = new Document().setTitle(title);
+                PipelineMetrics.countApiCall("docs.create");
                 doc = docsService.documents().create(doc).execute();
                 String documentId = doc.getDocumentId();
 
                 seleniumStatusHandler.sendUpdate("Google Document created with ID: " + documentId);
                 logger.info("Created document with ID: {}", documentId);
 
-                try {// Process and format each extracted error in the document
-                        for (Error error : reversedErrors) {
-                                seleniumStatusHandler.sendUpdate("Adding error details for: " + error.getErrorName());
-
-                                // Add formatted error details to the document
-                                googleDocsFormatter.addParagraph(documentId, "");
-                                googleDocsFormatter.createErrorDetailsTable(documentId, error);
-                                googleDocsFormatter.addParagraph(documentId, "");
-                                googleDocsFormatter.addParagraph(documentId, error.getHowToFixIt());
-                                googleDocsFormatter.createHeading(documentId, "How to fix it:", 5);
-                                googleDocsFormatter.addParagraph(documentId, error.getWhyItMatters());
-                                googleDocsFormatter.createHeading(documentId, "Why it matters:", 5);
-                                googleDocsFormatter.createHeading(documentId, error.getErrorName(), 4);
-
-                                // Delay between formatting operations to prevent API rate limits
-                                Thread.sleep(1000);
-                        }
-
-                        // Add summary and error-by-page sections
-                        seleniumStatusHandler.sendUpdate("Adding 'Errors by Page' section...");
-                        googleDocsFormatter.createHeading(documentId, "Errors by Page", 3);
-                        googleDocsFormatter.createErrorSummaryTable(documentId, errorSummary);
-
-                        seleniumStatusHandler.sendUpdate("Adding 'Summary' section...");
-                        googleDocsFormatter.addParagraph(documentId, "");
-                        googleDocsFormatter.createHeading(documentId, "Summary", 3);
+                try {
+                        // Lay out the whole report in reading order, then write it in as few calls as possible
+                        seleniumStatusHandler.sendUpdate("Building report with " + errors.size() + " errors...");
+                        GoogleDocsDocumentModel document = googleDocsFormatter.buildReport(errorSummary, errors);
+                        int calls = googleDocsFormatter.writeDocument(documentId, document);
+                        logger.info("Wrote document {} with {} batchUpdate call(s)", documentId, calls);
 
                         seleniumStatusHandler.sendUpdate("Google Docs report creation completed!");
                         return CompletableFuture.completedFuture(documentId);
@@ -137,6 +132,39 @@ public class GoogleDocsService {
                 }
         }
 
+        /**
+         * Updates a previously generated accessibility report in place, editing
+         * only the sections whose errors changed.
+         *
+         * @param documentId               The ID of the existing report.
+         * @param previousErrors           The errors the report was generated from.
+         * @param errors                   The newly extracted errors.
+         * @param fileDataExtractorService Service instance for processing extracted
+         *                                 errors.
+         * @return True if the report was updated; false if it has to be rebuilt
+         *         because it was edited by hand or too much changed, in which
+         *         case it was left untouched.
+         * @throws IOException If an update call failed. Edits are applied in one
+         *                     pass from the end, so the document may be left
+         *                     partly updated.
+         */
+        public boolean updateAccessibilityReport(String documentId, List<Error> previousErrors, List<Error> errors,
+                        FileDataExtractorService fileDataExtractorService) throws IOException {
+                seleniumStatusHandler.sendUpdate("Updating existing Google Doc " + documentId + "...");
+                GoogleDocsDocumentModel previous = googleDocsFormatter.buildReport(
+                                fileDataExtractorService.getErrorSummary(previousErrors), previousErrors);
+                GoogleDocsDocumentModel document = googleDocsFormatter.buildReport(
+                                fileDataExtractorService.getErrorSummary(errors), errors);
+                int calls = googleDocsFormatter.updateDocument(documentId, previous, document,
+                                maxIncrementalParagraphs);
+                if (calls < 0) {
+                        return false;
+                }
+                logger.info("Updated document {} in place with {} batchUpdate call(s)", documentId, calls);
+                seleniumStatusHandler.sendUpdate("Google Doc updated in place!");
+                return true;
+        }
+
         /**
          * Shares a Google Document with a specified email address by granting access
          * permissions.
@@ -156,6 +184,7 @@ public class GoogleDocsService {
                                 .setEmailAddress(emailAddress);
 
                 // Apply the permission to the document
+                PipelineMetrics.countApiCall("drive.permissions.create");
                 driveService.permissions().create(documentId, permission)
                                 .setSendNotificationEmail(true) // Sends an email notification to the recipient
                                 .execute();
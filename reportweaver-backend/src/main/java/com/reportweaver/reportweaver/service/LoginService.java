@@ -1,7 +1,11 @@
 package com.reportweaver.reportweaver.service;
 
+import com.reportweaver.reportweaver.model.BrowserSession;
+import com.reportweaver.reportweaver.util.BrowserSessionUtils;
+import com.reportweaver.reportweaver.util.PipelineMetrics;
 import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -10,6 +14,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Lazy;
 import org.testng.Assert;
 
+import io.micrometer.core.instrument.Timer;
+
 import java.time.Duration;
 
 /**
@@ -22,26 +28,41 @@ import java.time.Duration;
 @Service
 public class LoginService {
 
+    // Username field shown on the PopeTech login page.
+    private static final By LOGIN_FORM_FIELD = By.id("email");
+
+    // Sidebar shown on every PopeTech page once the user is authenticated.
+    private static final By AUTHENTICATED_CONTENT = By.id("left-sidebar");
+
     // Maximum wait time for login-related elements to be located.
     private final Duration extendedWaitTimeout;
 
     // WebSocket handler for sending real-time status updates to the frontend.
     private final SeleniumStatusHandler seleniumStatusHandler;
 
+    // Encrypted store of sessions reused across jobs for the same account.
+    private final SessionStoreService sessionStore;
+
     /**
      * Constructs the LoginService with the required dependencies.
      *
      * @param extendedWaitTimeout   Timeout duration for waiting on login elements.
      * @param seleniumStatusHandler WebSocket handler for sending status updates.
+     * @param sessionStore          Encrypted store of sessions reused across jobs.
      */
-    public LoginService(Duration extendedWaitTimeout, SeleniumStatusHandler seleniumStatusHandler) {
+    public LoginService(Duration extendedWaitTimeout, SeleniumStatusHandler seleniumStatusHandler,
+            SessionStoreService sessionStore) {
         this.extendedWaitTimeout = extendedWaitTimeout;
         this.seleniumStatusHandler = seleniumStatusHandler;
+        this.sessionStore = sessionStore;
     }
 
     /**
      * Automates the login process by navigating to the login page,
      * filling in credentials, handling SSO login, and completing authentication.
+     * When a URL is provided and a still-valid session of the account was
+     * stored by an earlier job with the same password, that session is
+     * restored instead and the interactive flow is skipped.
      *
      * @param driver   Selenium WebDriver instance used for browser automation.
      * @param url      URL of the login page. If null, assumes the page is already
@@ -51,9 +72,18 @@ public class LoginService {
      */
     public void performLogin(WebDriver driver, String url, String username, String password) {
         WebDriverWait wait = new WebDriverWait(driver, extendedWaitTimeout);
+        Timer.Sample loginTimer = PipelineMetrics.start();
+        boolean success = false;
         try {
             seleniumStatusHandler.sendUpdate("Starting login process...");
 
+            // Reuse a stored session of this account if PopeTech still accepts it
+            if (url != null && !url.trim().isEmpty() && restoreStoredSession(driver, username, password)) {
+                seleniumStatusHandler.sendUpdate("Login successful using stored session!");
+                success = true;
+                return;
+            }
+
             // Navigate to the login page if a URL is provided
             if (url != null && !url.trim().isEmpty()) {
                 seleniumStatusHandler.sendUpdate("Navigating to login page: " + url);
@@ -62,7 +92,7 @@ public class LoginService {
 
             seleniumStatusHandler.sendUpdate("Waiting for username field...");
             WebElement usernameInputField = wait
-                    .until(ExpectedConditions.visibilityOfElementLocated(By.id("email")));
+                    .until(ExpectedConditions.visibilityOfElementLocated(LOGIN_FORM_FIELD));
 
             seleniumStatusHandler.sendUpdate("Entering username...");
             usernameInputField.sendKeys(username);
@@ -95,12 +125,82 @@ public class LoginService {
             trustedLoginButton.click();
 
             seleniumStatusHandler.sendUpdate("Login successful!");
+            success = true;
         } catch (Exception e) {
             seleniumStatusHandler.sendUpdate("Login failed: " + e.getMessage());
 
             // Log the exception and print error details
             e.printStackTrace();
             System.err.println("An error occurred during login: " + e.getMessage());
+        } finally {
+            PipelineMetrics.stop(loginTimer, PipelineMetrics.LOGIN, success);
+        }
+    }
+
+    /**
+     * Determines whether the browser was sent to the login page instead of the
+     * requested content, e.g. because an injected session was rejected.
+     * Waits until either the login form or the expected content is present.
+     *
+     * @param driver          Selenium WebDriver instance that just navigated.
+     * @param expectedContent Locator of an element that only appears when the
+     *                        user is authenticated.
+     * @return True if the login form is shown and a full login is required.
+     */
+    public boolean isLoginRequired(WebDriver driver, By expectedContent) {
+        WebDriverWait wait = new WebDriverWait(driver, extendedWaitTimeout);
+        try {
+            wait.until(ExpectedConditions.or(
+                    ExpectedConditions.presenceOfElementLocated(LOGIN_FORM_FIELD),
+                    ExpectedConditions.presenceOfElementLocated(expectedContent)));
+        } catch (TimeoutException e) {
+            return false; // Neither appeared; let the caller's own waits report the failure
+        }
+        return !driver.findElements(LOGIN_FORM_FIELD).isEmpty();
+    }
+
+    /**
+     * Stores the session of a logged-in browser so later jobs for the same
+     * account can skip the interactive login.
+     *
+     * @param username The username the session belongs to.
+     * @param password The password the session was created with.
+     * @param session  The session captured after logging in.
+     */
+    public void rememberSession(String username, String password, BrowserSession session) {
+        sessionStore.save(username, password, session);
+    }
+
+    /**
+     * Injects the stored session of an account and checks whether PopeTech
+     * accepts it. A session stored with another password is never used, and a
+     * rejected session is removed from the store.
+     *
+     * @param driver   Selenium WebDriver instance used for browser automation.
+     * @param username The username whose stored session should be restored.
+     * @param password The password of the request.
+     * @return True if the browser is now authenticated.
+     */
+    private boolean restoreStoredSession(WebDriver driver, String username, String password) {
+        BrowserSession session = sessionStore.load(username, password);
+        if (session == null) {
+            return false;
+        }
+
+        seleniumStatusHandler.sendUpdate("Restoring stored login session...");
+        try {
+            BrowserSessionUtils.apply(driver, session);
+            driver.get(session.getOrigin());
+            if (!isLoginRequired(driver, AUTHENTICATED_CONTENT)
+                    && !driver.findElements(AUTHENTICATED_CONTENT).isEmpty()) {
+                return true;
+            }
+        } catch (Exception e) {
+            System.err.println("Could not restore stored session: " + e.getMessage());
         }
+
+        seleniumStatusHandler.sendUpdate("Stored session was rejected, logging in again...");
+        sessionStore.invalidate(username);
+        return false;
     }
 }
@@ -0,0 +1,517 @@
+package com.reportweaver.reportweaver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportweaver.reportweaver.model.ProgressEvent;
+import com.reportweaver.reportweaver.model.ReportJob;
+import com.reportweaver.reportweaver.util.JobContext;
+import com.reportweaver.reportweaver.util.SecretCipher;
+import com.reportweaver.reportweaver.util.TaskExecutorFactory;
+import com.reportweaver.reportweaver.util.WebScraperUtils;
+import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service that queues report generation jobs and runs them with bounded
+ * concurrency.
+ * Each job gets an ID that clients use to poll its status. Jobs are persisted
+ * as JSON, so queued and interrupted jobs are resumed after a restart, and new
+ * jobs are rejected once the queue is full instead of piling up silently.
+ * A request for a website and account that already has a queued or running
+ * job with the same password is attached to that job instead of starting a
+ * second browser pipeline;
+ * the finished document is shared with every attached email. Finished jobs
+ * are removed, from memory and disk, once their retention has passed.
+ */
+@Service
+public class ReportJobService {
+
+    // Logger instance for logging job lifecycle events.
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    // Serializes jobs to and from the job directory.
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // How often finished jobs past their retention are removed.
+    private static final Duration SWEEP_INTERVAL = Duration.ofMinutes(10);
+
+    // Service that runs the report generation process.
+    private final ReportService reportService;
+
+    // Encrypts passwords before jobs are persisted.
+    private final SecretCipher secretCipher;
+
+    // Shares finished documents with the emails of attached requests.
+    private final GoogleDocsService googleDocsService;
+
+    // Reports the queued and final stages of each job to its subscribers.
+    private final SeleniumStatusHandler seleniumStatusHandler;
+
+    // Runs jobs; its bounded queue, or admission limit with virtual threads,
+    // provides the admission control.
+    private final ThreadPoolExecutor executor;
+
+    // All known jobs keyed by job ID.
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    // Queued and running jobs keyed by normalized website and username, one per
+    // distinct password; guarded by itself so attaching a request and detaching
+    // a finishing job never race.
+    private final Map<String, List<ReportJob>> inFlightJobs = new HashMap<>();
+
+    // Directory holding the persisted jobs, or null if persistence is disabled.
+    private final Path jobDirectory;
+
+    // How long finished jobs are kept for status lookups.
+    private final Duration retention;
+
+    // Periodically removes finished jobs past their retention.
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-job-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the ReportJobService with the queue settings from
+     * application.properties.
+     *
+     * @param reportService         Service that runs the report generation
+     *                              process.
+     * @param secretCipher          Encrypts passwords before jobs are persisted.
+     * @param googleDocsService     Shares documents with attached requests.
+     * @param taskExecutorFactory   Creates the executor that runs jobs.
+     * @param seleniumStatusHandler Reports job progress to subscribed clients.
+     * @param concurrency           Maximum number of jobs running at once; with
+     *                              virtual threads the browser slots bound it.
+     * @param queueCapacity         Maximum number of jobs waiting to run.
+     * @param directory             Directory for persisted jobs; blank disables
+     *                              it.
+     * @param retentionHours        Hours finished jobs are kept.
+     */
+    public ReportJobService(ReportService reportService, SecretCipher secretCipher,
+            GoogleDocsService googleDocsService, TaskExecutorFactory taskExecutorFactory,
+            SeleniumStatusHandler seleniumStatusHandler,
+            @Value("${reportweaver.jobs.concurrency:2}") int concurrency,
+            @Value("${reportweaver.jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${reportweaver.jobs.directory:}") String directory,
+            @Value("${reportweaver.jobs.retention-hours:168}") long retentionHours) {
+        this.reportService = reportService;
+        this.secretCipher = secretCipher;
+        this.googleDocsService = googleDocsService;
+        this.seleniumStatusHandler = seleniumStatusHandler;
+        this.jobDirectory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+        this.retention = Duration.ofHours(retentionHours);
+
+        this.executor = taskExecutorFactory.newQueuedExecutor("report-job-", concurrency, queueCapacity);
+
+        if (jobDirectory != null) {
+            try {
+                Files.createDirectories(jobDirectory);
+            } catch (IOException e) {
+                logger.error("Could not create job directory {}: {}", jobDirectory, e.getMessage());
+            }
+        }
+
+        sweeper.scheduleWithFixedDelay(this::removeExpiredJobs, SWEEP_INTERVAL.toMillis(),
+                SWEEP_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a new report job, or attaches the request to the queued or running
+     * job for the same website and account. An attached request receives the
+     * existing job, whose document is also shared with its email. Requests are
+     * only attached to a job submitted with the same password, so each
+     * credential for an account is coalesced separately.
+     *
+     * @param website  The website whose report should be generated.
+     * @param username The PopeTech username.
+     * @param password The PopeTech password.
+     * @param email    The email address the report is shared with.
+     * @return The queued job, or the in-flight job the request was attached to.
+     * @throws RejectedExecutionException If the queue is full or shutting down.
+     */
+    public ReportJob submit(String website, String username, String password, String email) {
+        String key = coalescingKey(website, username);
+        synchronized (inFlightJobs) {
+            for (ReportJob running : inFlightJobs.getOrDefault(key, List.of())) {
+                if (hasPassword(running, password)) {
+                    attach(running, email);
+                    return running;
+                }
+            }
+
+            String encryptedPassword = Base64.getEncoder()
+                    .encodeToString(secretCipher.encrypt(password.getBytes(StandardCharsets.UTF_8)));
+            ReportJob job = new ReportJob(UUID.randomUUID().toString(), website, username, encryptedPassword,
+                    email);
+
+            jobs.put(job.getJobId(), job);
+            persist(job);
+            try {
+                executor.execute(() -> runJob(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getJobId());
+                delete(job);
+                logger.warn("Rejected report job for {}: queue is full", website);
+                throw e;
+            }
+            inFlightJobs.computeIfAbsent(key, k -> new ArrayList<>()).add(job);
+            seleniumStatusHandler.sendProgress(job.getJobId(), ProgressEvent.Stage.QUEUED, 0, 0);
+            logger.info("Queued report job {} for {}", job.getJobId(), website);
+            return job;
+        }
+    }
+
+    /**
+     * Looks up a job.
+     *
+     * @param jobId The job ID.
+     * @return The job, or null if it is unknown.
+     */
+    public ReportJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Counts the jobs waiting for a free slot.
+     *
+     * @return The number of queued jobs.
+     */
+    public int getQueuedJobCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Counts the jobs currently running.
+     *
+     * @return The number of running jobs.
+     */
+    public int getRunningJobCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Computes how many queued jobs were submitted before a job.
+     *
+     * @param job The job to look up.
+     * @return The number of jobs ahead of it, or 0 if it is not queued.
+     */
+    public int getQueuePosition(ReportJob job) {
+        if (job.getStatus() != ReportJob.Status.QUEUED) {
+            return 0;
+        }
+        return (int) jobs.values().stream()
+                .filter(other -> other.getStatus() == ReportJob.Status.QUEUED)
+                .filter(other -> other.getCreatedAt() < job.getCreatedAt())
+                .count();
+    }
+
+    /**
+     * Resumes persisted jobs once the application has started. Jobs that were
+     * running when the application stopped are started again from the
+     * beginning; finished jobs past their retention are deleted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePersistedJobs() {
+        if (jobDirectory == null) {
+            return;
+        }
+
+        List<ReportJob> pending = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(jobDirectory, "*.json")) {
+            for (Path file : files) {
+                try {
+                    ReportJob job = objectMapper.readValue(file.toFile(), ReportJob.class);
+                    if (job.isFinished()) {
+                        if (isExpired(job)) {
+                            Files.deleteIfExists(file);
+                        } else {
+                            jobs.put(job.getJobId(), job);
+                        }
+                    } else {
+                        pending.add(job);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Ignoring unreadable job file {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Could not read job directory {}: {}", jobDirectory, e.getMessage());
+            return;
+        }
+
+        pending.sort(Comparator.comparingLong(ReportJob::getCreatedAt));
+        for (ReportJob job : pending) {
+            job.setStatus(ReportJob.Status.QUEUED);
+            jobs.put(job.getJobId(), job);
+            synchronized (inFlightJobs) {
+                inFlightJobs.computeIfAbsent(coalescingKey(job.getWebsite(), job.getUsername()),
+                        k -> new ArrayList<>()).add(job);
+            }
+            try {
+                executor.execute(() -> runJob(job));
+                logger.info("Resumed report job {} for {}", job.getJobId(), job.getWebsite());
+            } catch (RejectedExecutionException e) {
+                finish(job, ReportJob.Status.FAILED, null, "Job could not be resumed: queue is full.");
+            }
+        }
+    }
+
+    /**
+     * Removes finished jobs past their retention from memory and from the job
+     * directory. Runs periodically; queued and running jobs are never removed.
+     *
+     * @return The number of removed jobs.
+     */
+    public int removeExpiredJobs() {
+        int removed = 0;
+        for (ReportJob job : jobs.values()) {
+            if (job.isFinished() && isExpired(job) && jobs.remove(job.getJobId(), job)) {
+                delete(job);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            logger.info("Removed {} expired report jobs", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Stops accepting jobs when the application shuts down. Jobs that have not
+     * finished stay persisted and are resumed on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a job and records its outcome.
+     *
+     * @param job The job to run.
+     */
+    private void runJob(ReportJob job) {
+        job.setStatus(ReportJob.Status.RUNNING);
+        job.setStartedAt(System.currentTimeMillis());
+        persist(job);
+        logger.info("Starting report job {} for {}", job.getJobId(), job.getWebsite());
+
+        // Status updates of the job only reach the clients subscribed to it
+        try (JobContext.Scope scope = JobContext.open(job.getJobId())) {
+            String password = new String(secretCipher.decrypt(Base64.getDecoder().decode(job.getEncryptedPassword())),
+                    StandardCharsets.UTF_8);
+            // The pipeline runs on this thread, so jobs.concurrency bounds the real
+            // work and interrupting the job stops the pipeline itself
+            String documentId = reportService.generateReport(job.getWebsite(), job.getUsername(), password,
+                    job.getEmail());
+
+            // A job stopped while waiting for a browser stays persisted for resuming
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Interrupted while generating the report.");
+            }
+
+            // ReportService returns "Processing" when no document could be created
+            if (documentId == null || documentId.isEmpty() || "Processing".equals(documentId)) {
+                finish(job, ReportJob.Status.FAILED, null, "The report could not be generated.");
+            } else {
+                shareWithAttachedRequests(job, documentId);
+                finish(job, ReportJob.Status.COMPLETED, documentId, null);
+            }
+        } catch (InterruptedException e) {
+            // Leave the job persisted as running so it is resumed after a restart
+            Thread.currentThread().interrupt();
+            logger.warn("Report job {} was interrupted", job.getJobId());
+        } catch (GeneralSecurityException e) {
+            finish(job, ReportJob.Status.FAILED, null, "Stored credentials could not be decrypted.");
+        } catch (Exception e) {
+            logger.error("Report job {} failed: {}", job.getJobId(), e.getMessage(), e);
+            finish(job, ReportJob.Status.FAILED, null, "Error generating report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the email of a request to an in-flight job. Must be called while
+     * holding the lock on {@code inFlightJobs}.
+     *
+     * @param job   The in-flight job.
+     * @param email The email of the attached request.
+     */
+    private void attach(ReportJob job, String email) {
+        boolean newRecipient = email != null && !email.isBlank()
+                && !email.equalsIgnoreCase(job.getEmail())
+                && job.getAdditionalEmails().stream().noneMatch(email::equalsIgnoreCase);
+        if (newRecipient) {
+            job.getAdditionalEmails().add(email);
+            persist(job);
+        }
+        logger.info("Attached report request for {} to in-flight job {}", job.getWebsite(), job.getJobId());
+    }
+
+    /**
+     * Detaches a job from request coalescing and shares its document with every
+     * attached email. Requests arriving after this point start a new job.
+     *
+     * @param job        The job that produced the document.
+     * @param documentId The Google Doc ID.
+     */
+    private void shareWithAttachedRequests(ReportJob job, String documentId) {
+        List<String> recipients;
+        synchronized (inFlightJobs) {
+            detach(job);
+            recipients = List.copyOf(job.getAdditionalEmails());
+        }
+        for (String recipient : recipients) {
+            try {
+                googleDocsService.shareDocument(documentId, recipient);
+            } catch (IOException e) {
+                logger.error("Could not share document {} with {}: {}", documentId, recipient, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes a job from request coalescing. Must be called while holding the
+     * lock on {@code inFlightJobs}.
+     *
+     * @param job The job to detach.
+     */
+    private void detach(ReportJob job) {
+        String key = coalescingKey(job.getWebsite(), job.getUsername());
+        List<ReportJob> sameAccount = inFlightJobs.get(key);
+        if (sameAccount != null && sameAccount.remove(job) && sameAccount.isEmpty()) {
+            inFlightJobs.remove(key);
+        }
+    }
+
+    /**
+     * Builds the key under which concurrent requests are coalesced.
+     *
+     * @param website  The requested website.
+     * @param username The PopeTech username.
+     * @return The normalized website and lowercased username.
+     */
+    private static String coalescingKey(String website, String username) {
+        return WebScraperUtils.accountWebsiteKey(website, username);
+    }
+
+    /**
+     * Checks whether a finished job has been kept longer than its retention.
+     *
+     * @param job The finished job.
+     * @return True if the job should be removed.
+     */
+    private boolean isExpired(ReportJob job) {
+        return System.currentTimeMillis() - job.getFinishedAt() > retention.toMillis();
+    }
+
+    /**
+     * Checks whether a password matches the one a job was submitted with.
+     *
+     * @param job      The job.
+     * @param password The password of a new request.
+     * @return True if both passwords are equal.
+     */
+    private boolean hasPassword(ReportJob job, String password) {
+        try {
+            byte[] stored = secretCipher.decrypt(Base64.getDecoder().decode(job.getEncryptedPassword()));
+            return MessageDigest.isEqual(stored, password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records the outcome of a job.
+     *
+     * @param job        The job.
+     * @param status     The final status.
+     * @param documentId The Google Doc ID, or null if the job failed.
+     * @param error      The failure reason, or null if the job succeeded.
+     */
+    private void finish(ReportJob job, ReportJob.Status status, String documentId, String error) {
+        synchronized (inFlightJobs) {
+            detach(job);
+        }
+        job.setStatus(status);
+        job.setDocumentId(documentId);
+        job.setError(error);
+        job.setFinishedAt(System.currentTimeMillis());
+        persist(job);
+        seleniumStatusHandler.sendProgress(job.getJobId(), status == ReportJob.Status.COMPLETED
+                ? ProgressEvent.Stage.COMPLETED
+                : ProgressEvent.Stage.FAILED, 0, 0);
+        logger.info("Report job {} {}", job.getJobId(), status == ReportJob.Status.COMPLETED
+                ? "completed with document " + documentId
+                : "failed: " + error);
+    }
+
+    /**
+     * Writes a job to the job directory. The file is written to a temporary
+     * name first so a crash never leaves a partial job behind.
+     *
+     * @param job The job to persist.
+     */
+    private void persist(ReportJob job) {
+        if (jobDirectory == null) {
+            return;
+        }
+        Path file = jobDirectory.resolve(job.getJobId() + ".json");
+        try {
+            Path temp = Files.createTempFile(jobDirectory, "job", ".tmp");
+            objectMapper.writeValue(temp.toFile(), job);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not persist report job {}: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Removes a job from the job directory.
+     *
+     * @param job The job to remove.
+     */
+    private void delete(ReportJob job) {
+        if (jobDirectory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(jobDirectory.resolve(job.getJobId() + ".json"));
+        } catch (IOException e) {
+            logger.warn("Could not delete report job {}: {}", job.getJobId(), e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package com.reportweaver.reportweaver.service;
 
+import com.reportweaver.reportweaver.model.BrowserSession;
 import com.reportweaver.reportweaver.model.Error;
+import com.reportweaver.reportweaver.model.ProgressEvent;
+import com.reportweaver.reportweaver.model.ReportSnapshot;
+import com.reportweaver.reportweaver.util.BrowserSessionUtils;
+import com.reportweaver.reportweaver.util.DownloadUtil;
+import com.reportweaver.reportweaver.util.HashUtils;
+import com.reportweaver.reportweaver.util.PipelineMetrics;
+import com.reportweaver.reportweaver.util.TaskExecutorFactory;
 import com.reportweaver.reportweaver.util.WebDriverManager;
 import com.reportweaver.reportweaver.util.WebScraperUtils;
 
@@ -9,18 +17,24 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Lazy;
 import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
 import org.springframework.scheduling.annotation.Async;
 
 import io.github.cdimascio.dotenv.Dotenv;
+import io.micrometer.core.instrument.Timer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -56,6 +70,25 @@ public class ReportService {
     // Manages Selenium WebDriver instances.
     private final WebDriverManager seleniumManager;
 
+    // Cache of rule documentation shared across jobs.
+    private final DocumentationCacheService documentationCache;
+
+    // Maximum number of report errors enriched concurrently.
+    private final int extractionParallelism;
+
+    // Creates the executors used for parallel enrichment.
+    private final TaskExecutorFactory taskExecutorFactory;
+
+    // Remembers the last run per website so unchanged reports are reused.
+    private final ReportSnapshotService reportSnapshotService;
+
+    // Whether changed reports update the last published document in place.
+    private final boolean incrementalPublishing;
+
+    // Whether job browsers run without a window, e.g. on servers and in load
+    // tests.
+    private final boolean headlessBrowsers;
+
     /**
      * Constructs a ReportService with the required dependencies.
      *
@@ -65,22 +98,42 @@ public class ReportService {
      * @param googleDocsService     Service for managing Google Docs reports.
      * @param seleniumStatusHandler WebSocket handler for real-time status updates.
      * @param seleniumManager       Manages multiple Selenium WebDriver instances.
+     * @param documentationCache    Cache of rule documentation shared across jobs.
+     * @param extractionParallelism Maximum number of report errors enriched
+     *                              concurrently.
+     * @param taskExecutorFactory   Creates the executors used for parallel
+     *                              enrichment.
+     * @param reportSnapshotService Remembers the last run of each website.
+     * @param publishMode           "full" to always create a new document,
+     *                              "incremental" to update the account's last
+     *                              published document in place.
+     * @param headlessBrowsers      Whether job browsers run without a window.
      */
     public ReportService(Duration waitTimeout, LoginService loginService,
             RowProcessorService rowProcessorService, GoogleDocsService googleDocsService,
-            SeleniumStatusHandler seleniumStatusHandler, WebDriverManager seleniumManager) {
+            SeleniumStatusHandler seleniumStatusHandler, WebDriverManager seleniumManager,
+            DocumentationCacheService documentationCache,
+            @Value("${reportweaver.extraction.parallelism:4}") int extractionParallelism,
+            TaskExecutorFactory taskExecutorFactory, ReportSnapshotService reportSnapshotService,
+            @Value("${reportweaver.google-docs.publish-mode:full}") String publishMode,
+            @Value("${reportweaver.browsers.headless:false}") boolean headlessBrowsers) {
         this.waitTimeout = waitTimeout;
         this.loginService = loginService;
         this.rowProcessorService = rowProcessorService;
         this.googleDocsService = googleDocsService;
         this.seleniumStatusHandler = seleniumStatusHandler;
         this.seleniumManager = seleniumManager;
+        this.documentationCache = documentationCache;
+        this.extractionParallelism = extractionParallelism;
+        this.taskExecutorFactory = taskExecutorFactory;
+        this.reportSnapshotService = reportSnapshotService;
+        this.incrementalPublishing = "incremental".equalsIgnoreCase(publishMode);
+        this.headlessBrowsers = headlessBrowsers;
     }
 
     /**
-     * Asynchronously runs the report generation process.
-     * This method handles authentication, report data extraction, processing, and
-     * report creation.
+     * Asynchronously runs the report generation process on the @Async pool.
+     * Report jobs call {@link #generateReport} on their own thread instead.
      *
      * @param website  The target website URL.
      * @param username The username for login authentication.
@@ -91,15 +144,68 @@ public class ReportService {
      */
     @Async
     public CompletableFuture<String> runReportProcess(String website, String username, String password, String email) {
+        return CompletableFuture.completedFuture(generateReport(website, username, password, email));
+    }
+
+    /**
+     * Runs the report generation process on the calling thread.
+     * This method handles authentication, report data extraction, processing, and
+     * report creation.
+     *
+     * @param website  The target website URL.
+     * @param username The username for login authentication.
+     * @param password The password for login authentication.
+     * @param email    The email address where the generated report should be
+     *                 shared.
+     * @return The generated Google Docs report ID, or "Processing" if no
+     *         document could be created.
+     */
+    public String generateReport(String website, String username, String password, String email) {
+        // Give the job its own download directory so concurrent jobs never pick
+        // up each other's files
+        Path downloadDirectory;
+        try {
+            downloadDirectory = DownloadUtil.createJobDownloadDirectory();
+        } catch (IOException e) {
+            seleniumStatusHandler.sendUpdate("Could not create download directory: " + e.getMessage());
+            logger.error("Could not create download directory: {}", e.getMessage(), e);
+            return "Processing";
+        }
+
         // Initialize WebDriver with browser options
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--start-maximized");
-        WebDriver driver = new ChromeDriver(options);
+        if (headlessBrowsers) {
+            options.addArguments("--headless=new", "--window-size=1920,1080");
+        }
+        options.setExperimentalOption("prefs", Map.of(
+                "download.default_directory", downloadDirectory.toString(),
+                "download.prompt_for_download", false,
+                "download.directory_upgrade", true));
+        // Each job browser holds a slot, so the number of browsers stays bounded
+        // however many threads run jobs
+        WebDriver driver;
+        try {
+            seleniumManager.acquireJobBrowserSlot();
+        } catch (IllegalStateException e) {
+            seleniumStatusHandler.sendUpdate("No browser available: " + e.getMessage());
+            logger.error("No browser available: {}", e.getMessage());
+            DownloadUtil.deleteJobDownloadDirectory(downloadDirectory);
+            return "Processing";
+        }
+        try {
+            driver = new ChromeDriver(options);
+        } catch (RuntimeException e) {
+            seleniumManager.releaseJobBrowserSlot();
+            DownloadUtil.deleteJobDownloadDirectory(downloadDirectory);
+            throw e;
+        }
         seleniumManager.addDriver(driver);
         seleniumStatusHandler.sendUpdate("Selenium WebDriver initialized.");
 
         WebDriverWait wait = new WebDriverWait(driver, waitTimeout);
         String documentId = "";
+        Timer.Sample reportTimer = PipelineMetrics.start();
 
         try {
             // Retrieve the Pope Tech login URL from environment variables
@@ -108,36 +214,97 @@ public class ReportService {
                 throw new IllegalStateException("POPE_TECH_URL environment variable is missing.");
             }
 
+            seleniumStatusHandler.sendProgress(ProgressEvent.Stage.LOGGING_IN);
             seleniumStatusHandler.sendUpdate("Performing login...");
             loginService.performLogin(driver, popeTechUrl, username, password);
 
             seleniumStatusHandler.sendUpdate("Navigating to reports...");
             WebScraperUtils.navigateToReports(wait, driver);
 
+            // Capture the authenticated session once so worker browsers can reuse it
+            BrowserSession session = null;
+            try {
+                session = BrowserSessionUtils.capture(driver);
+                loginService.rememberSession(username, password, session);
+                seleniumStatusHandler.sendUpdate("Captured login session for worker browsers.");
+            } catch (Exception e) {
+                logger.warn("Could not capture login session, workers will log in themselves: {}", e.getMessage());
+            }
+
+            seleniumStatusHandler.sendProgress(ProgressEvent.Stage.FINDING_REPORT);
             seleniumStatusHandler.sendUpdate("Fetching report rows...");
             List<WebElement> rows = WebScraperUtils.getReportRows(wait, driver);
             logger.info("Number of rows found: {}", rows.size());
 
             seleniumStatusHandler.sendUpdate("Processing report rows...");
-            String downloadedFilePath = rowProcessorService.processRows(website, rows, driver, wait);
+            String downloadedFilePath = rowProcessorService.processRows(website, rows, driver, wait,
+                    downloadDirectory);
+
+            // The report file is parsed from disk, so the browser can be released
+            // before the enrichment starts leasing pooled drivers. The field is
+            // cleared first so a failing quit never releases the slot twice
+            WebDriver jobDriver = driver;
+            driver = null;
+            closeDriver(jobDriver);
 
             if (downloadedFilePath != null) {
                 logger.info("File downloaded at: {}", downloadedFilePath);
 
-                // Extract errors from the downloaded report file
-                seleniumStatusHandler.sendUpdate("Extracting data from downloaded report...");
-                FileDataExtractorService extractorService = new FileDataExtractorService(driver, wait, loginService,
-                        seleniumStatusHandler);
-                List<Error> errors = extractorService.extractData(downloadedFilePath, username, password);
-                logger.info("Errors passed to report: {}", errors);
+                // An unchanged report file produces the same document, so the
+                // previous run's document is reused
+                String fileHash = HashUtils.sha256Hex(Paths.get(downloadedFilePath));
+                ReportSnapshot unchanged = reportSnapshotService.findUnchanged(website, username, fileHash);
+                if (unchanged != null) {
+                    seleniumStatusHandler.sendUpdate("Report is unchanged since the last run, reusing its Google Doc.");
+                    logger.info("Report file for {} is unchanged, reusing document {}", website,
+                            unchanged.getDocumentId());
+                    documentId = unchanged.getDocumentId();
+                } else {
+                    // Extract errors from the downloaded report file
+                    seleniumStatusHandler.sendProgress(ProgressEvent.Stage.EXTRACTING);
+                    seleniumStatusHandler.sendUpdate("Extracting data from downloaded report...");
+                    FileDataExtractorService extractorService = new FileDataExtractorService(loginService,
+                            seleniumStatusHandler, seleniumManager, documentationCache, extractionParallelism,
+                            taskExecutorFactory);
+                    List<Error> errors = extractorService.extractData(downloadedFilePath, session, username,
+                            password);
+                    logger.info("Errors passed to report: {}", errors);
 
-                // Generate a Google Docs report with extracted errors
-                seleniumStatusHandler.sendUpdate("Generating Google Doc with extracted errors...");
-                CompletableFuture<String> docFuture = googleDocsService.createAccessibilityReport("Error Report",
-                        errors, extractorService);
-                documentId = docFuture.get();
+                    // Update this account's last published report in place when
+                    // possible, and fall back to generating a new Google Doc
+                    seleniumStatusHandler.sendProgress(ProgressEvent.Stage.WRITING_DOCUMENT);
+                    ReportSnapshot previous = incrementalPublishing
+                            ? reportSnapshotService.getLatest(website, username)
+                            : null;
+                    boolean updated = false;
+                    if (previous != null) {
+                        try {
+                            updated = googleDocsService.updateAccessibilityReport(previous.getDocumentId(),
+                                    previous.getErrors(), errors, extractorService);
+                        } catch (IOException e) {
+                            // The old document may be half-edited; say so rather than
+                            // replacing it without a word
+                            seleniumStatusHandler.sendUpdate("Updating Google Doc " + previous.getDocumentId()
+                                    + " failed part way, so it may be incomplete. A new Google Doc replaces it.");
+                            logger.error("In-place update of document {} for {} failed and may have left it "
+                                    + "partly updated; creating a new document", previous.getDocumentId(), website, e);
+                        }
+                    }
+                    if (updated) {
+                        documentId = previous.getDocumentId();
+                    } else {
+                        seleniumStatusHandler.sendUpdate("Generating Google Doc with extracted errors...");
+                        CompletableFuture<String> docFuture = googleDocsService.createAccessibilityReport(
+                                "Error Report", errors, extractorService);
+                        documentId = docFuture.get();
+                    }
+
+                    reportSnapshotService.save(new ReportSnapshot(website, username, fileHash, documentId, errors,
+                            System.currentTimeMillis()));
+                }
 
                 // Share the generated report via email
+                seleniumStatusHandler.sendProgress(ProgressEvent.Stage.SHARING);
                 seleniumStatusHandler.sendUpdate("Sharing Google Doc...");
                 googleDocsService.shareDocument(documentId, email);
 
@@ -156,19 +323,36 @@ public class ReportService {
             seleniumStatusHandler.sendUpdate("Error during report process: " + e.getMessage());
             logger.error("An error occurred during the report process: {}", e.getMessage(), e);
         } finally {
-            // Close WebDriver after execution
-            seleniumStatusHandler.sendUpdate("Closing WebDriver...");
-            seleniumManager.removeDriver(driver);
-            driver.quit();
+            // Close WebDriver after execution if it was not released earlier
+            if (driver != null) {
+                closeDriver(driver);
+            }
+            DownloadUtil.deleteJobDownloadDirectory(downloadDirectory);
         }
 
         // Ensure a valid response is returned if the document ID is empty
+        PipelineMetrics.stop(reportTimer, PipelineMetrics.REPORT, documentId != null && !documentId.isEmpty());
         if (documentId == null || documentId.isEmpty()) {
             seleniumStatusHandler.sendUpdate("Google Doc ID is empty. Please try again");
             logger.error("Document ID is empty. Returning 'Processing'.");
-            return CompletableFuture.completedFuture("Processing");
+            return "Processing";
         }
 
-        return CompletableFuture.completedFuture(documentId);
+        return documentId;
+    }
+
+    /**
+     * Unregisters and quits the job's main WebDriver and frees its browser slot.
+     *
+     * @param driver The WebDriver to close.
+     */
+    private void closeDriver(WebDriver driver) {
+        seleniumStatusHandler.sendUpdate("Closing WebDriver...");
+        seleniumManager.removeDriver(driver);
+        try {
+            driver.quit();
+        } finally {
+            seleniumManager.releaseJobBrowserSlot();
+        }
     }
 }
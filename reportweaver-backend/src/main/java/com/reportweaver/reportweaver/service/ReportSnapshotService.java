@@ -0,0 +1,170 @@
+package com.reportweaver.reportweaver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportweaver.reportweaver.model.ReportSnapshot;
+import com.reportweaver.reportweaver.util.HashUtils;
+import com.reportweaver.reportweaver.util.WebScraperUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service that remembers the last completed report run for each website and
+ * PopeTech account. Snapshots are never shared between accounts, since reusing
+ * one hands its Google Doc to the requester.
+ * PopeTech reports change far less often than they are requested, so when a
+ * newly downloaded report file has the same hash as the last run, the stored
+ * errors and Google Doc are reused instead of extracting the report and
+ * building a new document.
+ */
+@Service
+public class ReportSnapshotService {
+
+    // Logger instance for logging snapshot activity.
+    private static final Logger logger = LoggerFactory.getLogger(ReportSnapshotService.class);
+
+    // Serializes snapshots to and from the snapshot directory.
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Latest snapshot per normalized website and username, loaded lazily from disk.
+    private final Map<String, ReportSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // How long a snapshot may be reused after it was taken.
+    private final Duration maxAge;
+
+    // Directory holding the snapshots, or null if only memory is used.
+    private final Path snapshotDirectory;
+
+    /**
+     * Constructs the ReportSnapshotService with the settings from
+     * application.properties.
+     *
+     * @param maxAgeHours Hours a snapshot may be reused after it was taken.
+     * @param directory   Directory for stored snapshots; blank keeps them in
+     *                    memory only.
+     */
+    public ReportSnapshotService(
+            @Value("${reportweaver.report-snapshots.max-age-hours:168}") long maxAgeHours,
+            @Value("${reportweaver.report-snapshots.directory:}") String directory) {
+        this.maxAge = Duration.ofHours(maxAgeHours);
+        this.snapshotDirectory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+
+        if (snapshotDirectory != null) {
+            try {
+                Files.createDirectories(snapshotDirectory);
+            } catch (IOException e) {
+                logger.error("Could not create report snapshot directory {}: {}", snapshotDirectory,
+                        e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Looks up the latest snapshot of a website for an account.
+     *
+     * @param website  The website.
+     * @param username The PopeTech username.
+     * @return The snapshot, or null if there is none or it has expired.
+     */
+    public ReportSnapshot getLatest(String website, String username) {
+        String key = WebScraperUtils.accountWebsiteKey(website, username);
+        ReportSnapshot snapshot = snapshots.computeIfAbsent(key, this::readFromDisk);
+        if (snapshot == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - snapshot.getCreatedAt() > maxAge.toMillis()) {
+            snapshots.remove(key, snapshot);
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Looks up the snapshot of a website for an account taken from an
+     * identical report file.
+     *
+     * @param website  The website.
+     * @param username The PopeTech username.
+     * @param fileHash Hash of the newly downloaded report file.
+     * @return The matching snapshot, or null if the report has changed.
+     */
+    public ReportSnapshot findUnchanged(String website, String username, String fileHash) {
+        ReportSnapshot snapshot = getLatest(website, username);
+        return snapshot != null && snapshot.getFileHash().equals(fileHash) ? snapshot : null;
+    }
+
+    /**
+     * Stores a snapshot as the latest run of its website and account.
+     *
+     * @param snapshot The snapshot of a completed run.
+     */
+    public void save(ReportSnapshot snapshot) {
+        String key = WebScraperUtils.accountWebsiteKey(snapshot.getWebsite(), snapshot.getUsername());
+        snapshots.put(key, snapshot);
+        writeToDisk(key, snapshot);
+    }
+
+    /**
+     * Reads the snapshot of a website and account from disk.
+     *
+     * @param key The normalized website and username.
+     * @return The stored snapshot, or null if there is none.
+     */
+    private ReportSnapshot readFromDisk(String key) {
+        if (snapshotDirectory == null) {
+            return null;
+        }
+        Path file = snapshotDirectory.resolve(fileName(key));
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), ReportSnapshot.class);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable report snapshot {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot to disk. The file is written to a temporary name first
+     * so concurrent readers never see a partial snapshot.
+     *
+     * @param key      The normalized website and username.
+     * @param snapshot The snapshot to store.
+     */
+    private void writeToDisk(String key, ReportSnapshot snapshot) {
+        if (snapshotDirectory == null) {
+            return;
+        }
+        Path file = snapshotDirectory.resolve(fileName(key));
+        try {
+            Path temp = Files.createTempFile(snapshotDirectory, "snapshot", ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write report snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Derives a file name for a website and account.
+     *
+     * @param key The normalized website and username.
+     * @return A file name that is safe on every platform.
+     */
+    private static String fileName(String key) {
+        return HashUtils.sha256Hex(key) + ".json";
+    }
+}
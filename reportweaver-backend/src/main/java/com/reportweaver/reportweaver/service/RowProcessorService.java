@@ -1,22 +1,33 @@
 package com.reportweaver.reportweaver.service;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Lazy;
 
+import com.reportweaver.reportweaver.model.ProgressEvent;
 import com.reportweaver.reportweaver.util.DownloadUtil;
+import com.reportweaver.reportweaver.util.PipelineMetrics;
+import com.reportweaver.reportweaver.util.WebScraperUtils;
 import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
 
+import io.micrometer.core.instrument.Timer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Locale;
 
 @Lazy
 @Service
@@ -25,49 +36,106 @@ public class RowProcessorService {
     // Logger instance for logging debug and error messages
     private static final Logger logger = LoggerFactory.getLogger(RowProcessorService.class);
 
+    // Cells read from each row of the reports table
+    private static final List<WebScraperUtils.ColumnSpec> REPORT_COLUMNS = List.of(
+            WebScraperUtils.ColumnSpec.text("entities", ".column-entities"),
+            WebScraperUtils.ColumnSpec.text("format", ".column-format"));
+
+    // Download button of a report row
+    private static final By DOWNLOAD_BUTTON = By.cssSelector("button:has(.fa-download)");
+
+    // Milliseconds to wait for the download button to start a navigation
+    private static final int DOWNLOAD_CAPTURE_TIMEOUT_MS = 3000;
+
+    // Clicks the download button with its navigation blocked and returns the URL
+    // it tried to open, via window.open or the Navigation API, or null if none
+    private static final String CAPTURE_DOWNLOAD_URL_SCRIPT = """
+            var button = arguments[0], timeout = arguments[1], done = arguments[arguments.length - 1];
+            var captured = null, originalOpen = window.open, started = Date.now();
+            function capture(url) {
+                if (captured === null && url) { captured = new URL(url, location.href).href; }
+            }
+            function onNavigate(event) {
+                // Route changes inside the app are not downloads
+                if (event.hashChange || (event.destination.sameDocument && !event.downloadRequest)) { return; }
+                capture(event.destination.url);
+                if (event.cancelable) { event.preventDefault(); }
+            }
+            window.open = function (url) { capture(url); return null; };
+            if (window.navigation) { navigation.addEventListener('navigate', onNavigate); }
+            button.click();
+            var timer = setInterval(function () {
+                if (captured === null && Date.now() - started < timeout) { return; }
+                clearInterval(timer);
+                window.open = originalOpen;
+                if (window.navigation) { navigation.removeEventListener('navigate', onNavigate); }
+                done(captured);
+            }, 50);
+            """;
+
     // WebSocket handler for sending status updates during processing
     private final SeleniumStatusHandler seleniumStatusHandler;
 
-    // Constructor to initialize the SeleniumStatusHandler
-    public RowProcessorService(SeleniumStatusHandler seleniumStatusHandler) {
+    // "http" fetches the report directly with the browser's cookies when the
+    // download button opens a plain URL; "browser" always lets Chrome download it
+    private final String downloadMode;
+
+    // Constructor to initialize the SeleniumStatusHandler and download mode
+    public RowProcessorService(SeleniumStatusHandler seleniumStatusHandler,
+            @Value("${reportweaver.download.mode:http}") String downloadMode) {
         this.seleniumStatusHandler = seleniumStatusHandler;
+        this.downloadMode = downloadMode;
     }
 
     /**
      * Processes rows from a given table in the webpage, searching for a row
      * that matches the provided website and has an HTML file format.
+     * The cells of each page are read with a single script call; only the
+     * matching row is looked up again to click its download button.
      *
      * @param website The target website to match in the "column-entities" cell.
-     * @param rows    List of WebElements representing table rows.
+     * @param rows    List of WebElements representing table rows; used only to
+     *                confirm the table has loaded.
      * @param driver  The Selenium WebDriver instance.
      * @param wait    WebDriverWait instance for waiting on elements.
+     * @param downloadDirectory The job's own directory the browser downloads
+     *                          into.
      * @return The file path of the downloaded file, or null if no matching row is
      *         found.
      */
-    public String processRows(String website, List<WebElement> rows, WebDriver driver, WebDriverWait wait) {
+    public String processRows(String website, List<WebElement> rows, WebDriver driver, WebDriverWait wait,
+            Path downloadDirectory) {
         seleniumStatusHandler.sendUpdate("Starting row processing...");
+        Timer.Sample searchTimer = PipelineMetrics.start();
 
         // Loop continuously until a matching row is found or pagination ends
         while (true) {
-            for (WebElement row : rows) {
+            // Read the entity and format of every row in a single round trip
+            List<WebScraperUtils.ScrapedRow> scrapedRows;
+            try {
+                scrapedRows = WebScraperUtils.extractTable(driver, wait, WebScraperUtils.REPORT_ROW_SELECTOR,
+                        REPORT_COLUMNS);
+            } catch (TimeoutException e) {
+                seleniumStatusHandler.sendUpdate("Report rows not found.");
+                logger.error("Report rows not found.");
+                break;
+            }
+            PipelineMetrics.countPage(PipelineMetrics.ROW_SEARCH);
+
+            for (WebScraperUtils.ScrapedRow row : scrapedRows) {
+                seleniumStatusHandler.sendProgress(ProgressEvent.Stage.FINDING_REPORT, row.index(),
+                        scrapedRows.size());
                 try {
                     seleniumStatusHandler.sendUpdate("Checking row for matching entity...");
 
-                    // Locate the "column-entities" cell first
-                    WebElement entitiesCell = wait.until(ExpectedConditions.presenceOfNestedElementLocatedBy(
-                            row, By.className("column-entities")));
-
                     // Check if the entity matches first
-                    if (!entitiesCell.getText().contains(website)) {
+                    String entities = row.get("entities");
+                    if (entities == null || !entities.contains(website)) {
                         continue; // Skip this row if the entity doesn't match
                     }
 
-                    // Locate the "column-format" cell only if the entity matches
-                    WebElement fileFormatCell = wait.until(ExpectedConditions.presenceOfNestedElementLocatedBy(
-                            row, By.className("column-format")));
-
                     // Check if file format is "html"
-                    if (!"html".equalsIgnoreCase(fileFormatCell.getText())) {
+                    if (!"html".equalsIgnoreCase(row.get("format"))) {
                         continue; // Skip this row if file format is not "html"
                     }
 
@@ -82,17 +150,30 @@ public class RowProcessorService {
 
                     // If all conditions are met, proceed with downloading
                     if (isWebsiteScanType) {
-                        seleniumStatusHandler.sendUpdate("Matching row found: " + row.getText());
-                        logger.info("Row found: " + row.getText());
+                        seleniumStatusHandler.sendUpdate("Matching row found: " + entities);
+                        PipelineMetrics.stop(searchTimer, PipelineMetrics.ROW_SEARCH, true);
+                        logger.info("Row found: " + entities);
+
+                        WebElement matchingRow = driver
+                                .findElements(By.cssSelector(WebScraperUtils.REPORT_ROW_SELECTOR)).get(row.index());
 
-                        // Locate and click the download button within the matching row
                         WebElement downloadButton = wait.until(ExpectedConditions.presenceOfNestedElementLocatedBy(
-                                row, By.cssSelector("button:has(.fa-download)")));
+                                matchingRow, DOWNLOAD_BUTTON));
 
-                        seleniumStatusHandler.sendUpdate("Clicking download button...");
+                        // Fetch the file directly if the button opens a plain URL
+                        seleniumStatusHandler.sendProgress(ProgressEvent.Stage.DOWNLOADING);
+                        File downloadedFile = null;
+                        String downloadUrl = resolveDownloadUrl(driver, downloadButton);
+                        if (downloadUrl != null) {
+                            downloadedFile = DownloadUtil.downloadWithSession(driver, downloadUrl, downloadDirectory,
+                                    30);
+                        }
 
-                        // Handle the file download process
-                        File downloadedFile = DownloadUtil.handleFileDownload(downloadButton, 30);
+                        // Otherwise click the download button and let Chrome save the file
+                        if (downloadedFile == null) {
+                            seleniumStatusHandler.sendUpdate("Clicking download button...");
+                            downloadedFile = DownloadUtil.handleFileDownload(downloadButton, downloadDirectory, 30);
+                        }
 
                         if (downloadedFile != null) {
                             seleniumStatusHandler
@@ -124,14 +205,11 @@ public class RowProcessorService {
                 // Click the "Next Page" button if it's enabled
                 if (nextPageButton.isEnabled()) {
                     seleniumStatusHandler.sendUpdate("Navigating to next page...");
+                    WebElement firstRow = driver.findElement(By.cssSelector(WebScraperUtils.REPORT_ROW_SELECTOR));
                     nextPageButton.click();
 
                     // Wait for the current rows to be replaced with new data
-                    wait.until(ExpectedConditions.stalenessOf(rows.get(0)));
-
-                    // Refresh the list of rows after page navigation
-                    rows = wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(
-                            By.cssSelector("#reports-table > data-table > div > div tbody tr")));
+                    wait.until(ExpectedConditions.stalenessOf(firstRow));
                 } else {
                     seleniumStatusHandler.sendUpdate("No more pages available.");
                     logger.info("No more pages available.");
@@ -147,7 +225,63 @@ public class RowProcessorService {
         // Log and notify that the desired row was not found after all pages were
         // processed
         seleniumStatusHandler.sendUpdate("Desired row not found after processing all pages.");
+        PipelineMetrics.stop(searchTimer, PipelineMetrics.ROW_SEARCH, false);
         logger.error("Desired row not found after processing all pages.");
         return null;
     }
+
+    /**
+     * Resolves the URL of the report file when direct downloads are enabled.
+     * The row has no link to the file, so the download button is clicked with
+     * its navigation blocked and the URL it tries to open is captured instead.
+     * Only URLs on PopeTech's own origin are fetched directly, so the session
+     * cookies never go to another host or over plain HTTP.
+     *
+     * @param driver         The Selenium WebDriver instance.
+     * @param downloadButton The download button of the matching row.
+     * @return The absolute download URL, or null if the button did not open a
+     *         URL on the current origin or the download mode is "browser".
+     */
+    private String resolveDownloadUrl(WebDriver driver, WebElement downloadButton) {
+        if (!"http".equalsIgnoreCase(downloadMode)) {
+            return null;
+        }
+        Object captured;
+        try {
+            captured = ((JavascriptExecutor) driver).executeAsyncScript(CAPTURE_DOWNLOAD_URL_SCRIPT, downloadButton,
+                    DOWNLOAD_CAPTURE_TIMEOUT_MS);
+        } catch (WebDriverException e) {
+            logger.warn("Could not capture the download URL: {}", e.getMessage());
+            return null;
+        }
+        // Blob and data URLs only exist inside the page, so Chrome has to save those
+        String url = captured instanceof String ? (String) captured : null;
+        if (url == null || originOf(url).isEmpty() || !originOf(url).equals(originOf(driver.getCurrentUrl()))) {
+            logger.info("Download button did not open a URL on the current origin, falling back to the browser "
+                    + "download.");
+            return null;
+        }
+        return url;
+    }
+
+    /**
+     * Extracts the origin (scheme, host and port) of an HTTP URL.
+     *
+     * @param url The URL.
+     * @return The lowercased origin, or an empty string if the URL is not an
+     *         HTTP URL or cannot be parsed.
+     */
+    private static String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+            if (uri.getHost() == null || !(scheme.equals("http") || scheme.equals("https"))) {
+                return "";
+            }
+            int port = uri.getPort() != -1 ? uri.getPort() : scheme.equals("https") ? 443 : 80;
+            return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + ":" + port;
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
 }
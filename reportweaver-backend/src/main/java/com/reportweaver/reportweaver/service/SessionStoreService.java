@@ -0,0 +1,230 @@
+package com.reportweaver.reportweaver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportweaver.reportweaver.model.BrowserSession;
+import com.reportweaver.reportweaver.util.HashUtils;
+import com.reportweaver.reportweaver.util.SecretCipher;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Service that keeps authenticated PopeTech sessions between jobs.
+ * Sessions are stored per account as encrypted files so that back-to-back jobs
+ * for the same user can skip the interactive SSO and Duo login. A session is
+ * discarded once it is older than the configured maximum age or once a cookie
+ * for the PopeTech origin has expired.
+ * Each file also holds an HMAC of the password the session was created with,
+ * and a session is only handed out to a request with the same password, so
+ * knowing a username is never enough to use its session.
+ */
+@Service
+public class SessionStoreService {
+
+    // Logger instance for logging session store activity.
+    private static final Logger logger = LoggerFactory.getLogger(SessionStoreService.class);
+
+    // Serializes sessions before they are encrypted.
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Length of the password verifier stored in front of the session.
+    private static final int VERIFIER_LENGTH = 32;
+
+    // Encrypts sessions before they are written to disk.
+    private final SecretCipher secretCipher;
+
+    // Directory holding the stored sessions, or null if the store is disabled.
+    private final Path storeDirectory;
+
+    // How long a stored session may be reused after it was captured.
+    private final Duration maxAge;
+
+    /**
+     * Constructs the SessionStoreService with the store settings from
+     * application.properties.
+     *
+     * @param secretCipher Encrypts sessions before they are written to disk.
+     * @param directory    Directory holding the stored sessions; blank disables
+     *                     the store.
+     * @param maxAgeHours  Hours a stored session may be reused.
+     */
+    public SessionStoreService(SecretCipher secretCipher,
+            @Value("${reportweaver.session-store.directory:}") String directory,
+            @Value("${reportweaver.session-store.max-age-hours:12}") long maxAgeHours) {
+        this.secretCipher = secretCipher;
+        this.storeDirectory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+        this.maxAge = Duration.ofHours(maxAgeHours);
+
+        if (storeDirectory != null) {
+            try {
+                Files.createDirectories(storeDirectory);
+            } catch (IOException e) {
+                logger.error("Could not create session store directory {}: {}", storeDirectory, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads the stored session of an account, if it was stored with the same
+     * password. A session stored with another password is left in place, so a
+     * wrong password can neither use nor discard it.
+     *
+     * @param username The PopeTech username.
+     * @param password The PopeTech password of the request.
+     * @return The stored session, or null if there is none, it has expired or
+     *         the password does not match.
+     */
+    public BrowserSession load(String username, String password) {
+        Path file = sessionFile(username);
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+
+        BrowserSession session;
+        try {
+            byte[] stored = secretCipher.decrypt(Files.readAllBytes(file));
+            if (stored.length < VERIFIER_LENGTH || !MessageDigest.isEqual(
+                    Arrays.copyOf(stored, VERIFIER_LENGTH), passwordVerifier(password))) {
+                logger.info("Stored session for {} was not created with this password; ignoring it.", username);
+                return null;
+            }
+            session = objectMapper.readValue(
+                    Arrays.copyOfRange(stored, VERIFIER_LENGTH, stored.length), BrowserSession.class);
+        } catch (IOException | GeneralSecurityException e) {
+            logger.warn("Discarding unreadable stored session {}: {}", file, e.getMessage());
+            invalidate(username);
+            return null;
+        }
+
+        if (isExpired(session)) {
+            logger.info("Stored session for {} has expired.", username);
+            invalidate(username);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Stores the session of an account, replacing any previous one. The file is
+     * written to a temporary name first so readers never see a partial session.
+     *
+     * @param username The PopeTech username.
+     * @param password The PopeTech password the session was created with.
+     * @param session  The session captured after a successful login.
+     */
+    public void save(String username, String password, BrowserSession session) {
+        Path file = sessionFile(username);
+        if (file == null) {
+            return;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(session);
+            byte[] stored = Arrays.copyOf(passwordVerifier(password), VERIFIER_LENGTH + json.length);
+            System.arraycopy(json, 0, stored, VERIFIER_LENGTH, json.length);
+            byte[] encrypted = secretCipher.encrypt(stored);
+            Path temp = Files.createTempFile(storeDirectory, "session", ".tmp");
+            Files.write(temp, encrypted);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not store session for {}: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the stored session of an account, e.g. after PopeTech rejected it.
+     *
+     * @param username The PopeTech username.
+     */
+    public void invalidate(String username) {
+        Path file = sessionFile(username);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not remove stored session {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether a session is too old or has lost a cookie of its origin.
+     * Cookies without an expiry are session cookies and only bounded by the
+     * maximum age.
+     *
+     * @param session The stored session.
+     * @return True if the session should not be reused.
+     */
+    private boolean isExpired(BrowserSession session) {
+        long now = System.currentTimeMillis();
+        if (now - session.getCapturedAt() > maxAge.toMillis()) {
+            return true;
+        }
+
+        String host = hostOf(session.getOrigin());
+        for (Map<String, Object> cookie : session.getCookies()) {
+            String domain = String.valueOf(cookie.get("domain")).replaceFirst("^\\.", "");
+            Object expires = cookie.get("expires");
+            boolean forOrigin = host.equals(domain) || host.endsWith("." + domain);
+            if (forOrigin && expires instanceof Number && ((Number) expires).doubleValue() > 0
+                    && ((Number) expires).doubleValue() * 1000 < now) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Derives the verifier of a password.
+     *
+     * @param password The PopeTech password.
+     * @return The HMAC of the password under the local key.
+     */
+    private byte[] passwordVerifier(String password) {
+        return secretCipher.mac((password == null ? "" : password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Extracts the host from an origin.
+     *
+     * @param origin The origin, e.g. "https://app.pope.tech".
+     * @return The host, or an empty string if the origin cannot be parsed.
+     */
+    private static String hostOf(String origin) {
+        try {
+            String host = URI.create(origin).getHost();
+            return host != null ? host : "";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    /**
+     * Derives the session file of an account. Usernames are hashed so they do
+     * not appear in file names.
+     *
+     * @param username The PopeTech username.
+     * @return The session file, or null if the store is disabled.
+     */
+    private Path sessionFile(String username) {
+        if (storeDirectory == null || username == null) {
+            return null;
+        }
+        return storeDirectory.resolve(HashUtils.sha256Hex(username.trim().toLowerCase()) + ".session");
+    }
+}
@@ -0,0 +1,181 @@
+package com.reportweaver.reportweaver.util;
+
+import com.reportweaver.reportweaver.model.BrowserSession;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for copying an authenticated browser session between
+ * WebDrivers.
+ * Chrome drivers use DevTools so that cookies for every domain (including the
+ * identity provider) are captured and restored without extra navigation; other
+ * drivers fall back to the cookies of the current page.
+ */
+public class BrowserSessionUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserSessionUtils.class);
+
+    // Cookie fields accepted by the DevTools Network.setCookies command
+    private static final List<String> COOKIE_FIELDS = List.of("name", "value", "domain", "path", "secure",
+            "httpOnly", "sameSite", "expires");
+
+    // Path loaded on the session origin before localStorage can be written; any
+    // page on the origin will do, so a small static resource is used.
+    private static final String STORAGE_BOOTSTRAP_PATH = "/favicon.ico";
+
+    /**
+     * Captures the cookies and localStorage of a logged-in browser.
+     *
+     * @param driver A WebDriver that is currently on an authenticated page.
+     * @return The captured session.
+     */
+    @SuppressWarnings("unchecked")
+    public static BrowserSession capture(WebDriver driver) {
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        if (driver instanceof HasCdp) {
+            Map<String, Object> result = ((HasCdp) driver).executeCdpCommand("Network.getAllCookies", Map.of());
+            for (Map<String, Object> cookie : (List<Map<String, Object>>) result.get("cookies")) {
+                cookies.add(toCookieParam(cookie));
+            }
+        } else {
+            for (Cookie cookie : driver.manage().getCookies()) {
+                cookies.add(toCookieParam(cookie));
+            }
+        }
+
+        Map<String, String> localStorage = new LinkedHashMap<>();
+        Object storage = ((JavascriptExecutor) driver).executeScript("return Object.assign({}, window.localStorage);");
+        if (storage instanceof Map) {
+            ((Map<String, Object>) storage).forEach((key, value) -> localStorage.put(key, String.valueOf(value)));
+        }
+
+        return new BrowserSession(originOf(driver.getCurrentUrl()), cookies, localStorage,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Injects a captured session into another browser. This must be called
+     * before the browser navigates to an authenticated page.
+     *
+     * @param driver  The WebDriver that should reuse the session.
+     * @param session The session captured from a logged-in browser.
+     */
+    public static void apply(WebDriver driver, BrowserSession session) {
+        if (driver instanceof HasCdp) {
+            ((HasCdp) driver).executeCdpCommand("Network.setCookies",
+                    Map.of("cookies", session.getCookies()));
+        } else {
+            driver.get(session.getOrigin() + STORAGE_BOOTSTRAP_PATH);
+            for (Map<String, Object> cookie : session.getCookies()) {
+                try {
+                    driver.manage().addCookie(toSeleniumCookie(cookie));
+                } catch (Exception e) {
+                    // Cookies for other domains cannot be set from this page
+                    logger.debug("Skipping cookie {}: {}", cookie.get("name"), e.getMessage());
+                }
+            }
+        }
+
+        if (!session.getLocalStorage().isEmpty()) {
+            if (driver instanceof HasCdp) {
+                driver.get(session.getOrigin() + STORAGE_BOOTSTRAP_PATH);
+            }
+            ((JavascriptExecutor) driver).executeScript(
+                    "for (const [key, value] of Object.entries(arguments[0])) { window.localStorage.setItem(key, value); }",
+                    session.getLocalStorage());
+        }
+    }
+
+    /**
+     * Extracts the origin (scheme, host and port) from a URL.
+     *
+     * @param url The URL to inspect.
+     * @return The origin, or an empty string if the URL cannot be parsed.
+     */
+    public static String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    /**
+     * Keeps only the fields of a DevTools cookie that can be passed back to
+     * Network.setCookies. Session cookies have no expiry.
+     *
+     * @param cookie A cookie returned by Network.getAllCookies.
+     * @return The cookie in "CookieParam" form.
+     */
+    private static Map<String, Object> toCookieParam(Map<String, Object> cookie) {
+        Map<String, Object> param = new HashMap<>();
+        for (String field : COOKIE_FIELDS) {
+            Object value = cookie.get(field);
+            if (value != null) {
+                param.put(field, value);
+            }
+        }
+        if (Boolean.TRUE.equals(cookie.get("session"))) {
+            param.remove("expires");
+        }
+        return param;
+    }
+
+    /**
+     * Converts a Selenium cookie to "CookieParam" form.
+     *
+     * @param cookie The Selenium cookie.
+     * @return The cookie in "CookieParam" form.
+     */
+    private static Map<String, Object> toCookieParam(Cookie cookie) {
+        Map<String, Object> param = new HashMap<>();
+        param.put("name", cookie.getName());
+        param.put("value", cookie.getValue());
+        param.put("domain", cookie.getDomain());
+        param.put("path", cookie.getPath());
+        param.put("secure", cookie.isSecure());
+        param.put("httpOnly", cookie.isHttpOnly());
+        if (cookie.getSameSite() != null) {
+            param.put("sameSite", cookie.getSameSite());
+        }
+        if (cookie.getExpiry() != null) {
+            param.put("expires", cookie.getExpiry().getTime() / 1000.0);
+        }
+        return param;
+    }
+
+    /**
+     * Converts a cookie in "CookieParam" form to a Selenium cookie.
+     *
+     * @param param The cookie in "CookieParam" form.
+     * @return The Selenium cookie.
+     */
+    private static Cookie toSeleniumCookie(Map<String, Object> param) {
+        Cookie.Builder builder = new Cookie.Builder((String) param.get("name"), (String) param.get("value"))
+                .domain((String) param.get("domain"))
+                .path((String) param.getOrDefault("path", "/"))
+                .isSecure(Boolean.TRUE.equals(param.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(param.get("httpOnly")));
+        if (param.get("sameSite") != null) {
+            builder.sameSite((String) param.get("sameSite"));
+        }
+        if (param.get("expires") instanceof Number) {
+            builder.expiresOn(new Date((long) (((Number) param.get("expires")).doubleValue() * 1000)));
+        }
+        return builder.build();
+    }
+}
@@ -1,19 +1,46 @@
 package com.reportweaver.reportweaver.util;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
 
+import io.micrometer.core.instrument.Timer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class DownloadUtil {
 
@@ -21,6 +48,19 @@ public class DownloadUtil {
     private static final String DOWNLOAD_FOLDER = System.getProperty("user.home") + "/Downloads";
     private static final SeleniumStatusHandler seleniumStatusHandler = new SeleniumStatusHandler();
 
+    // Client for direct downloads. Redirects are followed by hand, so the
+    // session cookies sent to each hop can be checked against its URL
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    // Maximum number of redirects followed by a direct download
+    private static final int MAX_REDIRECTS = 5;
+
+    // Extracts the file name from a Content-Disposition header
+    private static final Pattern FILENAME_PATTERN = Pattern.compile("filename=\"?([^\";]+)\"?");
+
     /**
      * Gets the default download folder path.
      *
@@ -35,24 +75,76 @@ public class DownloadUtil {
     }
 
     /**
-     * Waits for a file to be downloaded after clicking the provided button.
+     * Creates an empty download directory for a single job, so concurrent jobs
+     * never see each other's files.
+     *
+     * @return the path of the new directory.
+     * @throws IOException if the directory cannot be created.
+     */
+    public static Path createJobDownloadDirectory() throws IOException {
+        return Files.createTempDirectory("reportweaver-download-");
+    }
+
+    /**
+     * Deletes a job download directory and everything in it.
+     *
+     * @param directory the directory created by {@link #createJobDownloadDirectory()}.
+     */
+    public static void deleteJobDownloadDirectory(Path directory) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Could not delete download directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for a file to be downloaded to the default download folder after
+     * clicking the provided button.
      *
      * @param downloadButton the WebElement representing the download button.
      * @param timeoutSeconds the timeout in seconds to wait for the download.
      * @return the downloaded File, or null if the download times out.
      */
     public static File handleFileDownload(WebElement downloadButton, int timeoutSeconds) {
-        seleniumStatusHandler.sendUpdate("Clicking download button...");
-        // Track the time before clicking the button
-        long clickTime = System.currentTimeMillis();
+        return handleFileDownload(downloadButton, Paths.get(DOWNLOAD_FOLDER), timeoutSeconds);
+    }
 
-        // Click the download button
-        downloadButton.click();
+    /**
+     * Waits for a file to be downloaded after clicking the provided button.
+     * The directory is watched before the click so the completed file is
+     * detected as soon as Chrome renames it from its ".crdownload" name.
+     *
+     * @param downloadButton    the WebElement representing the download button.
+     * @param downloadDirectory the directory the browser downloads into.
+     * @param timeoutSeconds    the timeout in seconds to wait for the download.
+     * @return the downloaded File, or null if the download times out.
+     */
+    public static File handleFileDownload(WebElement downloadButton, Path downloadDirectory, int timeoutSeconds) {
+        File downloadedFile;
+        Timer.Sample downloadTimer = PipelineMetrics.start();
+        try (WatchService watchService = downloadDirectory.getFileSystem().newWatchService()) {
+            downloadDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            long clickTime = System.currentTimeMillis();
 
-        // Log and wait for the file download
-        seleniumStatusHandler.sendUpdate("Waiting for file download...");
-        logger.info("Waiting for file download...");
-        File downloadedFile = waitForFileDownload(DOWNLOAD_FOLDER, timeoutSeconds, clickTime);
+            seleniumStatusHandler.sendUpdate("Clicking download button...");
+            downloadButton.click();
+
+            // Log and wait for the file download
+            seleniumStatusHandler.sendUpdate("Waiting for file download...");
+            logger.info("Waiting for file download...");
+            downloadedFile = waitForFileDownload(watchService, downloadDirectory, timeoutSeconds, clickTime);
+        } catch (IOException e) {
+            seleniumStatusHandler.sendUpdate("Could not watch download folder: " + e.getMessage());
+            logger.error("Could not watch download folder {}: {}", downloadDirectory, e.getMessage());
+            PipelineMetrics.stop(downloadTimer, PipelineMetrics.DOWNLOAD, false);
+            return null;
+        }
+        PipelineMetrics.stop(downloadTimer, PipelineMetrics.DOWNLOAD, downloadedFile != null);
 
         if (downloadedFile != null) {
             seleniumStatusHandler.sendUpdate("Downloaded file detected: " + downloadedFile.getName());
@@ -66,74 +158,218 @@ public class DownloadUtil {
     }
 
     /**
-     * Waits for a file to appear in the specified directory.
+     * Waits for a completed file to appear in a watched directory.
      *
-     * @param downloadFolder the folder where files are expected to be downloaded.
-     * @param timeoutSeconds the timeout in seconds to wait for the file.
+     * @param watchService      the watch service the directory is registered with.
+     * @param downloadDirectory the folder where files are expected to be downloaded.
+     * @param timeoutSeconds    the timeout in seconds to wait for the file.
+     * @param clickTime         the time the download was started; older files are
+     *                          ignored.
      * @return the downloaded File, or null if no file is found within the timeout.
      */
-    public static File waitForFileDownload(String downloadFolder, int timeoutSeconds, long clickTime) {
-        seleniumStatusHandler.sendUpdate("Monitoring download folder: " + downloadFolder);
-        File folder = new File(downloadFolder);
-        long endTime = System.currentTimeMillis() + (timeoutSeconds * 1000);
-
-        File newestFile = null;
-
-        while (System.currentTimeMillis() < endTime) {
-            File[] files = folder.listFiles(file -> file.isFile() && !file.getName().equals(".DS_Store")
-                    && file.lastModified() > clickTime); // Ensure the file is created after click
-
-            if (files != null && files.length > 0) {
-                // Find the newest file based on lastModified timestamp
-                newestFile = Arrays.stream(files)
-                        .max(Comparator.comparingLong(File::lastModified))
-                        .orElse(null);
-
-                if (newestFile != null
-                        && isFileComplete(newestFile)
-                        && newestFile.getName().matches(".*\\.(pdf|xlsx|txt|csv|html)$")) { // Expected extensions
-                    seleniumStatusHandler.sendUpdate("File downloaded successfully: " + newestFile.getName());
-                    return newestFile;
-                }
+    public static File waitForFileDownload(WatchService watchService, Path downloadDirectory, int timeoutSeconds,
+            long clickTime) {
+        seleniumStatusHandler.sendUpdate("Monitoring download folder: " + downloadDirectory);
+        long endTime = System.currentTimeMillis() + (timeoutSeconds * 1000L);
+
+        // The download may have finished before the first event is read
+        File completed = findCompletedFile(downloadDirectory, clickTime);
+        while (completed == null) {
+            long remaining = endTime - System.currentTimeMillis();
+            if (remaining <= 0) {
+                seleniumStatusHandler.sendUpdate("Download timeout reached. No valid file detected.");
+                return null;
             }
 
             try {
-                Thread.sleep(1000); // Wait 500ms before re-checking
+                WatchKey key = watchService.poll(remaining, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    continue;
+                }
+                key.pollEvents(); // Any change triggers a rescan of the directory
+                key.reset();
             } catch (InterruptedException e) {
                 seleniumStatusHandler.sendUpdate("Thread interrupted while waiting for file download.");
                 Thread.currentThread().interrupt();
                 logger.error("Thread interrupted while waiting for file download.");
-                break;
+                return null;
             }
+            completed = findCompletedFile(downloadDirectory, clickTime);
         }
-        seleniumStatusHandler.sendUpdate("Download timeout reached. No valid file detected.");
-        return null; // Return null if timeout is reached
+
+        seleniumStatusHandler.sendUpdate("File downloaded successfully: " + completed.getName());
+        return completed;
     }
 
     /**
-     * Checks if the file is completely downloaded by verifying its size remains
-     * stable.
+     * Looks for a finished download. A download is finished once it has an
+     * expected extension and no partial ".crdownload" file is left in the
+     * directory.
      *
-     * @param file the file to check.
-     * @return true if the file is complete, false otherwise.
+     * @param downloadDirectory the folder where files are expected to be downloaded.
+     * @param clickTime         the time the download was started.
+     * @return the downloaded File, or null if the download is still in progress.
      */
-    private static boolean isFileComplete(File file) {
-        if (file.getName().endsWith(".crdownload")) {
-            seleniumStatusHandler.sendUpdate("File is still downloading: " + file.getName());
-            return false; // File is still being downloaded if it has .crdownload extension
+    private static File findCompletedFile(Path downloadDirectory, long clickTime) {
+        File[] files = downloadDirectory.toFile().listFiles(File::isFile);
+        if (files == null) {
+            return null;
+        }
+        if (Arrays.stream(files).anyMatch(file -> file.getName().endsWith(".crdownload"))) {
+            return null; // Chrome is still writing the file
         }
+        return Arrays.stream(files)
+                .filter(file -> file.lastModified() >= clickTime - 1000) // Allow for coarse file timestamps
+                .filter(file -> file.getName().matches(".*\\.(pdf|xlsx|txt|csv|html)$")) // Expected extensions
+                .max(Comparator.comparingLong(File::lastModified))
+                .orElse(null);
+    }
 
-        long initialSize = file.length();
+    /**
+     * Downloads a file over HTTP with the cookies of a logged-in browser,
+     * bypassing Chrome's download manager. The body is streamed to disk while
+     * its SHA-256 checksum is computed.
+     * Each request, including every redirect, only carries the cookies whose
+     * domain and path match its URL, and secure cookies are never sent over
+     * plain HTTP. An HTML response that is not an attachment is an application
+     * page rather than the report, and is refused.
+     *
+     * @param driver            the logged-in WebDriver whose cookies are reused.
+     * @param downloadUrl       the absolute URL of the file.
+     * @param downloadDirectory the directory the file is written to.
+     * @param timeoutSeconds    the timeout in seconds for the whole request.
+     * @return the downloaded File, or null if the request failed.
+     */
+    public static File downloadWithSession(WebDriver driver, String downloadUrl, Path downloadDirectory,
+            int timeoutSeconds) {
+        seleniumStatusHandler.sendUpdate("Downloading report directly: " + downloadUrl);
+        Timer.Sample downloadTimer = PipelineMetrics.start();
+        Path temp = null;
         try {
-            Thread.sleep(2000); // Wait for a second to check if the file size changes
+            Collection<Cookie> cookies = driver.manage().getCookies();
+            String userAgent = String.valueOf(
+                    ((JavascriptExecutor) driver).executeScript("return navigator.userAgent;"));
+
+            URI uri = URI.create(downloadUrl);
+            HttpResponse<InputStream> response = null;
+            for (int redirects = 0; redirects <= MAX_REDIRECTS; redirects++) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofSeconds(timeoutSeconds))
+                        .header("User-Agent", userAgent)
+                        .GET();
+                String cookieHeader = cookieHeader(cookies, uri);
+                if (!cookieHeader.isEmpty()) {
+                    request.header("Cookie", cookieHeader);
+                }
+                response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+                String location = response.headers().firstValue("Location").orElse(null);
+                if (response.statusCode() / 100 != 3 || location == null) {
+                    break;
+                }
+                response.body().close();
+                uri = uri.resolve(location);
+            }
+            if (response.statusCode() != 200) {
+                response.body().close();
+                logger.warn("Direct download of {} returned HTTP {}", downloadUrl, response.statusCode());
+                return null;
+            }
+            if (isPage(response)) {
+                response.body().close();
+                logger.warn("Direct download of {} returned a page instead of a file", downloadUrl);
+                return null;
+            }
+
+            MessageDigest digest = HashUtils.newSha256();
+            temp = Files.createTempFile(downloadDirectory, "download", ".part");
+            try (InputStream body = new DigestInputStream(response.body(), digest)) {
+                Files.copy(body, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            Path target = downloadDirectory.resolve(fileNameOf(response, downloadUrl));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            String checksum = HexFormat.of().formatHex(digest.digest());
+
+            seleniumStatusHandler.sendUpdate("File downloaded successfully: " + target.getFileName());
+            logger.info("Downloaded {} ({} bytes, sha256 {})", target, Files.size(target), checksum);
+            PipelineMetrics.stop(downloadTimer, PipelineMetrics.DOWNLOAD, true);
+            return target.toFile();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Direct download of {} failed: {}", downloadUrl, e.getMessage());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            seleniumStatusHandler.sendUpdate("Thread interrupted during file completeness check.");
-            logger.error("Thread interrupted during file completeness check.");
-            return false;
+            logger.error("Thread interrupted during direct download.");
+        }
+
+        if (temp != null) {
+            temp.toFile().delete();
         }
+        PipelineMetrics.stop(downloadTimer, PipelineMetrics.DOWNLOAD, false);
+        return null;
+    }
+
+    /**
+     * Builds the Cookie header for a request: only cookies whose domain and
+     * path match the URL are included, and secure cookies only over HTTPS.
+     *
+     * @param cookies The cookies of the browser.
+     * @param uri     The URL of the request.
+     * @return The header value, or an empty string if no cookie applies.
+     */
+    public static String cookieHeader(Collection<Cookie> cookies, URI uri) {
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        boolean https = "https".equalsIgnoreCase(uri.getScheme());
+        return cookies.stream()
+                .filter(cookie -> https || !cookie.isSecure())
+                .filter(cookie -> {
+                    // Host-only cookies have no domain in some drivers; they belong to the page's host
+                    String domain = cookie.getDomain() == null ? host
+                            : cookie.getDomain().toLowerCase(Locale.ROOT).replaceFirst("^\\.", "");
+                    return host.equals(domain) || host.endsWith("." + domain);
+                })
+                .filter(cookie -> {
+                    String cookiePath = cookie.getPath() == null || cookie.getPath().isEmpty()
+                            ? "/"
+                            : cookie.getPath();
+                    return path.equals(cookiePath)
+                            || path.startsWith(cookiePath.endsWith("/") ? cookiePath : cookiePath + "/");
+                })
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+    }
 
-        return initialSize == file.length(); // Return true if file size is stable
+    /**
+     * Determines whether a response is an application page, such as the
+     * single-page app shell or a login page, rather than a downloaded file.
+     *
+     * @param response The HTTP response.
+     * @return True if the response is HTML that is not sent as an attachment.
+     */
+    private static boolean isPage(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("").toLowerCase(Locale.ROOT);
+        String disposition = response.headers().firstValue("Content-Disposition").orElse("")
+                .toLowerCase(Locale.ROOT);
+        return contentType.startsWith("text/html") && !disposition.startsWith("attachment");
+    }
+
+    /**
+     * Determines the file name of a download from the Content-Disposition header,
+     * falling back to the last segment of the URL.
+     *
+     * @param response    the HTTP response.
+     * @param downloadUrl the URL that was requested.
+     * @return a file name without any directory components.
+     */
+    private static String fileNameOf(HttpResponse<?> response, String downloadUrl) {
+        String disposition = response.headers().firstValue("Content-Disposition").orElse("");
+        Matcher matcher = FILENAME_PATTERN.matcher(disposition);
+        String name = matcher.find() ? matcher.group(1) : URI.create(downloadUrl).getPath();
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        if (!name.matches(".*\\.(pdf|xlsx|txt|csv|html)$")) {
+            name = (name.isEmpty() ? "report" : name) + ".html";
+        }
+        return name;
     }
 
     public static void openFileInBrowser(File downloadedFile, WebDriver driver) {
@@ -0,0 +1,367 @@
+package com.reportweaver.reportweaver.util;
+
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared request-execution layer for the Google Docs and Drive clients.
+ * Every request first takes a token from the project-wide bucket of its API
+ * and from the bucket of the quota user it is billed to, so all jobs sharing
+ * the service account stay under the published per-minute quotas. Requests
+ * rejected with 429 or a 5xx status are retried with exponential backoff and
+ * jitter, honouring Retry-After when Google sends it.
+ */
+@Component
+public class GoogleApiQuotaManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoogleApiQuotaManager.class);
+
+    // API name of the Google Docs client.
+    public static final String DOCS_API = "docs";
+
+    // API name of the Google Drive client.
+    public static final String DRIVE_API = "drive";
+
+    // Quota user used when a request does not name one.
+    private static final String DEFAULT_QUOTA_USER = "service-account";
+
+    // Per-minute request limits keyed by API name: [project, user].
+    private final Map<String, int[]> limits = new LinkedHashMap<>();
+
+    // Project-wide buckets keyed by API name.
+    private final Map<String, TokenBucket> projectBuckets = new ConcurrentHashMap<>();
+
+    // Per-user buckets keyed by API name and quota user.
+    private final Map<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+
+    // Maximum number of retries for a throttled or failed request.
+    private final int maxRetries;
+
+    // Delay before the first retry.
+    private final long initialBackoffMillis;
+
+    // Upper bound for a single retry delay.
+    private final long maxBackoffMillis;
+
+    // Usage counters exposed through getQuotaStats().
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttledRequests = new AtomicLong();
+    private final AtomicLong throttleWaitMillis = new AtomicLong();
+    private final AtomicLong rateLimitedResponses = new AtomicLong();
+    private final AtomicLong serverErrorResponses = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong backoffMillis = new AtomicLong();
+    private final AtomicLong exhaustedRequests = new AtomicLong();
+
+    /**
+     * Constructs the GoogleApiQuotaManager with the quota settings from
+     * application.properties.
+     *
+     * @param docsProjectPerMinute  Docs requests allowed per minute per project.
+     * @param docsUserPerMinute     Docs requests allowed per minute per user.
+     * @param driveProjectPerMinute Drive requests allowed per minute per project.
+     * @param driveUserPerMinute    Drive requests allowed per minute per user.
+     * @param maxRetries            Maximum retries for a throttled request.
+     * @param initialBackoffMillis  Delay before the first retry.
+     * @param maxBackoffMillis      Upper bound for a single retry delay.
+     */
+    public GoogleApiQuotaManager(
+            @Value("${reportweaver.google-api.docs.project-requests-per-minute:600}") int docsProjectPerMinute,
+            @Value("${reportweaver.google-api.docs.user-requests-per-minute:60}") int docsUserPerMinute,
+            @Value("${reportweaver.google-api.drive.project-requests-per-minute:12000}") int driveProjectPerMinute,
+            @Value("${reportweaver.google-api.drive.user-requests-per-minute:12000}") int driveUserPerMinute,
+            @Value("${reportweaver.google-api.max-retries:6}") int maxRetries,
+            @Value("${reportweaver.google-api.initial-backoff-millis:1000}") long initialBackoffMillis,
+            @Value("${reportweaver.google-api.max-backoff-millis:64000}") long maxBackoffMillis) {
+        limits.put(DOCS_API, new int[] { docsProjectPerMinute, docsUserPerMinute });
+        limits.put(DRIVE_API, new int[] { driveProjectPerMinute, driveUserPerMinute });
+        this.maxRetries = Math.max(0, maxRetries);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     * Wraps a credentials initializer so that every request of an API client is
+     * rate limited and retried by this manager.
+     *
+     * @param api         The API name, e.g. {@link #DOCS_API}.
+     * @param credentials The initializer that authenticates requests.
+     * @return The initializer to pass to the API client builder.
+     */
+    public HttpRequestInitializer initializer(String api, HttpRequestInitializer credentials) {
+        return request -> {
+            credentials.initialize(request);
+
+            // Keep the credentials' own handling (e.g. refreshing the token on 401)
+            HttpExecuteInterceptor authInterceptor = request.getInterceptor();
+            HttpUnsuccessfulResponseHandler authHandler = request.getUnsuccessfulResponseHandler();
+
+            request.setNumberOfRetries(maxRetries);
+            request.setInterceptor(r -> {
+                acquire(api, r);
+                if (authInterceptor != null) {
+                    authInterceptor.intercept(r);
+                }
+            });
+            request.setUnsuccessfulResponseHandler(new BackoffHandler(authHandler));
+        };
+    }
+
+    /**
+     * Takes a token from the project bucket and the user bucket of a request,
+     * waiting until both are available.
+     *
+     * @param api     The API name.
+     * @param request The request about to be sent.
+     * @throws IOException If the thread is interrupted while waiting.
+     */
+    private void acquire(String api, HttpRequest request) throws IOException {
+        requests.incrementAndGet();
+        int[] limit = limits.getOrDefault(api, new int[] { Integer.MAX_VALUE, Integer.MAX_VALUE });
+        Object quotaUser = request.getUrl().getFirst("quotaUser");
+        String user = quotaUser != null ? quotaUser.toString() : DEFAULT_QUOTA_USER;
+
+        TokenBucket project = projectBuckets.computeIfAbsent(api, key -> new TokenBucket(limit[0]));
+        TokenBucket perUser = userBuckets.computeIfAbsent(api + ":" + user, key -> new TokenBucket(limit[1]));
+        try {
+            long waited = project.acquire() + perUser.acquire();
+            if (waited > 0) {
+                throttledRequests.incrementAndGet();
+                throttleWaitMillis.addAndGet(waited);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Google API quota.", e);
+        }
+    }
+
+    /**
+     * Computes the delay before a retry: the Retry-After value if present,
+     * otherwise exponential backoff with jitter.
+     *
+     * @param response The unsuccessful response.
+     * @param attempt  The retry attempt, starting at 0.
+     * @return The delay in milliseconds.
+     */
+    private long retryDelayMillis(HttpResponse response, int attempt) {
+        String retryAfter = response.getHeaders().getFirstHeaderStringValue("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return Math.min(maxBackoffMillis, Long.parseLong(retryAfter.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                // HTTP-date values are rare for Google APIs; use the backoff instead
+            }
+        }
+        long exponential = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt, 20));
+        return exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
+    }
+
+    /**
+     * Takes a snapshot of the quota usage counters.
+     *
+     * @return The current quota statistics.
+     */
+    public QuotaStats getQuotaStats() {
+        Map<String, Double> available = new LinkedHashMap<>();
+        projectBuckets.forEach((api, bucket) -> available.put(api, bucket.available()));
+        userBuckets.forEach((key, bucket) -> available.put(key, bucket.available()));
+        return new QuotaStats(requests.get(), throttledRequests.get(), throttleWaitMillis.get(),
+                rateLimitedResponses.get(), serverErrorResponses.get(), retries.get(), backoffMillis.get(),
+                exhaustedRequests.get(), available);
+    }
+
+    /**
+     * Retries 429 and 5xx responses of a single request with backoff, after
+     * giving the credentials a chance to handle the response.
+     */
+    private final class BackoffHandler implements HttpUnsuccessfulResponseHandler {
+
+        private final HttpUnsuccessfulResponseHandler authHandler;
+        private int attempt;
+
+        private BackoffHandler(HttpUnsuccessfulResponseHandler authHandler) {
+            this.authHandler = authHandler;
+        }
+
+        @Override
+        public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry)
+                throws IOException {
+            if (authHandler != null && authHandler.handleResponse(request, response, supportsRetry)) {
+                return true;
+            }
+
+            int status = response.getStatusCode();
+            boolean rateLimited = status == 429;
+            if (!rateLimited && status < 500) {
+                return false;
+            }
+            if (rateLimited) {
+                rateLimitedResponses.incrementAndGet();
+            } else {
+                serverErrorResponses.incrementAndGet();
+            }
+            if (!supportsRetry || attempt >= maxRetries) {
+                exhaustedRequests.incrementAndGet();
+                return false;
+            }
+
+            long delay = retryDelayMillis(response, attempt++);
+            logger.warn("Google API returned {} for {}, retrying in {} ms (attempt {}/{})", status,
+                    request.getUrl().getRawPath(), delay, attempt, maxRetries);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            retries.incrementAndGet();
+            backoffMillis.addAndGet(delay);
+            return true;
+        }
+    }
+
+    /**
+     * Token bucket refilled continuously at a per-minute rate. The burst size
+     * is a tenth of the per-minute limit, so a full minute never exceeds the
+     * quota by more than that burst.
+     */
+    static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerMilli;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int perMinute) {
+            this.capacity = Math.max(1, perMinute / 10.0);
+            this.tokensPerMilli = Math.max(1, perMinute) / 60_000.0;
+            this.tokens = capacity;
+            this.lastRefill = System.currentTimeMillis();
+        }
+
+        /**
+         * Takes one token, waiting until it is available.
+         *
+         * @return The time spent waiting in milliseconds.
+         * @throws InterruptedException If the thread is interrupted while waiting.
+         */
+        long acquire() throws InterruptedException {
+            long waitMillis;
+            synchronized (this) {
+                refill();
+                tokens -= 1; // Reserve the token now so concurrent callers queue behind it
+                waitMillis = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerMilli);
+            }
+            if (waitMillis > 0) {
+                Thread.sleep(waitMillis);
+            }
+            return waitMillis;
+        }
+
+        /**
+         * Retrieves the number of tokens currently available.
+         *
+         * @return The available tokens; negative if callers are queued.
+         */
+        synchronized double available() {
+            refill();
+            return tokens;
+        }
+
+        private void refill() {
+            long now = System.currentTimeMillis();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerMilli);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * Point-in-time statistics about Google API quota usage.
+     */
+    public static final class QuotaStats {
+
+        private final long requests;
+        private final long throttledRequests;
+        private final long throttleWaitMillis;
+        private final long rateLimitedResponses;
+        private final long serverErrorResponses;
+        private final long retries;
+        private final long backoffMillis;
+        private final long exhaustedRequests;
+        private final Map<String, Double> availableTokens;
+
+        private QuotaStats(long requests, long throttledRequests, long throttleWaitMillis,
+                long rateLimitedResponses, long serverErrorResponses, long retries, long backoffMillis,
+                long exhaustedRequests, Map<String, Double> availableTokens) {
+            this.requests = requests;
+            this.throttledRequests = throttledRequests;
+            this.throttleWaitMillis = throttleWaitMillis;
+            this.rateLimitedResponses = rateLimitedResponses;
+            this.serverErrorResponses = serverErrorResponses;
+            this.retries = retries;
+            this.backoffMillis = backoffMillis;
+            this.exhaustedRequests = exhaustedRequests;
+            this.availableTokens = availableTokens;
+        }
+
+        /** @return The number of request attempts sent, including retries. */
+        public long getRequests() {
+            return requests;
+        }
+
+        /** @return The number of attempts that waited for a token. */
+        public long getThrottledRequests() {
+            return throttledRequests;
+        }
+
+        /** @return The total time spent waiting for tokens. */
+        public long getThrottleWaitMillis() {
+            return throttleWaitMillis;
+        }
+
+        /** @return The number of 429 responses received. */
+        public long getRateLimitedResponses() {
+            return rateLimitedResponses;
+        }
+
+        /** @return The number of 5xx responses received. */
+        public long getServerErrorResponses() {
+            return serverErrorResponses;
+        }
+
+        /** @return The number of retries performed. */
+        public long getRetries() {
+            return retries;
+        }
+
+        /** @return The total time spent backing off before retries. */
+        public long getBackoffMillis() {
+            return backoffMillis;
+        }
+
+        /** @return The number of requests that failed after all retries. */
+        public long getExhaustedRequests() {
+            return exhaustedRequests;
+        }
+
+        /** @return The tokens currently available in each bucket. */
+        public Map<String, Double> getAvailableTokens() {
+            return availableTokens;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.reportweaver.reportweaver.util;
+
+import com.google.api.services.docs.v1.model.DeleteContentRangeRequest;
+import com.google.api.services.docs.v1.model.InsertTextRequest;
+import com.google.api.services.docs.v1.model.Link;
+import com.google.api.services.docs.v1.model.Location;
+import com.google.api.services.docs.v1.model.ParagraphStyle;
+import com.google.api.services.docs.v1.model.Range;
+import com.google.api.services.docs.v1.model.Request;
+import com.google.api.services.docs.v1.model.TextStyle;
+import com.google.api.services.docs.v1.model.UpdateParagraphStyleRequest;
+import com.google.api.services.docs.v1.model.UpdateTextStyleRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-memory model of a Google Docs document body.
+ * Paragraphs are appended in reading order and every index is computed up
+ * front, so the whole document can be written with forward-only insertions in
+ * as few batchUpdate calls as the API limits allow. Two models can also be
+ * compared to update an existing document in place.
+ */
+public class GoogleDocsDocumentModel {
+
+    // Index of the first character of an empty document body.
+    public static final int BODY_START_INDEX = 1;
+
+    private static final String NORMAL_TEXT = "NORMAL_TEXT";
+
+    // The document text, one "\n"-terminated line per paragraph.
+    private final StringBuilder text = new StringBuilder();
+
+    // The paragraphs in reading order.
+    private final List<Paragraph> paragraphs = new ArrayList<>();
+
+    /**
+     * Appends a heading paragraph.
+     *
+     * @param content The heading text.
+     * @param level   The heading level (1-6).
+     * @return This model.
+     */
+    public GoogleDocsDocumentModel heading(String content, int level) {
+        appendParagraph("HEADING_" + level).run(content, false, null);
+        return this;
+    }
+
+    /**
+     * Appends a normal paragraph.
+     *
+     * @param content The paragraph text; null is written as an empty line.
+     * @return This model.
+     */
+    public GoogleDocsDocumentModel paragraph(String content) {
+        appendParagraph(NORMAL_TEXT).run(content, false, null);
+        return this;
+    }
+
+    /**
+     * Appends a normal paragraph written in bold, such as a table header.
+     *
+     * @param content The paragraph text.
+     * @return This model.
+     */
+    public GoogleDocsDocumentModel boldParagraph(String content) {
+        appendParagraph(NORMAL_TEXT).run(content, true, null);
+        return this;
+    }
+
+    /**
+     * Appends a normal paragraph made of plain text followed by a hyperlink,
+     * such as a table row.
+     *
+     * @param prefix   The plain text before the link.
+     * @param linkText The text of the link.
+     * @param url      The link target.
+     * @return This model.
+     */
+    public GoogleDocsDocumentModel linkParagraph(String prefix, String linkText, String url) {
+        appendParagraph(NORMAL_TEXT).run(prefix, false, null).run(linkText, false, url);
+        return this;
+    }
+
+    /**
+     * Retrieves the document text, without the trailing paragraph every Google
+     * Doc already contains.
+     *
+     * @return The text that will be inserted.
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Retrieves the number of paragraphs in the model.
+     *
+     * @return The paragraph count.
+     */
+    public int getParagraphCount() {
+        return paragraphs.size();
+    }
+
+    /**
+     * Converts the model to batchUpdate requests that build the document from an
+     * empty body. Paragraphs are grouped into insertions of at most
+     * maxInsertLength characters; each insertion is followed by the styles of
+     * its own paragraphs, so the requests may be split into batches at any
+     * point without changing the result.
+     *
+     * @param maxInsertLength Maximum number of characters per insertion; a
+     *                        longer paragraph is inserted on its own.
+     * @return The requests in the order they must be applied.
+     */
+    public List<Request> toRequests(int maxInsertLength) {
+        List<Request> requests = new ArrayList<>();
+        int first = 0;
+        while (first < paragraphs.size()) {
+            int chunkStart = paragraphs.get(first).start;
+            int last = first;
+            while (last + 1 < paragraphs.size() && paragraphs.get(last + 1).end - chunkStart <= maxInsertLength) {
+                last++;
+            }
+            int chunkEnd = paragraphs.get(last).end;
+
+            requests.add(new Request().setInsertText(new InsertTextRequest()
+                    .setText(text.substring(chunkStart, chunkEnd))
+                    .setLocation(new Location().setIndex(BODY_START_INDEX + chunkStart))));
+            requests.add(paragraphStyle(NORMAL_TEXT, chunkStart, chunkEnd));
+
+            for (int i = first; i <= last; i++) {
+                addStyles(requests, paragraphs.get(i), 0);
+            }
+            first = last + 1;
+        }
+        return requests;
+    }
+
+    /**
+     * Converts the differences from a previously written model to batchUpdate
+     * requests that turn a document holding the previous model into one holding
+     * this model. Paragraphs are compared with a Myers diff; each changed run of
+     * paragraphs is deleted and rewritten, and runs are edited from the end of
+     * the document backwards so the indices of earlier runs stay valid.
+     *
+     * @param previous             The model the document currently holds.
+     * @param maxChangedParagraphs Maximum number of paragraphs that may be
+     *                             deleted or inserted; beyond that a full rebuild
+     *                             is cheaper.
+     * @return The requests in the order they must be applied (empty if nothing
+     *         changed), or null if more paragraphs changed than allowed.
+     */
+    public List<Request> toUpdateRequests(GoogleDocsDocumentModel previous, int maxChangedParagraphs) {
+        List<int[]> hunks = diff(previous.signatures(), signatures(), maxChangedParagraphs);
+        if (hunks == null) {
+            return null;
+        }
+
+        List<Request> requests = new ArrayList<>();
+        for (int h = hunks.size() - 1; h >= 0; h--) {
+            int[] hunk = hunks.get(h);
+            int oldFirst = hunk[0], oldLast = hunk[1], newFirst = hunk[2], newLast = hunk[3];
+            int oldStart = oldFirst < previous.paragraphs.size()
+                    ? previous.paragraphs.get(oldFirst).start
+                    : previous.text.length();
+
+            if (oldLast > oldFirst) {
+                requests.add(new Request().setDeleteContentRange(new DeleteContentRangeRequest()
+                        .setRange(range(oldStart, previous.paragraphs.get(oldLast - 1).end))));
+            }
+            if (newLast > newFirst) {
+                int newStart = paragraphs.get(newFirst).start;
+                int newEnd = paragraphs.get(newLast - 1).end;
+                int shift = oldStart - newStart;
+                requests.add(new Request().setInsertText(new InsertTextRequest()
+                        .setText(text.substring(newStart, newEnd))
+                        .setLocation(new Location().setIndex(BODY_START_INDEX + oldStart))));
+                // Inserted text may pick up the style of its neighbours, so reset it first
+                requests.add(new Request().setUpdateTextStyle(new UpdateTextStyleRequest()
+                        .setFields("bold,link")
+                        .setTextStyle(new TextStyle())
+                        .setRange(range(oldStart, oldStart + newEnd - newStart))));
+                requests.add(paragraphStyle(NORMAL_TEXT, oldStart, oldStart + newEnd - newStart));
+                for (int i = newFirst; i < newLast; i++) {
+                    addStyles(requests, paragraphs.get(i), shift);
+                }
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Adds the heading and text style requests of a paragraph.
+     *
+     * @param requests  The requests to add to.
+     * @param paragraph The paragraph.
+     * @param shift     Offset added to the paragraph's positions.
+     */
+    private static void addStyles(List<Request> requests, Paragraph paragraph, int shift) {
+        // Styles stop before the newline so the next insertion does not inherit them
+        if (!NORMAL_TEXT.equals(paragraph.namedStyle) && paragraph.end - 1 > paragraph.start) {
+            requests.add(paragraphStyle(paragraph.namedStyle, paragraph.start + shift, paragraph.end - 1 + shift));
+        }
+        for (Span span : paragraph.spans) {
+            requests.add(textStyle(span, shift));
+        }
+    }
+
+    /**
+     * Describes every paragraph by its style, text and spans, so that two
+     * paragraphs render identically exactly when their signatures are equal.
+     *
+     * @return The paragraph signatures in reading order.
+     */
+    private List<String> signatures() {
+        List<String> signatures = new ArrayList<>(paragraphs.size());
+        for (Paragraph paragraph : paragraphs) {
+            StringBuilder signature = new StringBuilder(paragraph.namedStyle).append('\u0000')
+                    .append(text, paragraph.start, paragraph.end);
+            for (Span span : paragraph.spans) {
+                signature.append('\u0000').append(span.start - paragraph.start).append(':')
+                        .append(span.end - paragraph.start).append(':').append(span.url);
+            }
+            signatures.add(signature.toString());
+        }
+        return signatures;
+    }
+
+    /**
+     * Computes the changed runs between two sequences with the Myers diff
+     * algorithm, after trimming their common prefix and suffix.
+     *
+     * @param before   The old sequence.
+     * @param after    The new sequence.
+     * @param maxEdits Maximum number of deletions plus insertions to look for.
+     * @return The changed runs in ascending order as {oldFirst, oldLast,
+     *         newFirst, newLast} (last exclusive), or null if more than maxEdits
+     *         edits are needed.
+     */
+    private static List<int[]> diff(List<String> before, List<String> after, int maxEdits) {
+        int prefix = 0;
+        while (prefix < before.size() && prefix < after.size() && before.get(prefix).equals(after.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < before.size() - prefix && suffix < after.size() - prefix
+                && before.get(before.size() - 1 - suffix).equals(after.get(after.size() - 1 - suffix))) {
+            suffix++;
+        }
+        List<String> a = before.subList(prefix, before.size() - suffix);
+        List<String> b = after.subList(prefix, after.size() - suffix);
+        int n = a.size();
+        int m = b.size();
+        int max = Math.min(n + m, Math.max(0, maxEdits));
+
+        // v[k + offset] is the furthest x reached on diagonal k; trace keeps the
+        // relevant part of v before each round so the path can be walked back
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+        int edits = -1;
+        for (int d = 0; d <= max && edits < 0; d++) {
+            trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a.get(x).equals(b.get(y))) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    edits = d;
+                    break;
+                }
+            }
+        }
+        if (edits < 0) {
+            return null;
+        }
+
+        // Walk the path backwards, collecting the matched pairs
+        List<int[]> matches = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = edits; d >= 0; d--) {
+            int[] round = trace.get(d);
+            int k = x - y;
+            int previousK = k == -d || (k != d && round[k - 1 + d + 1] < round[k + 1 + d + 1]) ? k + 1 : k - 1;
+            int previousX = round[previousK + d + 1];
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                x--;
+                y--;
+                matches.add(new int[] { x, y });
+            }
+            x = previousX;
+            y = previousY;
+        }
+        Collections.reverse(matches);
+        matches.add(new int[] { n, m });
+
+        // Every gap between two matched pairs is a changed run
+        List<int[]> hunks = new ArrayList<>();
+        int lastA = -1;
+        int lastB = -1;
+        for (int[] match : matches) {
+            if (match[0] > lastA + 1 || match[1] > lastB + 1) {
+                hunks.add(new int[] { prefix + lastA + 1, prefix + match[0], prefix + lastB + 1,
+                        prefix + match[1] });
+            }
+            lastA = match[0];
+            lastB = match[1];
+        }
+        return hunks;
+    }
+
+    /**
+     * Starts a new paragraph at the end of the document.
+     *
+     * @param namedStyle The named paragraph style.
+     * @return The new paragraph.
+     */
+    private Paragraph appendParagraph(String namedStyle) {
+        Paragraph paragraph = new Paragraph(namedStyle, text.length());
+        text.append('\n');
+        paragraph.end = text.length();
+        paragraphs.add(paragraph);
+        return paragraph;
+    }
+
+    /**
+     * Builds a request that applies a named paragraph style to a range.
+     *
+     * @param namedStyle The named paragraph style.
+     * @param start      Start offset in the model text.
+     * @param end        End offset (exclusive) in the model text.
+     * @return The request.
+     */
+    private static Request paragraphStyle(String namedStyle, int start, int end) {
+        return new Request().setUpdateParagraphStyle(new UpdateParagraphStyleRequest()
+                .setFields("namedStyleType")
+                .setParagraphStyle(new ParagraphStyle().setNamedStyleType(namedStyle))
+                .setRange(range(start, end)));
+    }
+
+    /**
+     * Builds a request that applies bold or a link to a span of text.
+     *
+     * @param span  The styled span.
+     * @param shift Offset added to the span's positions.
+     * @return The request.
+     */
+    private static Request textStyle(Span span, int shift) {
+        TextStyle style = span.url != null
+                ? new TextStyle().setLink(new Link().setUrl(span.url))
+                : new TextStyle().setBold(true);
+        return new Request().setUpdateTextStyle(new UpdateTextStyleRequest()
+                .setFields(span.url != null ? "link" : "bold")
+                .setTextStyle(style)
+                .setRange(range(span.start + shift, span.end + shift)));
+    }
+
+    /**
+     * Converts offsets in the model text to a document range.
+     *
+     * @param start Start offset in the model text.
+     * @param end   End offset (exclusive) in the model text.
+     * @return The document range.
+     */
+    private static Range range(int start, int end) {
+        return new Range().setStartIndex(BODY_START_INDEX + start).setEndIndex(BODY_START_INDEX + end);
+    }
+
+    /**
+     * A paragraph of the model. Offsets are positions in the model text.
+     */
+    private final class Paragraph {
+
+        private final String namedStyle;
+        private final int start;
+        private int end;
+        private final List<Span> spans = new ArrayList<>();
+
+        private Paragraph(String namedStyle, int start) {
+            this.namedStyle = namedStyle;
+            this.start = start;
+        }
+
+        /**
+         * Appends a run of text before the paragraph's newline.
+         *
+         * @param content The text of the run; null is treated as empty.
+         * @param bold    Whether the run is bold.
+         * @param url     The link target of the run, or null.
+         * @return This paragraph.
+         */
+        private Paragraph run(String content, boolean bold, String url) {
+            if (content == null || content.isEmpty()) {
+                return this;
+            }
+            int runStart = end - 1;
+            text.insert(runStart, content);
+            end += content.length();
+            if (bold || url != null) {
+                spans.add(new Span(runStart, runStart + content.length(), url));
+            }
+            return this;
+        }
+    }
+
+    /**
+     * A bold or linked span of text.
+     */
+    private record Span(int start, int end, String url) {
+    }
+}
@@ -2,206 +2,249 @@ package com.reportweaver.reportweaver.util;
 
 import com.google.api.services.docs.v1.Docs;
 import com.google.api.services.docs.v1.model.*;
-import com.reportweaver.reportweaver.model.DataEntry;
 import com.reportweaver.reportweaver.model.Error;
 import com.reportweaver.reportweaver.model.ErrorSummary;
+import com.reportweaver.reportweaver.model.PageErrorIndex;
+import com.reportweaver.reportweaver.model.ProgressEvent;
 import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
 
+import io.micrometer.core.instrument.Timer;
+
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Builds and writes the accessibility report document.
+ * The report is assembled in a {@link GoogleDocsDocumentModel} in reading
+ * order and written with the fewest batchUpdate calls the request limits allow.
+ */
 public class GoogleDocsFormatter {
 
+        // Google Docs API client used to write the document.
         private final Docs docsService;
+
+        // WebSocket handler for sending real-time status updates.
         private final SeleniumStatusHandler seleniumStatusHandler;
 
+        // Maximum number of requests sent in one batchUpdate call.
+        private final int maxRequestsPerBatch;
+
+        // Maximum number of characters inserted by one batchUpdate call.
+        private final int maxCharactersPerBatch;
+
+        // Number of pages listed in the "Errors by Page" section.
+        private final int topPages;
+
         public GoogleDocsFormatter(Docs docsService, SeleniumStatusHandler seleniumStatusHandler) {
+                this(docsService, seleniumStatusHandler, 500, 100_000, 25);
+        }
+
+        public GoogleDocsFormatter(Docs docsService, SeleniumStatusHandler seleniumStatusHandler,
+                        int maxRequestsPerBatch, int maxCharactersPerBatch, int topPages) {
                 this.docsService = docsService;
                 this.seleniumStatusHandler = seleniumStatusHandler;
+                this.maxRequestsPerBatch = Math.max(1, maxRequestsPerBatch);
+                this.maxCharactersPerBatch = Math.max(1, maxCharactersPerBatch);
+                this.topPages = Math.max(0, topPages);
         }
 
-        public void createHeading(String documentId, String text, int headingLevel)
-                        throws IOException {
-                seleniumStatusHandler.sendUpdate("Adding heading: " + text);
-                // Create a request to insert the heading text
-                Request insertTextRequest = new Request().setInsertText(new InsertTextRequest()
-                                .setText(text + "\n")
-                                .setLocation(new Location().setIndex(1)));
-
-                // Create a request to format the inserted text as a heading
-                Request headingStyleRequest = new Request().setUpdateParagraphStyle(new UpdateParagraphStyleRequest()
-                                .setFields("namedStyleType")
-                                .setParagraphStyle(new ParagraphStyle().setNamedStyleType("HEADING_" + headingLevel))
-                                .setRange(new Range().setStartIndex(1).setEndIndex(1 + text.length())));
-
-                // Combine both requests into a batch
-                BatchUpdateDocumentRequest body = new BatchUpdateDocumentRequest()
-                                .setRequests(List.of(insertTextRequest, headingStyleRequest));
-                // Execute the batch request
-                docsService.documents().batchUpdate(documentId, body).execute();
+        /**
+         * Lays out the full report: the summary table, the pages with the most
+         * errors and the errors found on each of them, then the documentation
+         * and affected pages of each error.
+         *
+         * @param summaryList The total number of instances of each error.
+         * @param errors      The extracted errors, in report order.
+         * @return The document model of the report.
+         */
+        public GoogleDocsDocumentModel buildReport(List<ErrorSummary> summaryList, List<Error> errors) {
+                GoogleDocsDocumentModel document = new GoogleDocsDocumentModel();
+
+                // ✅ Summary section (Quantity | Errors)
+                document.heading("Summary", 3)
+                                .paragraph("")
+                                .boldParagraph("Quantity\tErrors");
+                for (ErrorSummary summary : summaryList) {
+                        document.paragraph(summary.getTotalErrors() + "\t\t" + summary.getErrorName());
+                }
+
+                // ✅ Worst pages first, each with the errors found on it
+                PageErrorIndex pageIndex = new PageErrorIndex(errors);
+                List<PageErrorIndex.PageSummary> worstPages = pageIndex.getWorstPages(topPages);
+                if (!worstPages.isEmpty()) {
+                        document.heading("Errors by Page", 3)
+                                        .paragraph("The " + worstPages.size() + " pages with the most errors, out of "
+                                                        + pageIndex.getPageCount() + " affected pages.")
+                                        .paragraph("")
+                                        .boldParagraph("Errors\t\tPage");
+                        for (PageErrorIndex.PageSummary page : worstPages) {
+                                document.linkParagraph(page.getTotalErrors() + "\t\t",
+                                                extractTitleFromUrl(page.getUrl()), page.getUrl());
+                                for (ErrorSummary pageError : page.getErrors()) {
+                                        document.paragraph("\t" + pageError.getTotalErrors() + "\t\t"
+                                                        + pageError.getErrorName());
+                                }
+                        }
+                        document.paragraph("");
+                }
+
+                // ✅ One section per error with its documentation and affected pages
+                document.heading("Error Details", 3);
+                for (Error error : errors) {
+                        document.heading(error.getErrorName(), 4)
+                                        .heading("Why it matters:", 5)
+                                        .paragraph(error.getWhyItMatters())
+                                        .heading("How to fix it:", 5)
+                                        .paragraph(error.getHowToFixIt())
+                                        .paragraph("")
+                                        .boldParagraph("Errors\t\tTitle");
+                        // Read the entry columns directly instead of creating DataEntry views
+                        for (int i = 0; i < error.getDataEntryCount(); i++) {
+                                String url = error.getUrl(i);
+                                document.linkParagraph(error.getCount(i) + "\t\t", extractTitleFromUrl(url), url);
+                        }
+                        document.paragraph("");
+                }
+                return document;
         }
 
-        public void addParagraph(String documentId, String text) throws IOException {
-                seleniumStatusHandler.sendUpdate("Adding paragraph: " + (text.isEmpty() ? "[Empty Line]" : text));
-                List<Request> requests = new ArrayList<>();
-
-                // ✅ Request to insert the text
-                requests.add(new Request().setInsertText(new InsertTextRequest()
-                                .setText(text + "\n") // Insert the text with a newline
-                                .setLocation(new Location().setIndex(1)))); // Insert at the beginning of the document
-
-                // ✅ Request to set the paragraph style to "NORMAL_TEXT"
-                requests.add(new Request().setUpdateParagraphStyle(new UpdateParagraphStyleRequest()
-                                .setFields("namedStyleType") // Specify that only the namedStyleType is being updated
-                                .setParagraphStyle(new ParagraphStyle().setNamedStyleType("NORMAL_TEXT"))
-                                .setRange(new Range().setStartIndex(1).setEndIndex(1 + text.length())))); // Apply style
-                                                                                                          // to
-                                                                                                          // inserted
-                                                                                                          // text
-
-                // ✅ Execute the batch update
-                BatchUpdateDocumentRequest body = new BatchUpdateDocumentRequest().setRequests(requests);
-                docsService.documents().batchUpdate(documentId, body).execute();
+        /**
+         * Writes a document model into an empty document. Requests are sent in
+         * as few batchUpdate calls as the configured request and size limits
+         * allow.
+         *
+         * @param documentId The ID of the empty Google Document.
+         * @param document   The document model to write.
+         * @return The number of batchUpdate calls made.
+         * @throws IOException If a batchUpdate call fails.
+         */
+        public int writeDocument(String documentId, GoogleDocsDocumentModel document) throws IOException {
+                List<Request> requests = document.toRequests(maxCharactersPerBatch);
+                seleniumStatusHandler.sendUpdate("Writing " + document.getParagraphCount() + " paragraphs ("
+                                + requests.size() + " requests) to the document...");
+                return sendRequests(documentId, requests);
         }
 
-        public void createErrorSummaryTable(String documentId, List<ErrorSummary> summaryList)
-                        throws IOException {
-                seleniumStatusHandler.sendUpdate("Creating error summary table...");
-                List<Request> requests = new ArrayList<>();
-                int insertionIndex = 1; // Start index for inserting text in the document
-
-                // ✅ Insert Table Header (Quantity | Errors)
-                String tableHeader = "Quantity\tErrors\n"; // Double tab for better alignment
-                requests.add(new Request().setInsertText(new InsertTextRequest()
-                                .setText(tableHeader)
-                                .setLocation(new Location().setIndex(insertionIndex))));
-
-                // ✅ Apply NORMAL_TEXT style to header
-                requests.add(new Request().setUpdateParagraphStyle(new UpdateParagraphStyleRequest()
-                                .setFields("namedStyleType")
-                                .setParagraphStyle(new ParagraphStyle().setNamedStyleType("NORMAL_TEXT"))
-                                .setRange(new Range().setStartIndex(insertionIndex)
-                                                .setEndIndex(insertionIndex + tableHeader.length()))));
-
-                // ✅ Apply BOLD style to header
-                requests.add(new Request().setUpdateTextStyle(new UpdateTextStyleRequest()
-                                .setFields("bold")
-                                .setTextStyle(new TextStyle().setBold(true))
-                                .setRange(new Range().setStartIndex(insertionIndex)
-                                                .setEndIndex(insertionIndex + tableHeader.length()))));
-
-                insertionIndex += tableHeader.length(); // Move to next line
-
-                // ✅ Loop through summary data to ensure proper alignment
-                for (ErrorSummary summary : summaryList) {
-                        // Ensure proper tab spacing for alignment
-                        String rowText = summary.getTotalErrors() + "\t\t" + summary.getErrorName() + "\n"; // Double
-                                                                                                            // tab space
-
-                        // ✅ Insert the row into the document
-                        requests.add(new Request().setInsertText(new InsertTextRequest()
-                                        .setText(rowText)
-                                        .setLocation(new Location().setIndex(insertionIndex))));
-
-                        // ✅ Apply NORMAL_TEXT style to row
-                        requests.add(new Request().setUpdateParagraphStyle(new UpdateParagraphStyleRequest()
-                                        .setFields("namedStyleType")
-                                        .setParagraphStyle(new ParagraphStyle().setNamedStyleType("NORMAL_TEXT"))
-                                        .setRange(new Range().setStartIndex(insertionIndex)
-                                                        .setEndIndex(insertionIndex + rowText.length()))));
-
-                        insertionIndex += rowText.length(); // Move to next line
+        /**
+         * Updates a document written from a previous model so that it holds a
+         * new model, editing only the paragraphs that changed. The document is
+         * read first and left untouched if its text no longer matches the
+         * previous model, for example because someone edited it by hand.
+         *
+         * @param documentId           The ID of the existing Google Document.
+         * @param previous             The model the document was written from.
+         * @param document             The new document model.
+         * @param maxChangedParagraphs Maximum number of paragraphs that may be
+         *                             deleted or inserted.
+         * @return The number of batchUpdate calls made, or -1 if the document
+         *         must be rebuilt instead.
+         * @throws IOException If reading or updating the document fails.
+         */
+        public int updateDocument(String documentId, GoogleDocsDocumentModel previous,
+                        GoogleDocsDocumentModel document, int maxChangedParagraphs) throws IOException {
+                PipelineMetrics.countApiCall("docs.get");
+                Document current = docsService.documents().get(documentId)
+                                .setFields("body(content(paragraph(elements(textRun(content)))))")
+                                .execute();
+                // Every document ends with an extra empty paragraph after the model text
+                if (!(previous.getText() + "\n").equals(bodyText(current))) {
+                        seleniumStatusHandler.sendUpdate("Existing document was changed by hand, rebuilding it...");
+                        return -1;
                 }
 
-                // ✅ Execute batch update request if there are changes
-                if (!requests.isEmpty()) {
-                        BatchUpdateDocumentRequest body = new BatchUpdateDocumentRequest().setRequests(requests);
-                        docsService.documents().batchUpdate(documentId, body).execute();
+                List<Request> requests = document.toUpdateRequests(previous, maxChangedParagraphs);
+                if (requests == null) {
+                        seleniumStatusHandler.sendUpdate("Too much of the report changed, rebuilding it...");
+                        return -1;
+                }
+                seleniumStatusHandler.sendUpdate("Applying " + requests.size()
+                                + " incremental edit requests to the existing document...");
+                return sendRequests(documentId, requests);
+        }
+
+        /**
+         * Sends requests in as few batchUpdate calls as the configured request
+         * and size limits allow, keeping their order.
+         *
+         * @param documentId The ID of the Google Document.
+         * @param requests   The requests to send.
+         * @return The number of batchUpdate calls made.
+         * @throws IOException If a batchUpdate call fails.
+         */
+        private int sendRequests(String documentId, List<Request> requests) throws IOException {
+                int calls = 0;
+                int sent = 0;
+                List<Request> batch = new ArrayList<>();
+                int batchCharacters = 0;
+                for (Request request : requests) {
+                        int characters = request.getInsertText() != null
+                                        ? request.getInsertText().getText().length()
+                                        : 0;
+                        if (!batch.isEmpty() && (batch.size() >= maxRequestsPerBatch
+                                        || batchCharacters + characters > maxCharactersPerBatch)) {
+                                executeBatch(documentId, batch);
+                                calls++;
+                                sent += batch.size();
+                                seleniumStatusHandler.sendProgress(ProgressEvent.Stage.WRITING_DOCUMENT, sent,
+                                                requests.size());
+                                batch = new ArrayList<>();
+                                batchCharacters = 0;
+                        }
+                        batch.add(request);
+                        batchCharacters += characters;
                 }
+                if (!batch.isEmpty()) {
+                        executeBatch(documentId, batch);
+                        calls++;
+                        seleniumStatusHandler.sendProgress(ProgressEvent.Stage.WRITING_DOCUMENT, requests.size(),
+                                        requests.size());
+                }
+                return calls;
         }
 
-        public void createErrorDetailsTable(String documentId, Error error) throws IOException {
-                seleniumStatusHandler.sendUpdate("Creating error details table for: " + error.getErrorName());
-
-                List<Request> requests = new ArrayList<>();
-                int insertionIndex = 1; // Start at the beginning of the document
-
-                // ✅ Insert Table Header ("Errors | Title")
-                String tableHeader = "Errors\t\tTitle\n"; // One tab for spacing
-                requests.add(new Request().setInsertText(new InsertTextRequest()
-                                .setText(tableHeader)
-                                .setLocation(new Location().setIndex(insertionIndex))));
-
-                // ✅ Apply NORMAL_TEXT style to header
-                requests.add(new Request().setUpdateParagraphStyle(new UpdateParagraphStyleRequest()
-                                .setFields("namedStyleType")
-                                .setParagraphStyle(new ParagraphStyle().setNamedStyleType("NORMAL_TEXT"))
-                                .setRange(new Range()
-                                                .setStartIndex(insertionIndex)
-                                                .setEndIndex(insertionIndex + tableHeader.length()))));
-
-                // ✅ Apply BOLD style to header
-                requests.add(new Request().setUpdateTextStyle(new UpdateTextStyleRequest()
-                                .setFields("bold")
-                                .setTextStyle(new TextStyle().setBold(true))
-                                .setRange(new Range().setStartIndex(insertionIndex)
-                                                .setEndIndex(insertionIndex + tableHeader.length()))));
-
-                // ✅ Move insertion index after the header
-                insertionIndex += tableHeader.length();
-
-                // ✅ Loop through error data entries and format rows
-                for (DataEntry entry : error.getDataEntries()) {
-                        String countText = entry.getCount() + "\t\t"; // Tab after the count
-                        String url = entry.getUrl(); // Full URL
-                        String linkText = extractTitleFromUrl(url) + "\n"; // Readable title from the URL
-
-                        // ✅ Insert count text
-                        requests.add(new Request().setInsertText(new InsertTextRequest()
-                                        .setText(countText)
-                                        .setLocation(new Location().setIndex(insertionIndex))));
-                        int countEndIndex = insertionIndex + countText.length();
-
-                        // ✅ Apply NORMAL_TEXT style to count text
-                        requests.add(new Request().setUpdateParagraphStyle(new UpdateParagraphStyleRequest()
-                                        .setFields("namedStyleType")
-                                        .setParagraphStyle(new ParagraphStyle().setNamedStyleType("NORMAL_TEXT"))
-                                        .setRange(new Range()
-                                                        .setStartIndex(insertionIndex)
-                                                        .setEndIndex(countEndIndex))));
-
-                        // ✅ Insert link text (readable title)
-                        requests.add(new Request().setInsertText(new InsertTextRequest()
-                                        .setText(linkText)
-                                        .setLocation(new Location().setIndex(countEndIndex))));
-                        int linkEndIndex = countEndIndex + linkText.length();
-
-                        // ✅ Apply NORMAL_TEXT style to link text
-                        requests.add(new Request().setUpdateParagraphStyle(new UpdateParagraphStyleRequest()
-                                        .setFields("namedStyleType")
-                                        .setParagraphStyle(new ParagraphStyle().setNamedStyleType("NORMAL_TEXT"))
-                                        .setRange(new Range()
-                                                        .setStartIndex(countEndIndex)
-                                                        .setEndIndex(linkEndIndex))));
-
-                        // ✅ Add hyperlink to the link text
-                        requests.add(new Request().setUpdateTextStyle(new UpdateTextStyleRequest()
-                                        .setFields("link")
-                                        .setTextStyle(new TextStyle().setLink(new Link().setUrl(url))) // Link points to
-                                                                                                       // full URL
-                                        .setRange(new Range()
-                                                        .setStartIndex(countEndIndex)
-                                                        .setEndIndex(linkEndIndex))));
-
-                        // ✅ Update insertion index for the next row
-                        insertionIndex = linkEndIndex;
+        /**
+         * Concatenates the text of a document's body.
+         *
+         * @param document The document, with at least the text runs of its body.
+         * @return The body text.
+         */
+        private static String bodyText(Document document) {
+                StringBuilder text = new StringBuilder();
+                if (document.getBody() == null || document.getBody().getContent() == null) {
+                        return "";
+                }
+                for (StructuralElement element : document.getBody().getContent()) {
+                        if (element.getParagraph() == null || element.getParagraph().getElements() == null) {
+                                continue;
+                        }
+                        for (ParagraphElement paragraphElement : element.getParagraph().getElements()) {
+                                if (paragraphElement.getTextRun() != null
+                                                && paragraphElement.getTextRun().getContent() != null) {
+                                        text.append(paragraphElement.getTextRun().getContent());
+                                }
+                        }
                 }
+                return text.toString();
+        }
 
-                // ✅ Execute batch update if there are changes
-                if (!requests.isEmpty()) {
-                        BatchUpdateDocumentRequest body = new BatchUpdateDocumentRequest().setRequests(requests);
+        /**
+         * Sends one batchUpdate call.
+         *
+         * @param documentId The ID of the Google Document.
+         * @param requests   The requests of the batch.
+         * @throws IOException If the call fails.
+         */
+        private void executeBatch(String documentId, List<Request> requests) throws IOException {
+                BatchUpdateDocumentRequest body = new BatchUpdateDocumentRequest().setRequests(requests);
+                PipelineMetrics.countApiCall("docs.batchUpdate");
+                Timer.Sample sample = PipelineMetrics.start();
+                boolean success = false;
+                try {
                         docsService.documents().batchUpdate(documentId, body).execute();
+                        success = true;
+                } finally {
+                        PipelineMetrics.stop(sample, PipelineMetrics.DOCS_WRITE, success);
                 }
         }
 
@@ -210,8 +253,11 @@ public class GoogleDocsFormatter {
          * - Splitting the URL by "/" and taking the last segment
          * - Replacing hyphens with spaces
          * - Capitalizing each word
+         *
+         * @param url The URL of an affected page.
+         * @return The title, or "Untitled" if the URL has no last segment.
          */
-        private static String extractTitleFromUrl(String url) {
+        public static String extractTitleFromUrl(String url) {
                 if (url == null || url.isEmpty()) {
                         return "Untitled"; // Provide a default title for empty or null URLs
                 }
@@ -0,0 +1,60 @@
+package com.reportweaver.reportweaver.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility class for computing SHA-256 digests used as cache keys and file
+ * names.
+ */
+public class HashUtils {
+
+    /**
+     * Computes the SHA-256 digest of a string.
+     *
+     * @param value The string to hash, encoded as UTF-8.
+     * @return The digest as a lowercase hex string.
+     */
+    public static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(newSha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Computes the SHA-256 digest of a file's contents, streaming it so large
+     * files are never held in memory.
+     *
+     * @param file The file to hash.
+     * @return The digest as a lowercase hex string.
+     * @throws IOException If the file cannot be read.
+     */
+    public static String sha256Hex(Path file) throws IOException {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Creates a new SHA-256 message digest.
+     *
+     * @return A SHA-256 MessageDigest.
+     */
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.reportweaver.reportweaver.util;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Utility class that tracks which report job the current thread works for.
+ * Status updates use it to reach only the clients subscribed to that job. The
+ * job ID is carried over to worker threads by wrapping their tasks with
+ * {@link #wrap(Runnable)} or {@link #wrap(Callable)}.
+ */
+public class JobContext {
+
+    // The job ID of the current thread, or null outside a job.
+    private static final ThreadLocal<String> currentJobId = new ThreadLocal<>();
+
+    /**
+     * Retrieves the job the current thread works for.
+     *
+     * @return The job ID, or null outside a job.
+     */
+    public static String currentJobId() {
+        return currentJobId.get();
+    }
+
+    /**
+     * Marks the current thread as working for a job until the returned scope is
+     * closed, after which the previous job ID is restored.
+     *
+     * @param jobId The job ID.
+     * @return The scope to close.
+     */
+    public static Scope open(String jobId) {
+        String previous = currentJobId.get();
+        currentJobId.set(jobId);
+        return () -> restore(previous);
+    }
+
+    /**
+     * Wraps a task so that it runs with the job ID of the calling thread.
+     *
+     * @param task The task.
+     * @return The wrapped task, or the task itself outside a job.
+     */
+    public static Runnable wrap(Runnable task) {
+        String jobId = currentJobId.get();
+        if (jobId == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope scope = open(jobId)) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Wraps a task so that it runs with the job ID of the calling thread.
+     *
+     * @param task The task.
+     * @param <T>  The result type of the task.
+     * @return The wrapped task, or the task itself outside a job.
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        String jobId = currentJobId.get();
+        if (jobId == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope scope = open(jobId)) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * Restores the job ID a thread had before a scope was opened.
+     *
+     * @param previous The previous job ID, or null.
+     */
+    private static void restore(String previous) {
+        if (previous == null) {
+            currentJobId.remove();
+        } else {
+            currentJobId.set(previous);
+        }
+    }
+
+    /**
+     * A block of code that runs for a job; closing it restores the previous job.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,123 @@
+package com.reportweaver.reportweaver.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Utility class that records timers and counters for each stage of the report
+ * pipeline.
+ * Meters are registered in Micrometer's global registry, which Spring Boot
+ * backs with the application's registries, so utility classes created with
+ * {@code new} and static helpers can record metrics without a registry bean.
+ * The metrics are scraped from the "/actuator/prometheus" endpoint.
+ */
+public class PipelineMetrics {
+
+    // Name of the timer measuring each stage, tagged with stage and outcome.
+    public static final String STAGE_DURATION = "reportweaver.stage.duration";
+
+    // Name of the counter of failures, tagged with the stage that failed.
+    public static final String STAGE_ERRORS = "reportweaver.stage.errors";
+
+    // Name of the counter of table pages read, tagged with the stage.
+    public static final String PAGES = "reportweaver.pages";
+
+    // Name of the counter of extracted items, tagged with their kind.
+    public static final String ENTRIES = "reportweaver.entries";
+
+    // Name of the counter of Google API calls, tagged with the API method.
+    public static final String API_CALLS = "reportweaver.api.calls";
+
+    // Stage tags.
+    public static final String REPORT = "report";
+    public static final String LOGIN = "login";
+    public static final String ROW_SEARCH = "row_search";
+    public static final String DOWNLOAD = "download";
+    public static final String EXTRACTION = "extraction";
+    public static final String DOCUMENTATION_FETCH = "documentation_fetch";
+    public static final String PAGINATION = "pagination";
+    public static final String DOCS_WRITE = "docs_write";
+
+    /**
+     * Starts timing a stage.
+     *
+     * @return The sample to pass to {@link #stop(Timer.Sample, String, boolean)}.
+     */
+    public static Timer.Sample start() {
+        return Timer.start(Metrics.globalRegistry);
+    }
+
+    /**
+     * Stops timing a stage and records its duration. Failed runs are also
+     * counted as stage errors.
+     *
+     * @param sample  The sample returned by {@link #start()}.
+     * @param stage   The stage tag.
+     * @param success Whether the stage succeeded.
+     */
+    public static void stop(Timer.Sample sample, String stage, boolean success) {
+        if (!success) {
+            countError(stage);
+        }
+        sample.stop(Timer.builder(STAGE_DURATION)
+                .description("Time spent in each stage of the report pipeline")
+                .tag("stage", stage)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(Metrics.globalRegistry));
+    }
+
+    /**
+     * Counts a failure of a stage.
+     *
+     * @param stage The stage tag.
+     */
+    public static void countError(String stage) {
+        Counter.builder(STAGE_ERRORS)
+                .description("Failures in each stage of the report pipeline")
+                .tag("stage", stage)
+                .register(Metrics.globalRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts a table page read by a stage.
+     *
+     * @param stage The stage tag.
+     */
+    public static void countPage(String stage) {
+        Counter.builder(PAGES)
+                .description("Table pages read by each stage")
+                .tag("stage", stage)
+                .register(Metrics.globalRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts extracted items.
+     *
+     * @param kind  What was extracted, e.g. "errors" or "data_entries".
+     * @param count The number of items.
+     */
+    public static void countEntries(String kind, int count) {
+        Counter.builder(ENTRIES)
+                .description("Items extracted from reports")
+                .tag("kind", kind)
+                .register(Metrics.globalRegistry)
+                .increment(count);
+    }
+
+    /**
+     * Counts a call to a Google API.
+     *
+     * @param method The API method, e.g. "docs.batchUpdate".
+     */
+    public static void countApiCall(String method) {
+        Counter.builder(API_CALLS)
+                .description("Calls made to Google APIs")
+                .tag("method", method)
+                .register(Metrics.globalRegistry)
+                .increment();
+    }
+}
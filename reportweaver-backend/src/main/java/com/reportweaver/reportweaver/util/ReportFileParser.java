@@ -0,0 +1,142 @@
+package com.reportweaver.reportweaver.util;
+
+import com.reportweaver.reportweaver.model.ParsedReport;
+import com.reportweaver.reportweaver.model.ReportRow;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for reading downloaded PopeTech report files.
+ * The report is static HTML, so it is parsed directly with jsoup using the same
+ * selectors as {@link WebScraperUtils} instead of being opened in a browser.
+ */
+public class ReportFileParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportFileParser.class);
+
+    // CSS selectors for the cells of a report row, relative to the row
+    private static final String ERROR_NAME_SELECTOR = "th > span > a";
+    private static final String CATEGORY_SELECTOR = "td:nth-child(3)";
+    private static final String COUNT_SELECTOR = "td:nth-child(4)";
+    private static final String DOCUMENTATION_LINK_SELECTOR = "td:nth-child(1) > a";
+
+    /**
+     * Loads a downloaded report file as an HTML document.
+     *
+     * @param file The downloaded report file.
+     * @return The parsed HTML document.
+     * @throws IOException If the file cannot be read.
+     */
+    public static Document load(File file) throws IOException {
+        return Jsoup.parse(file, StandardCharsets.UTF_8.name(), file.toURI().toString());
+    }
+
+    /**
+     * Parses a downloaded report file.
+     *
+     * @param file The downloaded report file.
+     * @return The base URL and rows of the report.
+     * @throws IOException If the file cannot be read.
+     */
+    public static ParsedReport parse(File file) throws IOException {
+        return parse(load(file));
+    }
+
+    /**
+     * Parses a report streamed from another source, such as an HTTP response,
+     * without writing it to disk first.
+     *
+     * @param inputStream The report HTML.
+     * @param baseUri     URI used to resolve relative links in the report.
+     * @return The base URL and rows of the report.
+     * @throws IOException If the stream cannot be read.
+     */
+    public static ParsedReport parse(InputStream inputStream, String baseUri) throws IOException {
+        return parse(Jsoup.parse(inputStream, StandardCharsets.UTF_8.name(), baseUri));
+    }
+
+    /**
+     * Reads the base URL and the report rows from a parsed report document.
+     * Rows whose count cannot be read are skipped.
+     *
+     * @param document The parsed report document.
+     * @return The base URL and rows of the report.
+     */
+    public static ParsedReport parse(Document document) {
+        List<ReportRow> rows = new ArrayList<>();
+        for (Element row : document.select(WebScraperUtils.ROW_SELECTOR)) {
+            try {
+                int instanceCount = Integer.parseInt(selectText(row, COUNT_SELECTOR));
+                rows.add(new ReportRow(
+                        selectText(row, ERROR_NAME_SELECTOR),
+                        selectText(row, CATEGORY_SELECTOR),
+                        instanceCount,
+                        selectHref(row, DOCUMENTATION_LINK_SELECTOR),
+                        selectHref(row, ERROR_NAME_SELECTOR)));
+            } catch (NumberFormatException e) {
+                logger.info("Skipping report row without a numeric count: {}", e.getMessage());
+            }
+        }
+
+        Element linkElement = document.selectFirst(WebScraperUtils.ERROR_LINK_SELECTOR);
+        String baseUrl = linkElement != null ? extractBaseUrl(linkElement.absUrl("href")) : "";
+        return new ParsedReport(baseUrl, rows);
+    }
+
+    /**
+     * Retrieves the trimmed text of the first element matching a selector.
+     *
+     * @param parent      The element to search within.
+     * @param cssSelector The CSS selector of the element.
+     * @return The element text, or an empty string if no element matches.
+     */
+    public static String selectText(Element parent, String cssSelector) {
+        Element element = parent.selectFirst(cssSelector);
+        return element != null ? element.text().trim() : "";
+    }
+
+    /**
+     * Retrieves the absolute link target of the first element matching a
+     * selector, mirroring the resolved value a browser reports for "href".
+     *
+     * @param parent      The element to search within.
+     * @param cssSelector The CSS selector of the link.
+     * @return The resolved link, or null if no element matches.
+     */
+    private static String selectHref(Element parent, String cssSelector) {
+        Element element = parent.selectFirst(cssSelector);
+        if (element == null) {
+            return null;
+        }
+        String href = element.absUrl("href");
+        return href.isEmpty() ? element.attr("href") : href;
+    }
+
+    /**
+     * Extracts the protocol and host from a full URL.
+     *
+     * @param fullUrl The full URL of a link in the report.
+     * @return The base URL, or an empty string if the URL cannot be parsed.
+     */
+    private static String extractBaseUrl(String fullUrl) {
+        try {
+            URL url = new URL(fullUrl);
+            return url.getProtocol() + "://" + url.getHost();
+        } catch (Exception e) {
+            logger.error("Error extracting base URL: {}", e.getMessage(), e);
+            return "";
+        }
+    }
+}
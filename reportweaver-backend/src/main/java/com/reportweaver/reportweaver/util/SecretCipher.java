@@ -0,0 +1,158 @@
+package com.reportweaver.reportweaver.util;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encrypts data that is persisted on the local disk, such as stored login
+ * sessions, using AES-GCM.
+ * The key is read from the REPORTWEAVER_SECRET_KEY environment variable
+ * (base64, 256 bits). If it is not set, a key is generated once and kept in a
+ * file readable only by the current user.
+ */
+@Component
+public class SecretCipher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecretCipher.class);
+
+    // Loads environment variables from the .env file.
+    private static final Dotenv dotenv = Dotenv.load();
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // The AES key used for every encryption.
+    private final SecretKey key;
+
+    /**
+     * Constructs the SecretCipher, loading or generating the encryption key.
+     *
+     * @param keyFile Location of the generated key when no key is configured.
+     * @throws IOException If the key file cannot be read or created.
+     */
+    public SecretCipher(@Value("${reportweaver.secrets.key-file:}") String keyFile) throws IOException {
+        String configuredKey = dotenv.get("REPORTWEAVER_SECRET_KEY");
+        if (configuredKey != null && !configuredKey.isBlank()) {
+            this.key = new SecretKeySpec(Base64.getDecoder().decode(configuredKey.trim()), "AES");
+        } else {
+            Path path = keyFile == null || keyFile.isBlank()
+                    ? Paths.get(System.getProperty("user.home"), ".reportweaver", "secret.key")
+                    : Paths.get(keyFile);
+            this.key = loadOrCreateKey(path);
+        }
+    }
+
+    /**
+     * Encrypts data with a random IV, which is prepended to the result.
+     *
+     * @param plaintext The data to encrypt.
+     * @return The IV followed by the ciphertext and authentication tag.
+     */
+    public byte[] encrypt(byte[] plaintext) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] ciphertext = cipher.doFinal(plaintext);
+
+            byte[] result = Arrays.copyOf(iv, IV_LENGTH + ciphertext.length);
+            System.arraycopy(ciphertext, 0, result, IV_LENGTH, ciphertext.length);
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt data.", e);
+        }
+    }
+
+    /**
+     * Decrypts data produced by {@link #encrypt(byte[])}.
+     *
+     * @param data The IV followed by the ciphertext and authentication tag.
+     * @return The decrypted data.
+     * @throws GeneralSecurityException If the data was tampered with or was
+     *                                  encrypted with a different key.
+     */
+    public byte[] decrypt(byte[] data) throws GeneralSecurityException {
+        if (data.length <= IV_LENGTH) {
+            throw new GeneralSecurityException("Encrypted data is too short.");
+        }
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, data, 0, IV_LENGTH));
+        return cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH);
+    }
+
+    /**
+     * Computes an HMAC-SHA256 of data with the configured key, e.g. to check a
+     * password against a stored verifier without storing the password.
+     *
+     * @param data The data to authenticate.
+     * @return The 32-byte MAC.
+     */
+    public byte[] mac(byte[] data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key.getEncoded(), "HmacSHA256"));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to compute MAC.", e);
+        }
+    }
+
+    /**
+     * Reads the key file, generating a new key on first use.
+     *
+     * @param path Location of the key file.
+     * @return The AES key.
+     * @throws IOException If the key file cannot be read or created.
+     */
+    private static SecretKey loadOrCreateKey(Path path) throws IOException {
+        if (Files.isRegularFile(path)) {
+            return new SecretKeySpec(Base64.getDecoder().decode(Files.readString(path).trim()), "AES");
+        }
+
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            SecretKey generated = generator.generateKey();
+
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            // Create the file owner-only before the key is written, so it is never readable by others
+            try {
+                Files.createFile(path,
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } catch (UnsupportedOperationException e) {
+                Files.createFile(path);
+                logger.warn("Could not restrict permissions on {}; protect this file manually.", path);
+            }
+            Files.writeString(path, Base64.getEncoder().encodeToString(generated.getEncoded()));
+            logger.info("Generated a new local encryption key at {}", path);
+            return generated;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES is not available.", e);
+        }
+    }
+}
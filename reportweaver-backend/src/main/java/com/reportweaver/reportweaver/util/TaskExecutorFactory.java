@@ -0,0 +1,163 @@
+package com.reportweaver.reportweaver.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors used to orchestrate report jobs.
+ * When "spring.threads.virtual.enabled" is set and the application runs on
+ * Java 21 or later, tasks run on virtual threads: blocked WebDriver, download
+ * and Google API calls then cost no platform thread, and report jobs are bounded
+ * by the browser semaphores in {@link WebDriverManager} instead of by pool
+ * sizes; fan-out work keeps its configured parallelism. Otherwise the usual
+ * fixed platform thread pools are used. Either
+ * way, tasks run with the {@link JobContext} of the thread that submitted them.
+ */
+@Component
+public class TaskExecutorFactory {
+
+    // Logger instance for reporting the chosen execution model.
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecutorFactory.class);
+
+    // Whether tasks run on virtual threads.
+    private final boolean virtualThreads;
+
+    /**
+     * Constructs the TaskExecutorFactory, choosing the execution model from the
+     * Spring Boot "spring.threads.virtual.enabled" setting.
+     *
+     * @param environment The Spring environment.
+     */
+    public TaskExecutorFactory(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        if (virtualThreads) {
+            logger.info("Report orchestration runs on virtual threads.");
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            logger.warn("Virtual threads were requested but need Java 21; using platform threads.");
+        }
+    }
+
+    /**
+     * Reports whether tasks run on virtual threads.
+     *
+     * @return True if virtual threads are in use.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Creates a thread factory for the active execution model.
+     *
+     * @param namePrefix Prefix of the thread names.
+     * @return A thread factory creating virtual or platform threads.
+     */
+    public ThreadFactory threadFactory(String namePrefix) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+    }
+
+    /**
+     * Creates an executor for short-lived fan-out work, such as enriching the
+     * errors of one report. At most the given number of tasks run at once in
+     * both execution models, virtual or platform threads, and the rest wait in
+     * the executor's queue rather than on the driver pool, where they could
+     * run into its lease timeout.
+     *
+     * @param namePrefix Prefix of the thread names.
+     * @param threads    Maximum number of tasks running at once.
+     * @return The executor; callers must shut it down.
+     */
+    public ExecutorService newFanOutExecutor(String namePrefix, int threads) {
+        int size = Math.max(1, threads);
+        return new JobContextExecutor(size, size, new LinkedBlockingQueue<>(), threadFactory(namePrefix),
+                new ThreadPoolExecutor.AbortPolicy(), 0);
+    }
+
+    /**
+     * Creates an executor with a bounded queue that rejects tasks once it is
+     * full. With virtual threads every admitted task starts at once on its own
+     * thread and waits on the browser semaphores instead of in the queue;
+     * admission is still bounded to {@code threads + queueCapacity} tasks.
+     *
+     * @param namePrefix    Prefix of the thread names.
+     * @param threads       Maximum number of tasks running at once when virtual
+     *                      threads are off.
+     * @param queueCapacity Maximum number of tasks waiting to run.
+     * @return The executor; callers must shut it down.
+     */
+    public ThreadPoolExecutor newQueuedExecutor(String namePrefix, int threads, int queueCapacity) {
+        int size = Math.max(1, threads);
+        int capacity = Math.max(1, queueCapacity);
+        if (virtualThreads) {
+            return new JobContextExecutor(0, Integer.MAX_VALUE, new SynchronousQueue<>(),
+                    threadFactory(namePrefix), new ThreadPoolExecutor.AbortPolicy(), size + capacity);
+        }
+        return new JobContextExecutor(size, size, new ArrayBlockingQueue<>(capacity),
+                threadFactory(namePrefix), new ThreadPoolExecutor.AbortPolicy(), 0);
+    }
+
+    /**
+     * Thread pool that runs every task with the {@link JobContext} of the thread
+     * that submitted it, so status updates from worker threads reach the right
+     * clients. It can also limit the number of tasks admitted at once, for
+     * pools whose queue never fills up.
+     */
+    private static final class JobContextExecutor extends ThreadPoolExecutor {
+
+        // Permits for admitted tasks that have not finished, or null if unlimited.
+        private final Semaphore admissions;
+
+        private JobContextExecutor(int coreThreads, int maxThreads, BlockingQueue<Runnable> queue,
+                ThreadFactory threadFactory, RejectedExecutionHandler rejectionHandler, int maxAdmitted) {
+            super(coreThreads, maxThreads, 0L, TimeUnit.MILLISECONDS, queue, threadFactory, rejectionHandler);
+            this.admissions = maxAdmitted > 0 ? new Semaphore(maxAdmitted) : null;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (admissions == null) {
+                super.execute(JobContext.wrap(command));
+                return;
+            }
+            if (!admissions.tryAcquire()) {
+                getRejectedExecutionHandler().rejectedExecution(command, this);
+                return;
+            }
+            try {
+                super.execute(JobContext.wrap(command));
+            } catch (RejectedExecutionException e) {
+                admissions.release();
+                throw e;
+            }
+        }
+
+        @Override
+        protected void afterExecute(Runnable runnable, Throwable throwable) {
+            super.afterExecute(runnable, throwable);
+            if (admissions != null) {
+                admissions.release();
+            }
+        }
+    }
+}
@@ -1,25 +1,133 @@
 package com.reportweaver.reportweaver.util;
 
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages active WebDriver instances in a thread-safe manner.
- * This class handles registering, removing, and stopping WebDriver instances.
+ * This class handles registering, removing, and stopping WebDriver instances,
+ * and owns a bounded pool of reusable headless drivers that worker tasks lease
+ * and return instead of launching a new browser for every lookup.
  */
 @Component
 public class WebDriverManager {
 
+    // Logger instance for logging pool activity.
+    private static final Logger logger = LoggerFactory.getLogger(WebDriverManager.class);
+
     // A synchronized set to store active WebDriver instances, ensuring thread
     // safety.
     private final Set<WebDriver> activeDrivers = Collections.synchronizedSet(new HashSet<>());
 
+    // Idle pooled drivers, most recently returned first so warm browsers are
+    // reused before cold ones.
+    private final Deque<PooledDriver> idleDrivers = new ConcurrentLinkedDeque<>();
+
+    // Pooled drivers currently leased out, keyed by the driver handed to callers.
+    private final Map<WebDriver, PooledDriver> leasedDrivers = new ConcurrentHashMap<>();
+
+    // Limits the number of pooled drivers that can exist at the same time.
+    private final Semaphore leasePermits;
+
+    // Maximum number of pooled drivers.
+    private final int maxPoolSize;
+
+    // Limits the number of job browsers (one per running report job) open at
+    // the same time; this, not the number of threads, bounds job concurrency.
+    private final Semaphore jobBrowserSlots;
+
+    // Maximum number of job browsers.
+    private final int maxJobBrowsers;
+
+    // Maximum time a caller waits for a pooled driver before giving up.
+    private final Duration leaseTimeout;
+
+    // Number of navigations after which a pooled driver is replaced.
+    private final int maxNavigations;
+
+    // JavaScript heap size (in MB) above which a pooled driver is replaced.
+    private final long maxMemoryMb;
+
+    // Whether pooled browsers run without a visible window.
+    private final boolean headless;
+
+    // Whether cookies are cleared when a driver is returned to the pool.
+    private final boolean resetCookies;
+
+    // Whether tabs opened during a lease are closed when the driver is returned.
+    private final boolean closeExtraTabs;
+
+    // Pool counters exposed through getPoolStats().
+    private final AtomicLong totalLeases = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdDrivers = new AtomicLong();
+    private final AtomicLong recycledDrivers = new AtomicLong();
+    private final AtomicLong leaseTimeouts = new AtomicLong();
+
+    /**
+     * Constructs the WebDriverManager with the pool settings from
+     * application.properties.
+     *
+     * @param maxPoolSize         Maximum number of pooled drivers.
+     * @param leaseTimeoutSeconds Seconds to wait for a pooled driver.
+     * @param maxNavigations      Navigations before a pooled driver is recycled.
+     * @param maxMemoryMb         JavaScript heap threshold (MB) before a pooled
+     *                            driver is recycled.
+     * @param headless            Whether pooled browsers run headless.
+     * @param resetCookies        Whether cookies are cleared between leases.
+     * @param closeExtraTabs      Whether extra tabs are closed between leases.
+     * @param maxJobBrowsers      Maximum number of job browsers open at once.
+     */
+    public WebDriverManager(
+            @Value("${reportweaver.driver-pool.max-size:4}") int maxPoolSize,
+            @Value("${reportweaver.driver-pool.lease-timeout-seconds:300}") long leaseTimeoutSeconds,
+            @Value("${reportweaver.driver-pool.max-navigations:50}") int maxNavigations,
+            @Value("${reportweaver.driver-pool.max-memory-mb:512}") long maxMemoryMb,
+            @Value("${reportweaver.driver-pool.headless:true}") boolean headless,
+            @Value("${reportweaver.driver-pool.reset-cookies:true}") boolean resetCookies,
+            @Value("${reportweaver.driver-pool.close-extra-tabs:true}") boolean closeExtraTabs,
+            @Value("${reportweaver.browsers.max-concurrent:2}") int maxJobBrowsers) {
+        this.maxPoolSize = Math.max(1, maxPoolSize);
+        this.maxJobBrowsers = Math.max(1, maxJobBrowsers);
+        this.jobBrowserSlots = new Semaphore(this.maxJobBrowsers, true);
+        this.leasePermits = new Semaphore(this.maxPoolSize, true);
+        this.leaseTimeout = Duration.ofSeconds(leaseTimeoutSeconds);
+        this.maxNavigations = maxNavigations;
+        this.maxMemoryMb = maxMemoryMb;
+        this.headless = headless;
+        this.resetCookies = resetCookies;
+        this.closeExtraTabs = closeExtraTabs;
+    }
+
     /**
      * Registers a new WebDriver instance by adding it to the active set.
-     * 
+     *
      * @param driver The WebDriver instance to be added.
      */
     public void addDriver(WebDriver driver) {
@@ -28,16 +136,139 @@ public class WebDriverManager {
 
     /**
      * Removes a WebDriver instance from the active set when it is no longer needed.
-     * 
+     *
      * @param driver The WebDriver instance to be removed.
      */
     public void removeDriver(WebDriver driver) {
         activeDrivers.remove(driver);
     }
 
+    /**
+     * Reserves a slot for a job browser, waiting as long as it takes for one to
+     * be free: admitted jobs queue here, in order, rather than failing.
+     * Every acquired slot must be handed back with
+     * {@link #releaseJobBrowserSlot()} once the browser has been quit.
+     *
+     * @throws IllegalStateException If the thread is interrupted, e.g. because
+     *                               the job is cancelled or the application
+     *                               stops; the interrupt status is kept.
+     */
+    public void acquireJobBrowserSlot() {
+        try {
+            jobBrowserSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore interrupt status
+            throw new IllegalStateException("Interrupted while waiting for a browser slot.", e);
+        }
+    }
+
+    /**
+     * Frees a slot reserved with {@link #acquireJobBrowserSlot()}.
+     */
+    public void releaseJobBrowserSlot() {
+        jobBrowserSlots.release();
+    }
+
+    /**
+     * Leases a driver from the pool, creating a new browser only when no idle
+     * driver is available and the pool is below its maximum size.
+     * Every leased driver must be handed back with {@link #releaseDriver}.
+     *
+     * @return A WebDriver reserved for the caller.
+     * @throws IllegalStateException If no driver becomes available within the
+     *                               lease timeout or the thread is interrupted.
+     */
+    public WebDriver leaseDriver() {
+        long waitStart = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = leasePermits.tryAcquire(leaseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore interrupt status
+            throw new IllegalStateException("Interrupted while waiting for a pooled WebDriver.", e);
+        }
+
+        long waited = System.nanoTime() - waitStart;
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        if (!acquired) {
+            leaseTimeouts.incrementAndGet();
+            throw new IllegalStateException(
+                    "Timed out after " + leaseTimeout.toSeconds() + "s waiting for a pooled WebDriver.");
+        }
+
+        try {
+            PooledDriver pooled = idleDrivers.pollFirst();
+            if (pooled == null) {
+                pooled = createPooledDriver();
+            }
+            leasedDrivers.put(pooled.driver, pooled);
+            totalLeases.incrementAndGet();
+            return pooled.driver;
+        } catch (RuntimeException e) {
+            leasePermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a leased driver to the pool. The driver is reset before it can be
+     * leased again, or quit and replaced if it has reached its navigation or
+     * memory limit or can no longer be reset.
+     *
+     * @param driver The driver previously obtained from {@link #leaseDriver()}.
+     */
+    public void releaseDriver(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        PooledDriver pooled = leasedDrivers.remove(driver);
+        if (pooled == null) {
+            logger.warn("Ignoring release of a WebDriver that is not leased from the pool.");
+            return;
+        }
+
+        try {
+            if (shouldRecycle(pooled) || !resetForNextLease(pooled)) {
+                recycledDrivers.incrementAndGet();
+                quitQuietly(pooled);
+            } else {
+                idleDrivers.addFirst(pooled);
+            }
+        } finally {
+            leasePermits.release();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the pool counters.
+     *
+     * @return The current pool statistics.
+     */
+    public PoolStats getPoolStats() {
+        long leases = totalLeases.get();
+        return new PoolStats(
+                maxPoolSize,
+                idleDrivers.size(),
+                leasedDrivers.size(),
+                leasePermits.getQueueLength(),
+                leases,
+                createdDrivers.get(),
+                recycledDrivers.get(),
+                leaseTimeouts.get(),
+                leases == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()) / leases,
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                maxJobBrowsers,
+                maxJobBrowsers - jobBrowserSlots.availablePermits(),
+                jobBrowserSlots.getQueueLength());
+    }
+
     /**
      * Stops all active WebDriver instances and clears the set.
      * Ensures proper cleanup to avoid memory leaks and lingering browser sessions.
+     * Idle pooled drivers are quit as well, and leased pooled drivers are quit so
+     * that their current lookups stop; they are discarded once released.
      */
     public void stopAllDrivers() {
         synchronized (activeDrivers) {
@@ -50,6 +281,258 @@ public class WebDriverManager {
             }
             activeDrivers.clear(); // Remove all references to closed WebDrivers.
         }
+
+        PooledDriver idle;
+        while ((idle = idleDrivers.pollFirst()) != null) {
+            quitQuietly(idle);
+        }
+        for (PooledDriver leased : new ArrayList<>(leasedDrivers.values())) {
+            quitQuietly(leased);
+        }
         System.out.println("All Selenium WebDrivers have been stopped.");
     }
+
+    /**
+     * Quits every pooled and registered driver when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopAllDrivers();
+    }
+
+    /**
+     * Launches a new browser for the pool and decorates it so that page
+     * navigations are counted.
+     *
+     * @return The new pooled driver.
+     */
+    private PooledDriver createPooledDriver() {
+        ChromeOptions options = new ChromeOptions();
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        options.addArguments("--window-size=1920,1080");
+
+        ChromeDriver rawDriver = new ChromeDriver(options);
+        PooledDriver pooled = new PooledDriver(rawDriver);
+        pooled.driver = new EventFiringDecorator<WebDriver>(new WebDriverListener() {
+            @Override
+            public void beforeGet(WebDriver driver, String url) {
+                pooled.navigations.incrementAndGet();
+            }
+
+            @Override
+            public void beforeTo(WebDriver.Navigation navigation, String url) {
+                pooled.navigations.incrementAndGet();
+            }
+        }).decorate(rawDriver);
+        pooled.primaryWindow = rawDriver.getWindowHandle();
+
+        createdDrivers.incrementAndGet();
+        logger.info("Created pooled WebDriver ({} of {} max).", createdDrivers.get(), maxPoolSize);
+        return pooled;
+    }
+
+    /**
+     * Determines whether a pooled driver has reached its navigation or memory
+     * limit.
+     *
+     * @param pooled The pooled driver being returned.
+     * @return True if the driver should be quit instead of reused.
+     */
+    private boolean shouldRecycle(PooledDriver pooled) {
+        if (maxNavigations > 0 && pooled.navigations.get() >= maxNavigations) {
+            logger.info("Recycling pooled WebDriver after {} navigations.", pooled.navigations.get());
+            return true;
+        }
+        if (maxMemoryMb > 0) {
+            try {
+                Object heap = ((JavascriptExecutor) pooled.rawDriver).executeScript(
+                        "return window.performance && performance.memory ? performance.memory.usedJSHeapSize : 0;");
+                long heapMb = heap instanceof Number ? ((Number) heap).longValue() / (1024 * 1024) : 0;
+                if (heapMb >= maxMemoryMb) {
+                    logger.info("Recycling pooled WebDriver using {} MB of JavaScript heap.", heapMb);
+                    return true;
+                }
+            } catch (Exception e) {
+                return true; // A driver that cannot run scripts is not worth keeping
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clears state left behind by the previous lease so the next caller starts
+     * from a blank page.
+     *
+     * @param pooled The pooled driver being returned.
+     * @return True if the driver was reset and can be reused.
+     */
+    private boolean resetForNextLease(PooledDriver pooled) {
+        ChromeDriver rawDriver = pooled.rawDriver;
+        try {
+            if (closeExtraTabs) {
+                List<String> handles = new ArrayList<>(rawDriver.getWindowHandles());
+                for (String handle : handles) {
+                    if (!handle.equals(pooled.primaryWindow)) {
+                        rawDriver.switchTo().window(handle).close();
+                    }
+                }
+                rawDriver.switchTo().window(pooled.primaryWindow);
+            }
+            if (resetCookies) {
+                // deleteAllCookies() only covers the current domain, so clear the whole
+                // browser cookie jar through DevTools instead.
+                rawDriver.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            }
+            rawDriver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("Discarding pooled WebDriver that could not be reset: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Quits a pooled driver, ignoring errors from browsers that already exited.
+     *
+     * @param pooled The pooled driver to quit.
+     */
+    private void quitQuietly(PooledDriver pooled) {
+        try {
+            pooled.rawDriver.quit();
+        } catch (Exception e) {
+            logger.debug("Error quitting pooled WebDriver: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A browser owned by the pool together with its usage counters.
+     */
+    private static final class PooledDriver {
+
+        // The underlying ChromeDriver, used for pool housekeeping.
+        private final ChromeDriver rawDriver;
+
+        // The navigation-counting driver handed to callers.
+        private WebDriver driver;
+
+        // Window handle of the tab opened when the browser started.
+        private String primaryWindow;
+
+        // Number of page loads performed through this driver.
+        private final AtomicInteger navigations = new AtomicInteger();
+
+        private PooledDriver(ChromeDriver rawDriver) {
+            this.rawDriver = rawDriver;
+        }
+    }
+
+    /**
+     * Point-in-time statistics about the driver pool.
+     */
+    public static final class PoolStats {
+
+        private final int maxSize;
+        private final int idle;
+        private final int leased;
+        private final int waiting;
+        private final long totalLeases;
+        private final long created;
+        private final long recycled;
+        private final long leaseTimeouts;
+        private final long averageWaitMillis;
+        private final long maxWaitMillis;
+        private final int maxJobBrowsers;
+        private final int jobBrowsers;
+        private final int jobBrowsersWaiting;
+
+        private PoolStats(int maxSize, int idle, int leased, int waiting, long totalLeases, long created,
+                long recycled, long leaseTimeouts, long averageWaitMillis, long maxWaitMillis, int maxJobBrowsers,
+                int jobBrowsers, int jobBrowsersWaiting) {
+            this.maxSize = maxSize;
+            this.idle = idle;
+            this.leased = leased;
+            this.waiting = waiting;
+            this.totalLeases = totalLeases;
+            this.created = created;
+            this.recycled = recycled;
+            this.leaseTimeouts = leaseTimeouts;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.maxJobBrowsers = maxJobBrowsers;
+            this.jobBrowsers = jobBrowsers;
+            this.jobBrowsersWaiting = jobBrowsersWaiting;
+        }
+
+        /** @return The maximum number of pooled drivers. */
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        /** @return The current pool size (idle plus leased drivers). */
+        public int getSize() {
+            return idle + leased;
+        }
+
+        /** @return The number of idle drivers ready to be leased. */
+        public int getIdle() {
+            return idle;
+        }
+
+        /** @return The number of drivers currently leased out. */
+        public int getLeased() {
+            return leased;
+        }
+
+        /** @return The number of threads waiting for a driver. */
+        public int getWaiting() {
+            return waiting;
+        }
+
+        /** @return The total number of leases granted. */
+        public long getTotalLeases() {
+            return totalLeases;
+        }
+
+        /** @return The number of browsers launched by the pool. */
+        public long getCreated() {
+            return created;
+        }
+
+        /** @return The number of browsers quit after reaching a limit or failing. */
+        public long getRecycled() {
+            return recycled;
+        }
+
+        /** @return The number of lease requests that timed out. */
+        public long getLeaseTimeouts() {
+            return leaseTimeouts;
+        }
+
+        /** @return The average time (ms) callers waited for a lease. */
+        public long getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        /** @return The longest time (ms) a caller waited for a lease. */
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        /** @return The maximum number of job browsers open at once. */
+        public int getMaxJobBrowsers() {
+            return maxJobBrowsers;
+        }
+
+        /** @return The number of job browsers currently open. */
+        public int getJobBrowsers() {
+            return jobBrowsers;
+        }
+
+        /** @return The number of jobs waiting for a browser slot. */
+        public int getJobBrowsersWaiting() {
+            return jobBrowsersWaiting;
+        }
+    }
 }
@@ -1,12 +1,18 @@
 package com.reportweaver.reportweaver.util;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Utility class for common web scraping operations using Selenium.
@@ -27,6 +33,21 @@ public class WebScraperUtils {
     // CSS selector for locating rows that contain error counts
     public static final String ERROR_COUNT_ROW_SELECTOR = ".data-table .data-table-row-wrapper tr";
 
+    // CSS selector for locating rows in the reports table
+    public static final String REPORT_ROW_SELECTOR = "#reports-table > data-table > div > div tbody tr";
+
+    // Script that reads every requested cell of every matching row in one call.
+    // Properties such as "href" are read as the browser resolves them, matching
+    // WebElement.getAttribute; missing cells are returned as null.
+    private static final String EXTRACT_TABLE_SCRIPT = "const columns = arguments[1];"
+            + "return Array.from(document.querySelectorAll(arguments[0]), row => columns.map(column => {"
+            + "  const cell = column.selector ? row.querySelector(column.selector) : row;"
+            + "  if (!cell) { return null; }"
+            + "  if (!column.attribute) { return cell.innerText.trim(); }"
+            + "  const value = column.attribute in cell ? cell[column.attribute] : cell.getAttribute(column.attribute);"
+            + "  return value == null ? null : String(value);"
+            + "}));";
+
     /**
      * Waits for multiple elements to be present on the page.
      *
@@ -88,6 +109,46 @@ public class WebScraperUtils {
                 .getAttribute(attribute);
     }
 
+    /**
+     * Reads a table in a single browser round trip. Waits until at least one
+     * row is present, then extracts every requested column of every row with
+     * one injected script, so no WebElement references are kept.
+     *
+     * @param driver      WebDriver instance showing the table
+     * @param wait        WebDriverWait instance for waiting on the first row
+     * @param rowSelector The CSS selector matching the table rows
+     * @param columns     The cells to read from each row
+     * @return The extracted rows in document order
+     */
+    @SuppressWarnings("unchecked")
+    public static List<ScrapedRow> extractTable(WebDriver driver, WebDriverWait wait, String rowSelector,
+            List<ColumnSpec> columns) {
+        wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(rowSelector)));
+
+        List<Map<String, Object>> columnArgs = new ArrayList<>();
+        for (ColumnSpec column : columns) {
+            Map<String, Object> arg = new HashMap<>();
+            arg.put("selector", column.selector());
+            arg.put("attribute", column.attribute());
+            columnArgs.add(arg);
+        }
+
+        Object result = ((JavascriptExecutor) driver).executeScript(EXTRACT_TABLE_SCRIPT, rowSelector, columnArgs);
+        List<ScrapedRow> rows = new ArrayList<>();
+        if (result instanceof List) {
+            for (Object rowValues : (List<Object>) result) {
+                List<Object> cells = (List<Object>) rowValues;
+                Map<String, String> values = new LinkedHashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    Object cell = cells.get(i);
+                    values.put(columns.get(i).name(), cell != null ? cell.toString() : null);
+                }
+                rows.add(new ScrapedRow(rows.size(), values));
+            }
+        }
+        return rows;
+    }
+
     /**
      * Navigates to the "Reports" page by interacting with the navigation menu.
      *
@@ -110,6 +171,98 @@ public class WebScraperUtils {
      */
     public static List<WebElement> getReportRows(WebDriverWait wait, WebDriver driver) {
         return wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(
-                By.cssSelector("#reports-table > data-table > div > div tbody tr")));
+                By.cssSelector(REPORT_ROW_SELECTOR)));
+    }
+
+    /**
+     * Normalizes a website so that different spellings of the same site
+     * compare equal: the scheme, a leading "www.", trailing slashes and letter
+     * case are ignored.
+     *
+     * @param website The website as entered by the user
+     * @return The normalized website, or an empty string if it is null
+     */
+    public static String normalizeWebsite(String website) {
+        if (website == null) {
+            return "";
+        }
+        String normalized = website.trim().toLowerCase(Locale.ROOT);
+        normalized = normalized.replaceFirst("^[a-z][a-z0-9+.-]*://", "");
+        if (normalized.startsWith("www.")) {
+            normalized = normalized.substring(4);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * Builds the key identifying a website as seen by one PopeTech account,
+     * for state that must never be shared between accounts.
+     *
+     * @param website  The website as entered by the user
+     * @param username The PopeTech username
+     * @return The normalized website and lowercased username
+     */
+    public static String accountWebsiteKey(String website, String username) {
+        return normalizeWebsite(website) + "|"
+                + (username == null ? "" : username.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Describes one cell to read from each row in
+     * {@link #extractTable(WebDriver, WebDriverWait, String, List)}.
+     *
+     * @param name      Key under which the value is returned
+     * @param selector  CSS selector of the cell relative to the row, or null for
+     *                  the row itself
+     * @param attribute Attribute to read (e.g., "href"), or null for the text
+     */
+    public record ColumnSpec(String name, String selector, String attribute) {
+
+        /**
+         * Reads the visible text of a cell.
+         *
+         * @param name     Key under which the value is returned
+         * @param selector CSS selector of the cell relative to the row
+         * @return The column specification
+         */
+        public static ColumnSpec text(String name, String selector) {
+            return new ColumnSpec(name, selector, null);
+        }
+
+        /**
+         * Reads an attribute of a cell.
+         *
+         * @param name      Key under which the value is returned
+         * @param selector  CSS selector of the cell relative to the row
+         * @param attribute The attribute to read (e.g., "href")
+         * @return The column specification
+         */
+        public static ColumnSpec attribute(String name, String selector, String attribute) {
+            return new ColumnSpec(name, selector, attribute);
+        }
+    }
+
+    /**
+     * One row returned by
+     * {@link #extractTable(WebDriver, WebDriverWait, String, List)}.
+     *
+     * @param index  Position of the row in the table, starting at 0
+     * @param values Extracted values keyed by column name; null if the cell is
+     *               missing
+     */
+    public record ScrapedRow(int index, Map<String, String> values) {
+
+        /**
+         * Retrieves the value of a column.
+         *
+         * @param name The column name
+         * @return The value, or null if the cell was missing
+         */
+        public String get(String name) {
+            return values.get(name);
+        }
     }
 }
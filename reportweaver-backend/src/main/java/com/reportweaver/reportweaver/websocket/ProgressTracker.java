@@ -0,0 +1,113 @@
+package com.reportweaver.reportweaver.websocket;
+
+import com.reportweaver.reportweaver.model.ProgressEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the progress of each running job and decides which progress updates
+ * are worth sending.
+ * A job emits at most one event per interval; stage changes, the last item of
+ * a stage and the final stage are always emitted. The estimate of the time
+ * left assumes the remaining items of a stage take as long as the finished
+ * ones.
+ */
+public class ProgressTracker {
+
+    // Progress of each job that has not finished yet, keyed by job ID.
+    private final Map<String, JobProgress> jobs = new ConcurrentHashMap<>();
+
+    // Last emitted event of each job, sent to clients that subscribe late.
+    private final Map<String, ProgressEvent> latestEvents = new ConcurrentHashMap<>();
+
+    // Minimum time between two events of a job, in milliseconds.
+    private volatile long intervalMillis;
+
+    /**
+     * Constructs a ProgressTracker.
+     *
+     * @param intervalMillis Minimum time between two events of a job, in
+     *                       milliseconds.
+     */
+    public ProgressTracker(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Changes the minimum time between two events of a job.
+     *
+     * @param intervalMillis The interval in milliseconds.
+     */
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Records the progress of a job.
+     *
+     * @param jobId The job ID.
+     * @param stage The current stage.
+     * @param done  Items finished in the stage.
+     * @param total Total number of items in the stage, or 0 if not countable.
+     * @return The event to send, or null if it falls within the rate limit.
+     */
+    public ProgressEvent update(String jobId, ProgressEvent.Stage stage, int done, int total) {
+        long now = System.currentTimeMillis();
+        JobProgress progress = jobs.computeIfAbsent(jobId, key -> new JobProgress(now));
+        ProgressEvent event;
+        synchronized (progress) {
+            boolean stageChanged = stage != progress.stage;
+            if (stageChanged) {
+                progress.stage = stage;
+                progress.stageStartedAt = now;
+            }
+            boolean stageDone = total > 0 && done >= total;
+            if (!stageChanged && !stageDone && !stage.isFinal() && now - progress.lastEmittedAt < intervalMillis) {
+                return null;
+            }
+            progress.lastEmittedAt = now;
+
+            Long eta = null;
+            if (total > 0 && done > 0) {
+                eta = (now - progress.stageStartedAt) * Math.max(0, total - done) / done;
+            }
+            event = new ProgressEvent(jobId, stage, done, total, now - progress.startedAt, eta);
+        }
+
+        if (stage.isFinal()) {
+            jobs.remove(jobId);
+            latestEvents.remove(jobId);
+        } else {
+            latestEvents.put(jobId, event);
+        }
+        return event;
+    }
+
+    /**
+     * Retrieves the last event emitted for a running job.
+     *
+     * @param jobId The job ID.
+     * @return The event, or null if the job has not reported progress or has
+     *         finished.
+     */
+    public ProgressEvent getLatest(String jobId) {
+        return latestEvents.get(jobId);
+    }
+
+    /**
+     * Progress state of one job; guarded by itself.
+     */
+    private static final class JobProgress {
+
+        private final long startedAt;
+        private ProgressEvent.Stage stage;
+        private long stageStartedAt;
+        private long lastEmittedAt;
+
+        private JobProgress(long startedAt) {
+            this.startedAt = startedAt;
+            this.stageStartedAt = startedAt;
+        }
+    }
+}
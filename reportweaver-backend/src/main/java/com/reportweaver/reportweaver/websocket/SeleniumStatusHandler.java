@@ -1,47 +1,312 @@
 package com.reportweaver.reportweaver.websocket;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportweaver.reportweaver.model.ProgressEvent;
+import com.reportweaver.reportweaver.util.JobContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebSocket handler for sending real-time Selenium status updates to connected
  * clients.
+ * Clients subscribe to the ID of a report job, either with a
+ * {@code {"type":"subscribe","jobId":"...","verbose":false}} message or
+ * {@code jobId} and {@code verbose} query parameters, and only receive the
+ * updates of the jobs they subscribed to. Every update is one line of compact
+ * JSON: rate-limited {@link ProgressEvent}s for everyone, and free-text
+ * {@code {"type":"log"}} messages only for verbose subscribers.
+ * Updates are queued in a {@link SessionOutbox} per session and sent by
+ * background threads, so sending never blocks the report pipeline.
  */
 public class SeleniumStatusHandler extends TextWebSocketHandler {
 
-    // Thread-safe list to store active WebSocket sessions.
-    private static final CopyOnWriteArrayList<WebSocketSession> sessions = new CopyOnWriteArrayList<>();
+    // Logger instance for logging subscription and delivery problems.
+    private static final Logger logger = LoggerFactory.getLogger(SeleniumStatusHandler.class);
+
+    // Parses subscription messages sent by clients.
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Sessions subscribed to each job ID. Static because utility classes create
+    // their own handler instances.
+    private static final Map<String, Set<WebSocketSession>> subscribers = new ConcurrentHashMap<>();
+
+    // Job IDs each session is subscribed to, keyed by session ID, so a closed
+    // session can be removed from its topics.
+    private static final Map<String, Set<String>> subscriptions = new ConcurrentHashMap<>();
+
+    // IDs of the sessions that asked for the free-text log messages.
+    private static final Set<String> verboseSessions = ConcurrentHashMap.newKeySet();
+
+    // Rate-limits progress events and remembers the latest one of each job.
+    private static final ProgressTracker progressTracker = new ProgressTracker(250);
+
+    // Outgoing update queue of each session, keyed by session ID.
+    private static final Map<String, SessionOutbox> outboxes = new ConcurrentHashMap<>();
+
+    // Outbox settings applied to sessions connecting from now on.
+    private static volatile int outboxCapacity = 256;
+    private static volatile long flushIntervalMillis = 100;
+    private static volatile SessionOutbox.OverflowPolicy overflowPolicy = SessionOutbox.OverflowPolicy.DROP_OLDEST;
+
+    /**
+     * Configures the outboxes of sessions connecting from now on.
+     *
+     * @param capacity      Maximum number of updates queued per session.
+     * @param flushInterval Minimum time between two frames, in milliseconds.
+     * @param policy        What happens to updates when a queue is full.
+     */
+    public static void configureOutbox(int capacity, long flushInterval, SessionOutbox.OverflowPolicy policy) {
+        outboxCapacity = capacity;
+        flushIntervalMillis = flushInterval;
+        overflowPolicy = policy;
+    }
+
+    /**
+     * Configures the minimum time between two progress events of a job.
+     *
+     * @param intervalMillis The interval in milliseconds.
+     */
+    public static void configureProgress(long intervalMillis) {
+        progressTracker.setIntervalMillis(intervalMillis);
+    }
 
     /**
      * Called when a new WebSocket connection is established.
-     * Adds the new session to the list of active WebSocket sessions.
+     * Subscribes the session to the job given in its {@code jobId} query
+     * parameter, if any.
      *
      * @param session The WebSocket session that was established.
      */
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
-        sessions.add(session);
+        outboxes.put(session.getId(), new SessionOutbox(session, outboxCapacity, flushIntervalMillis, overflowPolicy));
+        subscriptions.put(session.getId(), ConcurrentHashMap.newKeySet());
+        URI uri = session.getUri();
+        if (uri != null) {
+            MultiValueMap<String, String> parameters = UriComponentsBuilder.fromUri(uri).build().getQueryParams();
+            String jobId = parameters.getFirst("jobId");
+            if (jobId != null && !jobId.isBlank()) {
+                subscribe(session, jobId, Boolean.parseBoolean(parameters.getFirst("verbose")));
+            }
+        }
     }
 
     /**
-     * Sends a status update message to all active WebSocket clients.
-     * Ensures that messages are only sent to open sessions.
+     * Handles subscription messages of the form
+     * {@code {"type":"subscribe"|"unsubscribe","jobId":"...","verbose":false}}.
+     *
+     * @param session The session that sent the message.
+     * @param message The message.
+     */
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        try {
+            JsonNode request = objectMapper.readTree(message.getPayload());
+            String type = request.path("type").asText();
+            String jobId = request.path("jobId").asText();
+            if (jobId.isBlank()) {
+                return;
+            }
+            if ("subscribe".equals(type)) {
+                subscribe(session, jobId, request.path("verbose").asBoolean(false));
+            } else if ("unsubscribe".equals(type)) {
+                unsubscribe(session, jobId);
+            }
+        } catch (IOException e) {
+            logger.debug("Ignoring malformed WebSocket message from {}", session.getId());
+        }
+    }
+
+    /**
+     * Called when a WebSocket connection is closed.
+     * Removes the session from every job it was subscribed to.
+     *
+     * @param session The closed session.
+     * @param status  The close status.
+     */
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        outboxes.remove(session.getId());
+        verboseSessions.remove(session.getId());
+        Set<String> jobIds = subscriptions.remove(session.getId());
+        if (jobIds != null) {
+            for (String jobId : jobIds) {
+                removeSubscriber(jobId, session);
+            }
+        }
+    }
+
+    /**
+     * Sends a free-text status update to the verbose clients subscribed to the
+     * current job, as set in {@link JobContext}. Updates sent outside a job are
+     * only logged, so one job's details never reach another job's clients.
      *
      * @param status The status message to send.
      */
     public void sendUpdate(String status) {
+        String jobId = JobContext.currentJobId();
+        if (jobId == null) {
+            logger.debug("Status update outside a job: {}", status);
+            return;
+        }
+        sendUpdate(jobId, status);
+    }
+
+    /**
+     * Queues a free-text status update for the verbose clients subscribed to a
+     * job. Never blocks; the updates are sent by each session's outbox.
+     *
+     * @param jobId  The job the update belongs to.
+     * @param status The status message to send.
+     */
+    public void sendUpdate(String jobId, String status) {
+        Map<String, String> message = new LinkedHashMap<>();
+        message.put("type", "log");
+        message.put("jobId", jobId);
+        message.put("message", status);
+        deliver(jobId, message, true);
+    }
+
+    /**
+     * Reports the progress of the current job, as set in {@link JobContext}.
+     *
+     * @param stage The current stage.
+     * @param done  Items finished in the stage.
+     * @param total Total number of items in the stage, or 0 if not countable.
+     */
+    public void sendProgress(ProgressEvent.Stage stage, int done, int total) {
+        String jobId = JobContext.currentJobId();
+        if (jobId != null) {
+            sendProgress(jobId, stage, done, total);
+        }
+    }
+
+    /**
+     * Reports that the current job entered a stage without countable items.
+     *
+     * @param stage The current stage.
+     */
+    public void sendProgress(ProgressEvent.Stage stage) {
+        sendProgress(stage, 0, 0);
+    }
+
+    /**
+     * Reports the progress of a job to all of its subscribers. Events within
+     * the configured interval of the previous one are dropped, unless they
+     * start a stage, finish it, or end the job.
+     *
+     * @param jobId The job ID.
+     * @param stage The current stage.
+     * @param done  Items finished in the stage.
+     * @param total Total number of items in the stage, or 0 if not countable.
+     */
+    public void sendProgress(String jobId, ProgressEvent.Stage stage, int done, int total) {
+        ProgressEvent event = progressTracker.update(jobId, stage, done, total);
+        if (event != null) {
+            deliver(jobId, event, false);
+        }
+    }
+
+    /**
+     * Serializes a message once and queues it for the subscribers of a job.
+     *
+     * @param jobId       The job the message belongs to.
+     * @param message     The message to serialize as JSON.
+     * @param verboseOnly Whether only verbose subscribers receive it.
+     */
+    private static void deliver(String jobId, Object message, boolean verboseOnly) {
+        Set<WebSocketSession> sessions = subscribers.get(jobId);
+        if (sessions == null) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(message);
+        } catch (IOException e) {
+            logger.warn("Could not serialize status update: {}", e.getMessage());
+            return;
+        }
         for (WebSocketSession session : sessions) {
-            if (session.isOpen()) {
-                try {
-                    session.sendMessage(new TextMessage(status));
-                } catch (IOException e) {
-                    System.err.println("Failed to send Selenium update: " + e.getMessage());
-                }
+            if (verboseOnly && !verboseSessions.contains(session.getId())) {
+                continue;
+            }
+            SessionOutbox outbox = outboxes.get(session.getId());
+            if (outbox != null && session.isOpen()) {
+                outbox.offer(json);
+            }
+        }
+    }
+
+    /**
+     * Subscribes a session to a job and sends it the job's latest progress.
+     *
+     * @param session The session.
+     * @param jobId   The job ID.
+     * @param verbose Whether the session also receives free-text log messages.
+     */
+    private static void subscribe(WebSocketSession session, String jobId, boolean verbose) {
+        if (verbose) {
+            verboseSessions.add(session.getId());
+        }
+        // Add inside compute so a concurrent removeSubscriber cannot drop the set in between
+        subscribers.compute(jobId, (key, sessions) -> {
+            Set<WebSocketSession> updated = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            updated.add(session);
+            return updated;
+        });
+        subscriptions.computeIfAbsent(session.getId(), key -> ConcurrentHashMap.newKeySet()).add(jobId);
+
+        ProgressEvent latest = progressTracker.getLatest(jobId);
+        SessionOutbox outbox = outboxes.get(session.getId());
+        if (latest != null && outbox != null) {
+            try {
+                outbox.offer(objectMapper.writeValueAsString(latest));
+            } catch (IOException e) {
+                logger.warn("Could not serialize progress event: {}", e.getMessage());
             }
         }
     }
+
+    /**
+     * Unsubscribes a session from a job.
+     *
+     * @param session The session.
+     * @param jobId   The job ID.
+     */
+    private static void unsubscribe(WebSocketSession session, String jobId) {
+        Set<String> jobIds = subscriptions.get(session.getId());
+        if (jobIds != null) {
+            jobIds.remove(jobId);
+        }
+        removeSubscriber(jobId, session);
+    }
+
+    /**
+     * Removes a session from a job's subscribers, dropping the job once nobody
+     * listens to it.
+     *
+     * @param jobId   The job ID.
+     * @param session The session.
+     */
+    private static void removeSubscriber(String jobId, WebSocketSession session) {
+        subscribers.computeIfPresent(jobId, (key, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
 }
@@ -0,0 +1,244 @@
+package com.reportweaver.reportweaver.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of outgoing status updates for one WebSocket session.
+ * Pipeline threads only enqueue; a sender thread drains the queue and sends
+ * everything that accumulated as a single newline-separated frame, at most one
+ * frame per flush interval. A slow or stalled client therefore never blocks
+ * scraping, and when its queue is full the overflow policy decides what is
+ * lost.
+ */
+public class SessionOutbox {
+
+    /**
+     * What happens to an update when a session's queue is full.
+     */
+    public enum OverflowPolicy {
+        // Discard the oldest queued update to make room.
+        DROP_OLDEST,
+        // Discard the new update.
+        DROP_NEWEST,
+        // Close the session; the client can reconnect and subscribe again.
+        CLOSE
+    }
+
+    // Logger instance for logging delivery problems.
+    private static final Logger logger = LoggerFactory.getLogger(SessionOutbox.class);
+
+    // Delays each drain until the flush interval has passed.
+    private static final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(
+            daemonThreads("ws-flush-"));
+
+    // Runs the sends, so a stalled session only holds up its own sender thread.
+    private static final ExecutorService senders = Executors.newCachedThreadPool(daemonThreads("ws-sender-"));
+
+    // Counters shared by all outboxes, exposed through getOutboxStats().
+    private static final AtomicLong framesSent = new AtomicLong();
+    private static final AtomicLong updatesSent = new AtomicLong();
+    private static final AtomicLong updatesDropped = new AtomicLong();
+    private static final AtomicLong sessionsClosed = new AtomicLong();
+
+    // The session the updates are sent to.
+    private final WebSocketSession session;
+
+    // Maximum number of queued updates.
+    private final int capacity;
+
+    // Minimum time between two frames, in milliseconds.
+    private final long flushIntervalMillis;
+
+    // What happens to updates when the queue is full.
+    private final OverflowPolicy overflowPolicy;
+
+    // Updates waiting to be sent; guarded by this outbox.
+    private final Deque<String> pending = new ArrayDeque<>();
+
+    // Whether a drain is scheduled or running; guarded by this outbox.
+    private boolean drainScheduled;
+
+    /**
+     * Constructs a SessionOutbox for a session.
+     *
+     * @param session             The session the updates are sent to.
+     * @param capacity            Maximum number of queued updates.
+     * @param flushIntervalMillis Minimum time between two frames, in
+     *                            milliseconds.
+     * @param overflowPolicy      What happens to updates when the queue is full.
+     */
+    public SessionOutbox(WebSocketSession session, int capacity, long flushIntervalMillis,
+            OverflowPolicy overflowPolicy) {
+        this.session = session;
+        this.capacity = Math.max(1, capacity);
+        this.flushIntervalMillis = Math.max(0, flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Queues an update without blocking.
+     *
+     * @param update The update to send.
+     */
+    public void offer(String update) {
+        boolean scheduleDrain;
+        synchronized (this) {
+            if (pending.size() >= capacity) {
+                updatesDropped.incrementAndGet();
+                switch (overflowPolicy) {
+                    case DROP_OLDEST -> pending.pollFirst();
+                    case DROP_NEWEST -> {
+                        return;
+                    }
+                    case CLOSE -> {
+                        pending.clear();
+                        senders.execute(this::closeOverflowingSession);
+                        return;
+                    }
+                }
+            }
+            pending.addLast(update);
+            scheduleDrain = !drainScheduled;
+            drainScheduled = true;
+        }
+        if (scheduleDrain) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the counters shared by all outboxes.
+     *
+     * @return The current outbox statistics.
+     */
+    public static OutboxStats getOutboxStats() {
+        return new OutboxStats(framesSent.get(), updatesSent.get(), updatesDropped.get(), sessionsClosed.get());
+    }
+
+    /**
+     * Schedules a drain after the flush interval, collecting the updates of a
+     * burst into one frame.
+     */
+    private void scheduleDrain() {
+        flushScheduler.schedule(() -> senders.execute(this::drain), flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends every queued update as one frame, then schedules the next drain if
+     * more updates arrived in the meantime.
+     */
+    private void drain() {
+        String frame;
+        int updates;
+        synchronized (this) {
+            if (pending.isEmpty() || !session.isOpen()) {
+                pending.clear();
+                drainScheduled = false;
+                return;
+            }
+            updates = pending.size();
+            frame = String.join("\n", pending);
+            pending.clear();
+        }
+
+        try {
+            session.sendMessage(new TextMessage(frame));
+            framesSent.incrementAndGet();
+            updatesSent.addAndGet(updates);
+        } catch (IOException | IllegalStateException e) {
+            updatesDropped.addAndGet(updates);
+            logger.warn("Failed to send Selenium update: {}", e.getMessage());
+        }
+
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                drainScheduled = false;
+                return;
+            }
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Closes a session whose queue overflowed.
+     */
+    private void closeOverflowingSession() {
+        try {
+            if (session.isOpen()) {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                sessionsClosed.incrementAndGet();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close overflowing WebSocket session: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates a factory for named daemon threads, so the outboxes never keep the
+     * application alive.
+     *
+     * @param namePrefix Prefix of the thread names.
+     * @return The thread factory.
+     */
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Point-in-time statistics about WebSocket delivery.
+     */
+    public static final class OutboxStats {
+
+        private final long framesSent;
+        private final long updatesSent;
+        private final long updatesDropped;
+        private final long sessionsClosed;
+
+        private OutboxStats(long framesSent, long updatesSent, long updatesDropped, long sessionsClosed) {
+            this.framesSent = framesSent;
+            this.updatesSent = updatesSent;
+            this.updatesDropped = updatesDropped;
+            this.sessionsClosed = sessionsClosed;
+        }
+
+        /** @return The number of frames sent. */
+        public long getFramesSent() {
+            return framesSent;
+        }
+
+        /** @return The number of updates delivered inside those frames. */
+        public long getUpdatesSent() {
+            return updatesSent;
+        }
+
+        /** @return The number of updates lost to full queues or failed sends. */
+        public long getUpdatesDropped() {
+            return updatesDropped;
+        }
+
+        /** @return The number of sessions closed because their queue overflowed. */
+        public long getSessionsClosed() {
+            return sessionsClosed;
+        }
+    }
+}
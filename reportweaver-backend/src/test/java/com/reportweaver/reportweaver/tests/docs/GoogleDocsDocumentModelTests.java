@@ -0,0 +1,107 @@
+package com.reportweaver.reportweaver.tests.docs;
+
+import com.google.api.services.docs.v1.model.Request;
+import com.reportweaver.reportweaver.util.GoogleDocsDocumentModel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GoogleDocsDocumentModelTests {
+
+    @Test
+    public void computesForwardIndicesForStylesAndLinks() {
+        GoogleDocsDocumentModel document = new GoogleDocsDocumentModel()
+                .heading("Summary", 3)
+                .boldParagraph("Quantity\tErrors")
+                .linkParagraph("2\t\t", "About", "https://www.example.edu/about");
+
+        assertEquals("Summary\nQuantity\tErrors\n2\t\tAbout\n", document.getText());
+
+        List<Request> requests = document.toRequests(10_000);
+        assertEquals(5, requests.size());
+
+        // One insertion for the whole document, at the start of the body
+        assertEquals(document.getText(), requests.get(0).getInsertText().getText());
+        assertEquals(1, requests.get(0).getInsertText().getLocation().getIndex());
+
+        // The heading style stops before the paragraph's newline
+        assertEquals("HEADING_3", requests.get(2).getUpdateParagraphStyle().getParagraphStyle().getNamedStyleType());
+        assertEquals(8, requests.get(2).getUpdateParagraphStyle().getRange().getEndIndex());
+
+        // Bold header "Quantity\tErrors" starts right after "Summary\n"
+        assertEquals(9, requests.get(3).getUpdateTextStyle().getRange().getStartIndex());
+        assertEquals(24, requests.get(3).getUpdateTextStyle().getRange().getEndIndex());
+
+        // The link covers only the title of the row
+        assertEquals(28, requests.get(4).getUpdateTextStyle().getRange().getStartIndex());
+        assertEquals(33, requests.get(4).getUpdateTextStyle().getRange().getEndIndex());
+    }
+
+    @Test
+    public void splitsLongDocumentsIntoConsecutiveInsertions() {
+        GoogleDocsDocumentModel document = new GoogleDocsDocumentModel();
+        for (int i = 0; i < 10; i++) {
+            document.paragraph("line " + i);
+        }
+
+        int nextIndex = 1;
+        StringBuilder inserted = new StringBuilder();
+        for (Request request : document.toRequests(20)) {
+            if (request.getInsertText() != null) {
+                assertEquals(nextIndex, request.getInsertText().getLocation().getIndex());
+                nextIndex += request.getInsertText().getText().length();
+                inserted.append(request.getInsertText().getText());
+            }
+        }
+        assertEquals(document.getText(), inserted.toString());
+    }
+
+    @Test
+    public void updatesOnlyChangedParagraphsFromTheEndBackwards() {
+        GoogleDocsDocumentModel previous = new GoogleDocsDocumentModel()
+                .heading("Summary", 3)
+                .paragraph("3\t\tMissing alt text")
+                .paragraph("1\t\tEmpty link")
+                .heading("Errors by Page", 3)
+                .linkParagraph("2\t\t", "Home", "https://example.com/")
+                .linkParagraph("1\t\t", "About", "https://example.com/about");
+        GoogleDocsDocumentModel current = new GoogleDocsDocumentModel()
+                .heading("Summary", 3)
+                .paragraph("4\t\tMissing alt text")
+                .paragraph("1\t\tEmpty link")
+                .heading("Errors by Page", 3)
+                .linkParagraph("2\t\t", "Home", "https://example.com/")
+                .linkParagraph("1\t\t", "About", "https://example.com/about")
+                .linkParagraph("1\t\t", "Contact", "https://example.com/contact");
+
+        List<Request> requests = current.toUpdateRequests(previous, 100);
+
+        // Apply the edits to the previous text the way the Docs API would
+        StringBuilder document = new StringBuilder(previous.getText());
+        int lastIndex = Integer.MAX_VALUE;
+        for (Request request : requests) {
+            if (request.getDeleteContentRange() != null) {
+                int start = request.getDeleteContentRange().getRange().getStartIndex();
+                assertTrue(start <= lastIndex);
+                lastIndex = start;
+                document.delete(start - 1, request.getDeleteContentRange().getRange().getEndIndex() - 1);
+            } else if (request.getInsertText() != null) {
+                int index = request.getInsertText().getLocation().getIndex();
+                assertTrue(index <= lastIndex);
+                lastIndex = index;
+                document.insert(index - 1, request.getInsertText().getText());
+            }
+        }
+        assertEquals(current.getText(), document.toString());
+
+        // Only the changed count and the new row are rewritten
+        assertEquals(2, requests.stream().filter(request -> request.getInsertText() != null).count());
+        assertTrue(current.toUpdateRequests(current, 100).isEmpty());
+        assertNull(current.toUpdateRequests(previous, 1));
+    }
+}
@@ -0,0 +1,140 @@
+package com.reportweaver.reportweaver.tests.download;
+
+import com.reportweaver.reportweaver.util.DownloadUtil;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class DownloadUtilTests {
+
+    @Test
+    public void detectsFileOnceRenamedFromCrdownload() throws Exception {
+        Path directory = DownloadUtil.createJobDownloadDirectory();
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            long startTime = System.currentTimeMillis();
+
+            // Simulate Chrome writing a partial file and renaming it when done
+            CompletableFuture<Void> download = CompletableFuture.runAsync(() -> {
+                try {
+                    Path partial = Files.writeString(directory.resolve("Unconfirmed 1.crdownload"), "<html>");
+                    Thread.sleep(200);
+                    Files.move(partial, directory.resolve("report.html"));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            File file = DownloadUtil.waitForFileDownload(watchService, directory, 10, startTime);
+            download.join();
+            assertEquals("report.html", file.getName());
+        } finally {
+            DownloadUtil.deleteJobDownloadDirectory(directory);
+        }
+        assertFalse(Files.exists(directory));
+    }
+
+    @Test
+    public void timesOutWhenNothingIsDownloaded() throws Exception {
+        Path directory = DownloadUtil.createJobDownloadDirectory();
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+            assertNull(DownloadUtil.waitForFileDownload(watchService, directory, 1, System.currentTimeMillis()));
+        } finally {
+            DownloadUtil.deleteJobDownloadDirectory(directory);
+        }
+    }
+
+    @Test
+    public void sendsOnlyCookiesScopedToTheRequestUrl() {
+        Set<Cookie> cookies = Set.of(
+                new Cookie.Builder("sid", "abc").domain(".pope.tech").path("/").isSecure(true).build(),
+                new Cookie.Builder("pref", "x").domain("app.pope.tech").path("/reports").build(),
+                new Cookie.Builder("other", "y").domain("example.com").path("/").build());
+
+        assertEquals("sid=abc", DownloadUtil.cookieHeader(cookies, URI.create("https://app.pope.tech/files/a.html")));
+        assertEquals("pref=x", DownloadUtil.cookieHeader(cookies, URI.create("http://app.pope.tech/reports/1")));
+        assertEquals("", DownloadUtil.cookieHeader(cookies, URI.create("https://cdn.example.net/a.html")));
+        // "/reportsx" is not under the "/reports" path
+        assertEquals("sid=abc", DownloadUtil.cookieHeader(cookies, URI.create("https://app.pope.tech/reportsx")));
+    }
+
+    @Test
+    public void refusesPagesAndKeepsCookiesOffOtherHostsAcrossRedirects() throws Exception {
+        List<String> cookieHeaders = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        int port = server.getAddress().getPort();
+        server.createContext("/", exchange -> {
+            cookieHeaders.add(exchange.getRequestURI().getPath() + ":"
+                    + exchange.getRequestHeaders().getOrDefault("Cookie", List.of()));
+            byte[] body = "<html><app-root></app-root></html>".getBytes(StandardCharsets.UTF_8);
+            switch (exchange.getRequestURI().getPath()) {
+                case "/redirect" -> {
+                    // Same server under another host name, which must not get the cookie
+                    exchange.getResponseHeaders().add("Location", "http://localhost:" + port + "/file");
+                    exchange.sendResponseHeaders(302, -1);
+                }
+                case "/file" -> {
+                    exchange.getResponseHeaders().add("Content-Disposition", "attachment; filename=\"r.html\"");
+                    exchange.getResponseHeaders().add("Content-Type", "text/html");
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                default -> {
+                    exchange.getResponseHeaders().add("Content-Type", "text/html");
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+
+        WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class)
+                .defaultAnswer(RETURNS_DEEP_STUBS));
+        when(driver.manage().getCookies()).thenReturn(
+                Set.of(new Cookie.Builder("sid", "abc").domain("127.0.0.1").path("/").build()));
+        when(((JavascriptExecutor) driver).executeScript("return navigator.userAgent;")).thenReturn("test");
+        Path directory = DownloadUtil.createJobDownloadDirectory();
+        try {
+            // An app route answers with its HTML shell, which is not the report
+            assertNull(DownloadUtil.downloadWithSession(driver, "http://127.0.0.1:" + port + "/reports/1",
+                    directory, 10));
+
+            File file = DownloadUtil.downloadWithSession(driver, "http://127.0.0.1:" + port + "/redirect",
+                    directory, 10);
+            assertNotNull(file);
+            assertEquals("r.html", file.getName());
+            assertEquals(List.of("/reports/1:[sid=abc]", "/redirect:[sid=abc]", "/file:[]"), cookieHeaders);
+        } finally {
+            server.stop(0);
+            DownloadUtil.deleteJobDownloadDirectory(directory);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.reportweaver.reportweaver.tests.google;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.reportweaver.reportweaver.util.GoogleApiQuotaManager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GoogleApiQuotaManagerTests {
+
+    private static final GenericUrl URL = new GenericUrl("https://docs.googleapis.com/v1/documents/1:batchUpdate");
+
+    @Test
+    public void retriesRateLimitedResponsesUntilSuccess() throws Exception {
+        GoogleApiQuotaManager quotaManager = new GoogleApiQuotaManager(6000, 6000, 6000, 6000, 3, 1, 5);
+        AtomicInteger calls = new AtomicInteger();
+        MockHttpTransport transport = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() {
+                        int status = calls.incrementAndGet() <= 2 ? 429 : 200;
+                        return new MockLowLevelHttpResponse().setStatusCode(status).setContent("{}");
+                    }
+                };
+            }
+        };
+
+        HttpResponse response = transport
+                .createRequestFactory(quotaManager.initializer(GoogleApiQuotaManager.DOCS_API, request -> {
+                }))
+                .buildGetRequest(URL)
+                .execute();
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(3, calls.get());
+        assertEquals(2, quotaManager.getQuotaStats().getRetries());
+        assertEquals(2, quotaManager.getQuotaStats().getRateLimitedResponses());
+        assertEquals(3, quotaManager.getQuotaStats().getRequests());
+    }
+
+    @Test
+    public void givesUpAfterMaxRetries() {
+        GoogleApiQuotaManager quotaManager = new GoogleApiQuotaManager(6000, 6000, 6000, 6000, 2, 1, 5);
+        MockHttpTransport transport = new MockHttpTransport.Builder()
+                .setLowLevelHttpResponse(new MockLowLevelHttpResponse().setStatusCode(503))
+                .build();
+
+        assertThrows(HttpResponseException.class, () -> transport
+                .createRequestFactory(quotaManager.initializer(GoogleApiQuotaManager.DOCS_API, request -> {
+                }))
+                .buildGetRequest(URL)
+                .execute());
+        assertEquals(2, quotaManager.getQuotaStats().getRetries());
+        assertEquals(1, quotaManager.getQuotaStats().getExhaustedRequests());
+    }
+}
@@ -0,0 +1,220 @@
+package com.reportweaver.reportweaver.tests.jobs;
+
+import com.reportweaver.reportweaver.model.ReportJob;
+import com.reportweaver.reportweaver.service.GoogleDocsService;
+import com.reportweaver.reportweaver.service.ReportJobService;
+import com.reportweaver.reportweaver.service.ReportService;
+import com.reportweaver.reportweaver.util.SecretCipher;
+import com.reportweaver.reportweaver.util.TaskExecutorFactory;
+import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReportJobServiceTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void rejectsJobsOnceTheQueueIsFullAndReportsQueuePositions() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReportService reportService = mock(ReportService.class);
+        when(reportService.generateReport(anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return "doc-1";
+                });
+        ReportJobService service = newService(reportService, 1, 2, 168);
+        try {
+            ReportJob running = service.submit("a.example.edu", "user", "secret", "a@example.edu");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            ReportJob first = service.submit("b.example.edu", "user", "secret", "b@example.edu");
+            Thread.sleep(5);
+            ReportJob second = service.submit("c.example.edu", "user", "secret", "c@example.edu");
+
+            // The controller answers this with 429 Too Many Requests
+            assertThrows(RejectedExecutionException.class,
+                    () -> service.submit("d.example.edu", "user", "secret", "d@example.edu"));
+            assertEquals(2, service.getQueuedJobCount());
+            assertEquals(0, service.getQueuePosition(running));
+            assertEquals(0, service.getQueuePosition(first));
+            assertEquals(1, service.getQueuePosition(second));
+            assertEquals(3, countJobFiles());
+
+            release.countDown();
+            awaitStatus(service, second, ReportJob.Status.COMPLETED);
+            assertEquals("doc-1", second.getDocumentId());
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void resumesPersistedJobsAfterARestart() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ReportService stoppedService = mock(ReportService.class);
+        when(stoppedService.generateReport(anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return "never";
+                });
+        ReportJobService stopped = newService(stoppedService, 1, 5, 168);
+        ReportJob running = stopped.submit("a.example.edu", "user", "secret", "a@example.edu");
+        ReportJob queued = stopped.submit("b.example.edu", "user", "secret", "b@example.edu");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        stopped.shutdown();
+
+        // The pipeline runs on the job thread, so shutting down stops it too
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        // A new instance picks both jobs up from the job directory
+        ReportService reportService = mock(ReportService.class);
+        when(reportService.generateReport(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn("doc-2");
+        ReportJobService restarted = newService(reportService, 1, 5, 168);
+        try {
+            restarted.resumePersistedJobs();
+            ReportJob resumedRunning = awaitStatus(restarted, running, ReportJob.Status.COMPLETED);
+            ReportJob resumedQueued = awaitStatus(restarted, queued, ReportJob.Status.COMPLETED);
+            assertEquals("doc-2", resumedRunning.getDocumentId());
+            assertEquals("doc-2", resumedQueued.getDocumentId());
+            verify(reportService).generateReport("a.example.edu", "user", "secret", "a@example.edu");
+            verify(reportService).generateReport("b.example.edu", "user", "secret", "b@example.edu");
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    public void removesFinishedJobsPastTheirRetention() throws Exception {
+        ReportService reportService = mock(ReportService.class);
+        when(reportService.generateReport(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn("doc-3");
+        ReportJobService service = newService(reportService, 1, 5, 0);
+        try {
+            ReportJob job = service.submit("a.example.edu", "user", "secret", "a@example.edu");
+            awaitStatus(service, job, ReportJob.Status.COMPLETED);
+            Thread.sleep(5);
+
+            assertEquals(1, service.removeExpiredJobs());
+            assertNull(service.getJob(job.getJobId()));
+            assertFalse(Files.exists(directory.resolve("jobs").resolve(job.getJobId() + ".json")));
+            assertEquals(0, service.removeExpiredJobs());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void attachesRequestsForTheSameAccountAndPasswordToTheRunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReportService reportService = mock(ReportService.class);
+        when(reportService.generateReport(anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return "doc-" + invocation.getArgument(2);
+                });
+        GoogleDocsService googleDocsService = mock(GoogleDocsService.class);
+        ReportJobService service = newService(reportService, googleDocsService, 2, 5, 168);
+        try {
+            ReportJob job = service.submit("a.example.edu", "user", "secret", "a@example.edu");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Website and username are normalized before they are compared
+            ReportJob attached = service.submit("https://www.a.example.edu/", "USER", "secret", "b@example.edu");
+            assertSame(job, attached);
+            assertEquals(List.of("b@example.edu"), job.getAdditionalEmails());
+
+            // Another password starts its own job, which later requests with it join
+            ReportJob otherPassword = service.submit("a.example.edu", "user", "other", "c@example.edu");
+            assertNotSame(job, otherPassword);
+            assertSame(otherPassword, service.submit("a.example.edu", "user", "other", "d@example.edu"));
+
+            release.countDown();
+            awaitStatus(service, job, ReportJob.Status.COMPLETED);
+            awaitStatus(service, otherPassword, ReportJob.Status.COMPLETED);
+            verify(reportService, times(2)).generateReport(anyString(), anyString(), anyString(), anyString());
+            verify(googleDocsService).shareDocument("doc-secret", "b@example.edu");
+            verify(googleDocsService).shareDocument("doc-other", "d@example.edu");
+            verify(googleDocsService, never()).shareDocument("doc-secret", "d@example.edu");
+
+            // Once the job has finished a new request starts over
+            ReportJob next = service.submit("a.example.edu", "user", "secret", "e@example.edu");
+            assertNotSame(job, next);
+            awaitStatus(service, next, ReportJob.Status.COMPLETED);
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    private ReportJobService newService(ReportService reportService, int concurrency, int queueCapacity,
+            long retentionHours) throws IOException {
+        return newService(reportService, mock(GoogleDocsService.class), concurrency, queueCapacity,
+                retentionHours);
+    }
+
+    private ReportJobService newService(ReportService reportService, GoogleDocsService googleDocsService,
+            int concurrency, int queueCapacity, long retentionHours) throws IOException {
+        return new ReportJobService(reportService, new SecretCipher(directory.resolve("secret.key").toString()),
+                googleDocsService, new TaskExecutorFactory(new MockEnvironment()),
+                new SeleniumStatusHandler(), concurrency, queueCapacity, directory.resolve("jobs").toString(),
+                retentionHours);
+    }
+
+    private ReportJob awaitStatus(ReportJobService service, ReportJob job, ReportJob.Status status)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            ReportJob current = service.getJob(job.getJobId());
+            if (current != null && current.getStatus() == status) {
+                return current;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Job " + job.getJobId() + " did not reach " + status);
+    }
+
+    private long countJobFiles() throws IOException {
+        try (var files = Files.list(directory.resolve("jobs"))) {
+            return files.filter(file -> file.toString().endsWith(".json")).count();
+        }
+    }
+}
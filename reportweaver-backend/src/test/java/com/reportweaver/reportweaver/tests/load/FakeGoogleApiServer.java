@@ -0,0 +1,152 @@
+package com.reportweaver.reportweaver.tests.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded HTTP server standing in for the Google Docs and Drive REST
+ * endpoints the application calls: creating, reading and batch-updating a
+ * document, and sharing it. Point the application at it with the
+ * GOOGLE_API_ROOT_URL environment variable; requests are counted, answered
+ * with minimal valid responses and optionally delayed.
+ */
+public class FakeGoogleApiServer implements AutoCloseable {
+
+    // Paths of the supported endpoints, relative to the root URL.
+    private static final Pattern DOCUMENT_PATH = Pattern.compile("^/v1/documents/([^/:]+)$");
+    private static final Pattern BATCH_UPDATE_PATH = Pattern.compile("^/v1/documents/([^/:]+):batchUpdate$");
+    private static final Pattern PERMISSIONS_PATH = Pattern.compile("^/drive/v3/files/([^/]+)/permissions$");
+
+    // The embedded server.
+    private final HttpServer server;
+
+    // Threads answering requests.
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // Delay added to every response, in milliseconds.
+    private final long latencyMillis;
+
+    // Sequence for generated document and permission IDs.
+    private final AtomicLong ids = new AtomicLong();
+
+    // Number of calls per API method, for the load report.
+    private final Map<String, AtomicLong> callCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Starts a FakeGoogleApiServer on a free local port.
+     *
+     * @param latencyMillis Delay added to every response, in milliseconds.
+     * @throws IOException If the server cannot be started.
+     */
+    public FakeGoogleApiServer(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Retrieves the root URL to use as GOOGLE_API_ROOT_URL.
+     *
+     * @return The root URL, ending with a slash.
+     */
+    public String getRootUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Retrieves the number of calls per API method.
+     *
+     * @return The call counts, keyed by method, e.g. "docs.batchUpdate".
+     */
+    public Map<String, Long> getCallCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        callCounts.forEach((method, count) -> counts.put(method, count.get()));
+        return counts;
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Answers a request to one of the supported endpoints.
+     *
+     * @param exchange The request and response.
+     * @throws IOException If the response cannot be written.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Matcher matcher;
+            if ("POST".equals(method) && path.equals("/v1/documents")) {
+                String documentId = "doc-" + ids.incrementAndGet();
+                json(exchange, "docs.create", 200,
+                        "{\"documentId\":\"" + documentId + "\",\"title\":\"Error Report\"}");
+            } else if ("POST".equals(method) && (matcher = BATCH_UPDATE_PATH.matcher(path)).matches()) {
+                json(exchange, "docs.batchUpdate", 200,
+                        "{\"documentId\":\"" + matcher.group(1) + "\",\"replies\":[]}");
+            } else if ("GET".equals(method) && (matcher = DOCUMENT_PATH.matcher(path)).matches()) {
+                // An empty body never matches a previous report, so incremental
+                // publishing falls back to creating a new document
+                json(exchange, "docs.get", 200,
+                        "{\"documentId\":\"" + matcher.group(1) + "\",\"body\":{\"content\":[]}}");
+            } else if ("POST".equals(method) && PERMISSIONS_PATH.matcher(path).matches()) {
+                json(exchange, "drive.permissions.create", 200,
+                        "{\"kind\":\"drive#permission\",\"id\":\"perm-" + ids.incrementAndGet() + "\"}");
+            } else {
+                json(exchange, "unsupported", 404,
+                        "{\"error\":{\"code\":404,\"message\":\"Unsupported endpoint " + method + " " + path + "\"}}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Counts a call and writes its JSON response.
+     *
+     * @param exchange  The request and response.
+     * @param apiMethod The API method the request called.
+     * @param status    The HTTP status.
+     * @param json      The response body.
+     * @throws IOException If the response cannot be written.
+     */
+    private void json(HttpExchange exchange, String apiMethod, int status, String json) throws IOException {
+        callCounts.computeIfAbsent(apiMethod, key -> new AtomicLong()).incrementAndGet();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
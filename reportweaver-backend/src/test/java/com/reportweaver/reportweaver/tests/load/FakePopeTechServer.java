@@ -0,0 +1,336 @@
+package com.reportweaver.reportweaver.tests.load;
+
+import com.reportweaver.reportweaver.tests.synthetic.SyntheticReportGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP server imitating the parts of PopeTech the report pipeline
+ * uses: the SSO login with its IdP and Duo steps, the dashboard navigation,
+ * the paginated reports table, the downloadable HTML report, the rule
+ * documentation pages and the paginated error count tables.
+ * Pages use the same element IDs and CSS selectors as the real site, so the
+ * unmodified Selenium code runs against it. Report content comes from a
+ * {@link SyntheticReportGenerator}, so repeated runs serve identical reports.
+ */
+public class FakePopeTechServer implements AutoCloseable {
+
+    // Name of the cookie that marks an authenticated browser.
+    private static final String SESSION_COOKIE = "pt_session";
+
+    // The embedded server.
+    private final HttpServer server;
+
+    // Threads answering requests.
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // Websites that have a report in the reports table.
+    private final List<String> websites;
+
+    // Generates the reports, documentation and error count pages.
+    private final SyntheticReportGenerator generator;
+
+    // Number of rows per page of the reports table.
+    private final int reportRowsPerPage;
+
+    // Delay added to every response, in milliseconds.
+    private final long latencyMillis;
+
+    // Session cookies handed out by the Duo step.
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    // Number of requests served per page kind, for the load report.
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Starts a FakePopeTechServer on a free local port.
+     *
+     * @param websites          Websites that have a report.
+     * @param generator         Generates the content of every report.
+     * @param reportRowsPerPage Number of rows per page of the reports table.
+     * @param latencyMillis     Delay added to every response, in milliseconds.
+     * @throws IOException If the server cannot be started.
+     */
+    public FakePopeTechServer(List<String> websites, SyntheticReportGenerator generator, int reportRowsPerPage,
+            long latencyMillis) throws IOException {
+        this.websites = List.copyOf(websites);
+        this.generator = generator;
+        this.reportRowsPerPage = Math.max(1, reportRowsPerPage);
+        this.latencyMillis = latencyMillis;
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Retrieves the origin of the server.
+     *
+     * @return The scheme, host and port, e.g. "http://127.0.0.1:41234".
+     */
+    public String getOrigin() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Retrieves the URL of the login page, used as POPE_TECH_URL.
+     *
+     * @return The login URL.
+     */
+    public String getLoginUrl() {
+        return getOrigin() + "/login";
+    }
+
+    /**
+     * Retrieves the number of requests served per page kind.
+     *
+     * @return The request counts, keyed by page kind.
+     */
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        requestCounts.forEach((kind, count) -> counts.put(kind, count.get()));
+        return counts;
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Routes a request to the page it asks for.
+     *
+     * @param exchange The request and response.
+     * @throws IOException If the response cannot be written.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String[] parts = path.split("/");
+
+            if (path.equals("/favicon.ico")) {
+                respond(exchange, "favicon", 200, "image/x-icon", new byte[0]);
+            } else if (path.equals("/login")) {
+                html(exchange, "login", loginPage(query.getOrDefault("return", "/")));
+            } else if (path.equals("/idp")) {
+                html(exchange, "idp", idpPage(query.getOrDefault("return", "/")));
+            } else if (path.equals("/duo")) {
+                html(exchange, "duo", duoPage(query.getOrDefault("return", "/")));
+            } else if (path.equals("/trust")) {
+                trust(exchange, query.getOrDefault("return", "/"));
+            } else if (parts.length == 4 && parts[1].equals("docs")) {
+                html(exchange, "documentation", documentationPage(parts[2], parts[3]));
+            } else if (!isAuthenticated(exchange)) {
+                // PopeTech shows its login form in place of protected pages
+                html(exchange, "login", loginPage(exchange.getRequestURI().toString()));
+            } else if (path.equals("/")) {
+                html(exchange, "dashboard", dashboardPage());
+            } else if (path.equals("/reports")) {
+                html(exchange, "reports", reportsPage(Integer.parseInt(query.getOrDefault("page", "1"))));
+            } else if (parts.length == 3 && parts[1].equals("files") && path.endsWith(".html")) {
+                download(exchange, parts[2].substring(0, parts[2].length() - ".html".length()));
+            } else if (parts.length == 4 && parts[1].equals("results")) {
+                html(exchange, "error-details", errorDetailsPage(parts[2], parts[3]));
+            } else if (parts.length == 5 && parts[1].equals("results") && parts[4].equals("pages")) {
+                html(exchange, "error-counts", errorCountPage(parts[2], parts[3],
+                        Integer.parseInt(query.getOrDefault("page", "1"))));
+            } else {
+                respond(exchange, "not-found", 404, "text/plain", "Not found".getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            respond(exchange, "server-error", 500, "text/plain", String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Generates the HTML report of a website, with links back to this server.
+     *
+     * @param website The website.
+     * @return The report HTML.
+     */
+    public String reportHtml(String website) {
+        return generator.reportHtml(website, getOrigin());
+    }
+
+    private String loginPage(String returnPath) {
+        return page("Log in", "<form id=\"login-form\" onsubmit=\"return false\">"
+                + "<input id=\"email\" type=\"email\">"
+                + "<div id=\"login-mode-sso\">Single sign-on</div>"
+                + "<input type=\"hidden\" id=\"sso-enabled\" value=\"true\">"
+                + "<div class=\"form-group form-submission\"><div><div>"
+                + "<button type=\"button\" onclick=\"location.href='/idp?return=" + encode(returnPath)
+                + "'\">Log in</button></div></div></div></form>");
+    }
+
+    private String idpPage(String returnPath) {
+        return page("Sign in", "<div id=\"main-content\">"
+                + "<input id=\"username\"><input id=\"password\" type=\"password\">"
+                + "<div class=\"idp3_form-submit-container\">"
+                + "<button type=\"button\" onclick=\"location.href='/duo?return=" + encode(returnPath)
+                + "'\">Sign in</button></div></div>");
+    }
+
+    private String duoPage(String returnPath) {
+        return page("Duo", "<button id=\"trust-browser-button\" type=\"button\" onclick=\"location.href='/trust?return="
+                + encode(returnPath) + "'\">Yes, this is my device</button>");
+    }
+
+    private String dashboardPage() {
+        return page("Dashboard", navigation());
+    }
+
+    private String navigation() {
+        return "<div id=\"left-sidebar\"><div><app-navigation><div><ul>"
+                + "<li><a href=\"/\">Dashboard</a></li>"
+                + "<li><button type=\"button\" onclick=\"document.getElementById('results-menu').style.display='block'\">"
+                + "Results</button><div id=\"results-menu\" style=\"display:none\"><a href=\"/reports\">Reports</a></div>"
+                + "</li></ul></div></app-navigation></div></div>";
+    }
+
+    private String reportsPage(int page) {
+        // Every website has one HTML report and one PDF report that must be skipped
+        int totalRows = websites.size() * 2;
+        int lastPage = Math.max(1, (totalRows + reportRowsPerPage - 1) / reportRowsPerPage);
+        StringBuilder rows = new StringBuilder();
+        for (int row = (page - 1) * reportRowsPerPage; row < Math.min(totalRows, page * reportRowsPerPage); row++) {
+            String website = websites.get(row / 2);
+            boolean html = row % 2 == 1;
+            String file = "/files/" + website + ".html";
+            rows.append("<tr><td class=\"column-entities\">https://").append(website).append("</td>")
+                    .append("<td class=\"column-format\">").append(html ? "HTML" : "PDF").append("</td>")
+                    .append("<td><span class=\"ng-star-inserted\">Website</span></td><td>")
+                    .append("<button type=\"button\" onclick=\"location.href='").append(file)
+                    .append("'\"><i class=\"fa fa-download\"></i></button></td></tr>");
+        }
+        String next = page < lastPage
+                ? "onclick=\"location.href='/reports?page=" + (page + 1) + "'\""
+                : "disabled";
+        return page("Reports", navigation() + "<div id=\"reports-table\"><data-table><div>"
+                + "<div><table><tbody>" + rows + "</tbody></table></div>"
+                + "<data-table-pagination><div></div><div><div class=\"pagination-pages offset-md-3 col-md-6\">"
+                + "<div><div><button class=\"btn btn-default pagination-nextpage\" " + next + ">Next</button>"
+                + "</div></div></div></div></data-table-pagination></div></data-table></div>");
+    }
+
+    private String documentationPage(String website, String rule) {
+        return page("Documentation", generator.documentationHtml(website, ruleIndex(rule)));
+    }
+
+    private String errorDetailsPage(String website, String rule) {
+        return page("Error details", navigation() + "<table class=\"table\"><tbody><tr>"
+                + "<td>" + rule + "</td><td></td><td></td><td></td><td></td><td></td>"
+                + "<td><a href=\"/results/" + website + "/" + rule + "/pages?page=1\">View pages</a></td>"
+                + "</tr></tbody></table>");
+    }
+
+    private String errorCountPage(String website, String rule, int page) {
+        return page("Affected pages", navigation() + generator.errorCountPageHtml(website, ruleIndex(rule), page));
+    }
+
+    /**
+     * Finds the position of a rule in the report from its slug, which ends
+     * with that position.
+     *
+     * @param rule The rule slug.
+     * @return The position of the rule.
+     */
+    private static int ruleIndex(String rule) {
+        return Integer.parseInt(rule.substring(rule.lastIndexOf('-') + 1));
+    }
+
+    private void trust(HttpExchange exchange, String returnPath) throws IOException {
+        String session = UUID.randomUUID().toString();
+        sessions.add(session);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/");
+        exchange.getResponseHeaders().add("Location", returnPath.startsWith("/") ? returnPath : "/");
+        respond(exchange, "trust", 302, "text/plain", new byte[0]);
+    }
+
+    private void download(HttpExchange exchange, String website) throws IOException {
+        if (!websites.contains(website)) {
+            respond(exchange, "not-found", 404, "text/plain", new byte[0]);
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Disposition", "attachment; filename=\"" + website + ".html\"");
+        respond(exchange, "download", 200, "text/html", reportHtml(website).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean isAuthenticated(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(SESSION_COOKIE) && sessions.contains(pair[1])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void html(HttpExchange exchange, String kind, String html) throws IOException {
+        respond(exchange, kind, 200, "text/html; charset=utf-8", html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void respond(HttpExchange exchange, String kind, int status, String contentType, byte[] body)
+            throws IOException {
+        requestCounts.computeIfAbsent(kind, key -> new AtomicLong()).incrementAndGet();
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String page(String title, String body) {
+        return "<!DOCTYPE html><html><head><title>" + title + "</title></head><body>" + body + "</body></html>";
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            String[] parts = pair.split("=", 2);
+            query.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
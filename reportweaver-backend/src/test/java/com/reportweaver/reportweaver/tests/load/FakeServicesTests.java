@@ -0,0 +1,48 @@
+package com.reportweaver.reportweaver.tests.load;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.docs.v1.Docs;
+import com.google.api.services.docs.v1.model.BatchUpdateDocumentRequest;
+import com.google.api.services.docs.v1.model.Document;
+import com.google.api.services.docs.v1.model.InsertTextRequest;
+import com.google.api.services.docs.v1.model.Location;
+import com.google.api.services.docs.v1.model.Request;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Permission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FakeServicesTests {
+
+    @Test
+    public void testGoogleClientsTalkToFakeApi() throws Exception {
+        try (FakeGoogleApiServer server = new FakeGoogleApiServer(0)) {
+            Docs docs = new Docs.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance(), null)
+                    .setRootUrl(server.getRootUrl())
+                    .setApplicationName("ReportWeaverTests")
+                    .build();
+            Drive drive = new Drive.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance(), null)
+                    .setRootUrl(server.getRootUrl())
+                    .setApplicationName("ReportWeaverTests")
+                    .build();
+
+            Document document = docs.documents().create(new Document().setTitle("Error Report")).execute();
+            docs.documents().batchUpdate(document.getDocumentId(), new BatchUpdateDocumentRequest()
+                    .setRequests(List.of(new Request().setInsertText(new InsertTextRequest()
+                            .setText("Report").setLocation(new Location().setIndex(1))))))
+                    .execute();
+            drive.permissions().create(document.getDocumentId(), new Permission()
+                    .setType("user").setRole("writer").setEmailAddress("user@example.edu")).execute();
+
+            assertEquals("doc-1", document.getDocumentId());
+            assertEquals(Map.of("docs.batchUpdate", 1L, "docs.create", 1L, "drive.permissions.create", 1L),
+                    server.getCallCounts());
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.reportweaver.reportweaver.tests.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportweaver.reportweaver.tests.synthetic.SyntheticReportGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load harness for the report pipeline.
+ * Starts a {@link FakePopeTechServer} and a {@link FakeGoogleApiServer},
+ * launches the application in a child JVM pointed at them with headless job
+ * browsers (or uses an already running instance given with --target), then
+ * submits N report jobs through the REST API with a fixed number of clients
+ * and waits for all of them to finish. Prints throughput, p50/p99 job latency,
+ * rejected submissions, peak Chrome process count, peak heap and RSS, and the
+ * number of calls each fake received.
+ *
+ * <p>
+ * Run with {@code mvn -Pload-test test-compile exec:exec -Dload.args="--jobs 20 --concurrency 5"}.
+ * Requires Chrome and ChromeDriver on the machine, as for normal runs.
+ * </p>
+ */
+public class LoadHarness {
+
+    // Parses the application's JSON responses.
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Client for the application's REST API.
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * Runs the harness.
+     *
+     * @param args Options: --jobs, --concurrency, --errors, --pages,
+     *             --rows, --site-pages, --latency (milliseconds), --seed,
+     *             --timeout (seconds) and --target (URL of a running
+     *             application).
+     * @throws Exception If the fakes or the application cannot be started.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int jobs = Integer.parseInt(options.getOrDefault("jobs", "10"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "5"));
+        int errors = Integer.parseInt(options.getOrDefault("errors", "20"));
+        int pages = Integer.parseInt(options.getOrDefault("pages", "2"));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "10"));
+        int sitePages = Integer.parseInt(options.getOrDefault("site-pages", "0"));
+        long latency = Long.parseLong(options.getOrDefault("latency", "0"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        long timeoutSeconds = Long.parseLong(options.getOrDefault("timeout", "1800"));
+
+        List<String> websites = new ArrayList<>();
+        for (int i = 0; i < jobs; i++) {
+            websites.add("site-" + i + ".example.edu");
+        }
+
+        SyntheticReportGenerator generator = new SyntheticReportGenerator(errors, pages, rows, sitePages, seed);
+        try (FakePopeTechServer popeTech = new FakePopeTechServer(websites, generator, 10, latency);
+                FakeGoogleApiServer googleApi = new FakeGoogleApiServer(latency)) {
+            Process application = null;
+            String target = options.get("target");
+            if (target == null) {
+                int port = freePort();
+                target = "http://127.0.0.1:" + port;
+                application = startApplication(port, popeTech, googleApi);
+            }
+
+            try {
+                awaitHealthy(target, application);
+                System.out.printf("Fake PopeTech: %s, fake Google APIs: %s, application: %s%n",
+                        popeTech.getLoginUrl(), googleApi.getRootUrl(), target);
+                run(target, websites, concurrency, timeoutSeconds, application, popeTech, googleApi);
+            } finally {
+                if (application != null) {
+                    application.descendants().forEach(ProcessHandle::destroy);
+                    application.destroy();
+                    application.waitFor(30, TimeUnit.SECONDS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Submits one job per website with a fixed number of clients, waits for
+     * them and prints the report.
+     *
+     * @param target         Base URL of the application.
+     * @param websites       Websites to request reports for.
+     * @param concurrency    Number of concurrent clients.
+     * @param timeoutSeconds Maximum time to wait for a job.
+     * @param application    The child JVM, or null for an external target.
+     * @param popeTech       The fake PopeTech site.
+     * @param googleApi      The fake Google APIs.
+     * @throws Exception If the run is interrupted.
+     */
+    private static void run(String target, List<String> websites, int concurrency, long timeoutSeconds,
+            Process application, FakePopeTechServer popeTech, FakeGoogleApiServer googleApi) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger peakChrome = new AtomicInteger();
+        AtomicLong peakHeap = new AtomicLong();
+        AtomicLong peakRss = new AtomicLong();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            if (application != null) {
+                peakChrome.accumulateAndGet(countChromeProcesses(application), Math::max);
+                peakRss.accumulateAndGet(readRssBytes(application.pid()), Math::max);
+            }
+            peakHeap.accumulateAndGet(readHeapBytes(target), Math::max);
+        }, 0, 500, TimeUnit.MILLISECONDS);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < websites.size(); i++) {
+            String website = websites.get(i);
+            String username = "load-user-" + i;
+            futures.add(clients.submit(() -> {
+                long jobStart = System.nanoTime();
+                String status = runJob(target, website, username, timeoutSeconds, rejected);
+                if ("COMPLETED".equals(status)) {
+                    completed.incrementAndGet();
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - jobStart));
+                } else {
+                    failed.incrementAndGet();
+                    System.out.printf("Job for %s ended as %s%n", website, status);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        clients.shutdown();
+        sampler.shutdownNow();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.println("==== Load test results ====");
+        System.out.printf("Jobs: %d completed, %d failed, %d submissions rejected (429)%n",
+                completed.get(), failed.get(), rejected.get());
+        System.out.printf("Wall time: %.1f s, throughput: %.2f jobs/min%n", elapsedMillis / 1000.0,
+                completed.get() * 60_000.0 / Math.max(1, elapsedMillis));
+        System.out.printf("Job latency: p50 %d ms, p99 %d ms, max %d ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        if (application != null) {
+            System.out.printf("Peak Chrome processes: %d, peak RSS: %d MiB%n", peakChrome.get(),
+                    peakRss.get() / (1024 * 1024));
+        }
+        System.out.printf("Peak heap used: %d MiB%n", peakHeap.get() / (1024 * 1024));
+        System.out.println("Fake PopeTech requests: " + popeTech.getRequestCounts());
+        System.out.println("Fake Google API calls: " + googleApi.getCallCounts());
+    }
+
+    /**
+     * Submits a report job, retrying while the queue is full, and polls it until
+     * it finishes.
+     *
+     * @param target         Base URL of the application.
+     * @param website        Website to request the report for.
+     * @param username       PopeTech username of the job.
+     * @param timeoutSeconds Maximum time to wait for the job.
+     * @param rejected       Counter of rejected submissions.
+     * @return The final job status, or "TIMED_OUT".
+     * @throws Exception If a request fails or the client is interrupted.
+     */
+    private static String runJob(String target, String website, String username, long timeoutSeconds,
+            AtomicInteger rejected) throws Exception {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("website", website);
+        body.put("username", username);
+        body.put("password", "load-test");
+        body.put("email", username + "@example.edu");
+        HttpRequest submit = HttpRequest.newBuilder(URI.create(target + "/"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        String jobId = null;
+        while (jobId == null) {
+            HttpResponse<String> response = httpClient.send(submit, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 202) {
+                jobId = objectMapper.readTree(response.body()).path("jobId").asText();
+            } else if (response.statusCode() == 429 && System.nanoTime() < deadline) {
+                rejected.incrementAndGet();
+                Thread.sleep(1000);
+            } else {
+                return "HTTP_" + response.statusCode();
+            }
+        }
+
+        HttpRequest poll = HttpRequest.newBuilder(URI.create(target + "/jobs/" + jobId)).GET().build();
+        while (System.nanoTime() < deadline) {
+            JsonNode job = objectMapper.readTree(httpClient.send(poll, HttpResponse.BodyHandlers.ofString()).body());
+            String status = job.path("status").asText();
+            if ("COMPLETED".equals(status) || "FAILED".equals(status)) {
+                return status;
+            }
+            Thread.sleep(250);
+        }
+        return "TIMED_OUT";
+    }
+
+    /**
+     * Starts the application in a child JVM, using the test classpath and the
+     * fakes in place of PopeTech and Google.
+     *
+     * @param port      HTTP port of the application.
+     * @param popeTech  The fake PopeTech site.
+     * @param googleApi The fake Google APIs.
+     * @return The child process.
+     * @throws IOException If the process cannot be started.
+     */
+    private static Process startApplication(int port, FakePopeTechServer popeTech, FakeGoogleApiServer googleApi)
+            throws IOException {
+        // Keep jobs, sessions, snapshots and the secret key of the run away from the user's real ones
+        Path dataDirectory = Files.createTempDirectory("reportweaver-load-data-");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "com.reportweaver.reportweaver.ReportweaverApplication",
+                "--server.port=" + port,
+                "--reportweaver.browsers.headless=true",
+                "--management.endpoints.web.exposure.include=health,metrics",
+                "--reportweaver.jobs.directory=" + dataDirectory.resolve("jobs"),
+                "--reportweaver.session-store.directory=" + dataDirectory.resolve("sessions"),
+                "--reportweaver.report-snapshots.directory=" + dataDirectory.resolve("report-snapshots"),
+                "--reportweaver.documentation-cache.directory=" + dataDirectory.resolve("documentation-cache"));
+        builder.environment().put("POPE_TECH_URL", popeTech.getLoginUrl());
+        builder.environment().put("GOOGLE_API_ROOT_URL", googleApi.getRootUrl());
+        byte[] secretKey = new byte[32];
+        new SecureRandom().nextBytes(secretKey);
+        builder.environment().put("REPORTWEAVER_SECRET_KEY", Base64.getEncoder().encodeToString(secretKey));
+        System.out.println("Application data: " + dataDirectory);
+        File log = Files.createTempFile("reportweaver-load-", ".log").toFile();
+        builder.redirectErrorStream(true).redirectOutput(log);
+        System.out.println("Application log: " + log);
+        return builder.start();
+    }
+
+    /**
+     * Waits until the application's health endpoint answers.
+     *
+     * @param target      Base URL of the application.
+     * @param application The child JVM, or null for an external target.
+     * @throws Exception If the application exits or does not start in time.
+     */
+    private static void awaitHealthy(String target, Process application) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(target + "/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            if (application != null && !application.isAlive()) {
+                throw new IllegalStateException("The application exited with code " + application.exitValue());
+            }
+            try {
+                if (httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("The application did not become healthy at " + target);
+    }
+
+    /**
+     * Counts the Chrome browser processes started by the application, ignoring
+     * ChromeDriver and Chrome's renderer and helper processes.
+     *
+     * @param application The child JVM.
+     * @return The number of browser processes.
+     */
+    private static int countChromeProcesses(Process application) {
+        return (int) application.descendants()
+                .filter(process -> process.info().commandLine()
+                        .map(command -> command.contains("chrome") && !command.contains("chromedriver")
+                                && !command.contains("--type="))
+                        .orElse(false))
+                .count();
+    }
+
+    /**
+     * Reads the resident set size of a process from /proc, on Linux.
+     *
+     * @param pid The process ID.
+     * @return The RSS in bytes, or 0 if unavailable.
+     */
+    private static long readRssBytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not on Linux, or the process already exited
+        }
+        return 0;
+    }
+
+    /**
+     * Reads the application's used heap from the metrics endpoint.
+     *
+     * @param target Base URL of the application.
+     * @return The used heap in bytes, or 0 if unavailable.
+     */
+    private static long readHeapBytes(String target) {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(target + "/actuator/metrics/jvm.memory.used?tag=area:heap")).GET().build();
+        try {
+            JsonNode metric = objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            return metric.path("measurements").path(0).path("value").asLong();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    /**
+     * Finds a free local port for the application.
+     *
+     * @return The port.
+     * @throws IOException If no port is available.
+     */
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Retrieves a percentile of sorted latencies.
+     *
+     * @param sorted     Latencies in ascending order.
+     * @param percentile The percentile, between 0 and 1.
+     * @return The latency, or 0 if there are none.
+     */
+    private static long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    /**
+     * Parses "--name value" pairs.
+     *
+     * @param args The command-line arguments.
+     * @return The options by name.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
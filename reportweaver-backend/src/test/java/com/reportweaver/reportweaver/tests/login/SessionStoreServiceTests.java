@@ -0,0 +1,41 @@
+package com.reportweaver.reportweaver.tests.login;
+
+import com.reportweaver.reportweaver.model.BrowserSession;
+import com.reportweaver.reportweaver.service.SessionStoreService;
+import com.reportweaver.reportweaver.util.SecretCipher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SessionStoreServiceTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void restoresSessionOnlyWithThePasswordItWasStoredWith() throws Exception {
+        SecretCipher secretCipher = new SecretCipher(directory.resolve("secret.key").toString());
+        SessionStoreService store = new SessionStoreService(secretCipher, directory.resolve("sessions").toString(),
+                12);
+        BrowserSession session = new BrowserSession("https://app.pope.tech",
+                List.of(Map.of("name", "sid", "value", "abc", "domain", "app.pope.tech")), Map.of(),
+                System.currentTimeMillis());
+        store.save("user@example.edu", "secret", session);
+
+        assertNull(store.load("user@example.edu", "wrong"));
+        assertNull(store.load("user@example.edu", null));
+
+        // A wrong password leaves the stored session in place for its owner
+        BrowserSession restored = store.load("USER@example.edu", "secret");
+        assertNotNull(restored);
+        assertEquals("abc", restored.getCookies().get(0).get("value"));
+    }
+}
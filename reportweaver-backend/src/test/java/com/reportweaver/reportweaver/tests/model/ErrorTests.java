@@ -0,0 +1,65 @@
+package com.reportweaver.reportweaver.tests.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reportweaver.reportweaver.model.DataEntry;
+import com.reportweaver.reportweaver.model.Error;
+import com.reportweaver.reportweaver.model.UrlTable;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ErrorTests {
+
+    @Test
+    public void testEntriesShareUrlTableAndKeepRunningTotal() {
+        UrlTable urlTable = new UrlTable();
+        Error altText = new Error(9, "Missing alternative text", "Errors", "Docs", "Why", "Fix", urlTable);
+        Error contrast = new Error(4, "Very low contrast", "Contrast Errors", "Docs", "Why", "Fix", urlTable);
+
+        for (int i = 0; i < 100; i++) {
+            altText.addDataEntry("https://www.example.edu/news/" + i, 2);
+        }
+        altText.addDataEntry("https://www.example.edu", 1);
+        contrast.addDataEntry("https://www.example.edu/news/7", 3);
+        contrast.addDataEntry("https://cdn.example.edu/files/a.pdf", 1);
+
+        assertEquals(201, altText.getTotalErrors());
+        assertEquals(4, contrast.getTotalErrors());
+        assertEquals(102, urlTable.size());
+        assertEquals(altText.getUrlId(7), contrast.getUrlId(0));
+        assertEquals("https://www.example.edu", altText.getUrl(100));
+        assertEquals("https://cdn.example.edu/files/a.pdf", contrast.getUrl(1));
+
+        List<DataEntry> entries = contrast.getDataEntries();
+        assertEquals(2, entries.size());
+        assertEquals("https://www.example.edu/news/7", entries.get(0).getUrl());
+        assertEquals(3, entries.get(0).getCount());
+        assertThrows(UnsupportedOperationException.class, () -> entries.add(new DataEntry("x", 1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> contrast.getCount(2));
+    }
+
+    @Test
+    public void testJsonFormatIsUnchanged() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Error error = new Error(3, "Missing alternative text", "Errors", "Docs", "Why", "Fix");
+        error.addDataEntry("https://www.example.edu/", 2);
+        error.addDataEntry("https://www.example.edu/about", 1);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(error));
+        assertEquals("https://www.example.edu/about", json.path("dataEntries").path(1).path("url").asText());
+        assertEquals(3, json.path("totalErrors").asInt());
+        assertFalse(json.has("urlTable"));
+        assertFalse(json.has("dataEntryCount"));
+
+        Error restored = objectMapper.readValue(json.toString(), Error.class);
+        assertEquals(3, restored.getTotalErrors());
+        assertEquals("https://www.example.edu/", restored.getUrl(0));
+        assertEquals(1, restored.getCount(1));
+    }
+}
@@ -0,0 +1,77 @@
+package com.reportweaver.reportweaver.tests.model;
+
+import com.reportweaver.reportweaver.model.Error;
+import com.reportweaver.reportweaver.model.ErrorSummary;
+import com.reportweaver.reportweaver.model.PageErrorIndex;
+import com.reportweaver.reportweaver.model.UrlTable;
+import com.reportweaver.reportweaver.tests.synthetic.SyntheticReportGenerator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PageErrorIndexTests {
+
+    @Test
+    public void testWorstPagesListErrorsByCount() {
+        UrlTable urlTable = new UrlTable();
+        Error altText = new Error(8, "Missing alternative text", "Errors", "Docs", "Why", "Fix", urlTable);
+        Error contrast = new Error(9, "Very low contrast", "Contrast Errors", "Docs", "Why", "Fix", urlTable);
+        altText.addDataEntry("https://www.example.edu/", 5);
+        altText.addDataEntry("https://www.example.edu/about", 2);
+        altText.addDataEntry("https://www.example.edu/about", 1);
+        contrast.addDataEntry("https://www.example.edu/news", 4);
+        contrast.addDataEntry("https://www.example.edu/about", 3);
+        contrast.addDataEntry("https://www.example.edu/", 1);
+
+        PageErrorIndex index = new PageErrorIndex(List.of(altText, contrast));
+        assertEquals(3, index.getPageCount());
+
+        List<PageErrorIndex.PageSummary> worst = index.getWorstPages(2);
+        assertEquals(2, worst.size());
+        // "/" and "/about" both have 6 errors; "/" was found first
+        assertEquals("https://www.example.edu/", worst.get(0).getUrl());
+        assertEquals(6, worst.get(0).getTotalErrors());
+        assertEquals("https://www.example.edu/about", worst.get(1).getUrl());
+
+        List<ErrorSummary> aboutErrors = worst.get(1).getErrors();
+        assertEquals(2, aboutErrors.size());
+        // The page listed twice under the same error counts once, with both counts
+        assertEquals("Missing alternative text", aboutErrors.get(0).getErrorName());
+        assertEquals(3, aboutErrors.get(0).getTotalErrors());
+        assertEquals("Very low contrast", aboutErrors.get(1).getErrorName());
+        assertEquals(3, aboutErrors.get(1).getTotalErrors());
+        assertTrue(index.getWorstPages(0).isEmpty());
+    }
+
+    @Test
+    public void testMatchesBruteForceTotalsOnSyntheticReport() {
+        SyntheticReportGenerator generator = new SyntheticReportGenerator(40, 3, 50, 400, 5);
+        // Each generated error has its own URL table, which the index merges
+        List<Error> errors = generator.expectedErrors("www.example.edu");
+
+        Map<String, Integer> totals = new HashMap<>();
+        for (Error error : errors) {
+            for (int i = 0; i < error.getDataEntryCount(); i++) {
+                totals.merge(error.getUrl(i), error.getCount(i), Integer::sum);
+            }
+        }
+        List<Integer> expectedTotals = totals.values().stream().sorted((a, b) -> b - a).limit(10).toList();
+
+        PageErrorIndex index = new PageErrorIndex(errors);
+        assertEquals(totals.size(), index.getPageCount());
+        List<PageErrorIndex.PageSummary> worst = index.getWorstPages(10);
+        for (int i = 0; i < 10; i++) {
+            PageErrorIndex.PageSummary page = worst.get(i);
+            assertEquals(expectedTotals.get(i), page.getTotalErrors());
+            assertEquals(totals.get(page.getUrl()), page.getTotalErrors());
+            assertEquals(page.getTotalErrors(),
+                    page.getErrors().stream().mapToInt(ErrorSummary::getTotalErrors).sum());
+        }
+    }
+}
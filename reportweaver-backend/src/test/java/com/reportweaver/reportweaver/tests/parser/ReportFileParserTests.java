@@ -0,0 +1,59 @@
+package com.reportweaver.reportweaver.tests.parser;
+
+import com.reportweaver.reportweaver.model.ParsedReport;
+import com.reportweaver.reportweaver.model.ReportRow;
+import com.reportweaver.reportweaver.util.ReportFileParser;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReportFileParserTests {
+
+    // Minimal report with the same structure as a downloaded PopeTech HTML report
+    private static final String REPORT_HTML = """
+            <html><body><div><main>
+              <div></div>
+              <div>
+                <div></div>
+                <div><div class="section-body-table"><table><tbody>
+                  <tr>
+                    <td><a href="/docs/alt">Docs</a></td>
+                    <th><span><a href="https://app.pope.tech/results/alt">Missing alternative text</a></span></th>
+                    <td> Errors </td>
+                    <td>12</td>
+                  </tr>
+                  <tr>
+                    <td><a href="/docs/contrast">Docs</a></td>
+                    <th><span><a href="/results/contrast">Very low contrast</a></span></th>
+                    <td>Contrast Errors</td>
+                    <td>n/a</td>
+                  </tr>
+                </tbody></table></div></div>
+                <div></div>
+                <div>
+                  <div></div><div></div>
+                  <div><div><div><table><tbody>
+                    <tr><th><a href="https://www.example.edu/about/">About</a></th></tr>
+                  </tbody></table></div></div></div>
+                </div>
+              </div>
+            </main></div></body></html>
+            """;
+
+    @Test
+    public void testParsesRowsAndBaseUrl() {
+        ParsedReport report = ReportFileParser.parse(Jsoup.parse(REPORT_HTML, "https://app.pope.tech/reports/1"));
+
+        assertEquals("https://www.example.edu", report.getBaseUrl());
+        assertEquals(1, report.getRows().size());
+
+        ReportRow row = report.getRows().get(0);
+        assertEquals("Missing alternative text", row.getErrorName());
+        assertEquals("Errors", row.getErrorCategory());
+        assertEquals(12, row.getInstanceCount());
+        assertEquals("https://app.pope.tech/docs/alt", row.getDocumentationUrl());
+        assertEquals("https://app.pope.tech/results/alt", row.getDetailUrl());
+    }
+}
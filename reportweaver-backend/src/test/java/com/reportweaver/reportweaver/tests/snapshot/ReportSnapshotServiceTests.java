@@ -0,0 +1,64 @@
+package com.reportweaver.reportweaver.tests.snapshot;
+
+import com.reportweaver.reportweaver.model.Error;
+import com.reportweaver.reportweaver.model.ReportSnapshot;
+import com.reportweaver.reportweaver.service.ReportSnapshotService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ReportSnapshotServiceTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void reusesSnapshotOnlyForIdenticalFileAcrossRestarts() {
+        Error error = new Error(3, "Missing alternative text", "Errors", "https://docs.example.com/alt",
+                "Screen readers cannot describe the image.", "Add an alt attribute.");
+        error.addDataEntry("https://example.com/", 2);
+        error.addDataEntry("https://example.com/about", 1);
+
+        new ReportSnapshotService(168, directory.toString()).save(
+                new ReportSnapshot("https://www.example.com/", "user", "abc123", "doc-1", List.of(error),
+                        System.currentTimeMillis()));
+
+        // A new instance reads the snapshot back from disk
+        ReportSnapshotService restarted = new ReportSnapshotService(168, directory.toString());
+        assertNull(restarted.findUnchanged("example.com", "user", "def456"));
+
+        ReportSnapshot snapshot = restarted.findUnchanged("http://example.com", "USER", "abc123");
+        assertNotNull(snapshot);
+        assertEquals("doc-1", snapshot.getDocumentId());
+        Error restored = snapshot.getErrors().get(0);
+        assertEquals("Missing alternative text", restored.getErrorName());
+        assertEquals(2, restored.getDataEntries().size());
+        assertEquals(3, restored.getTotalErrors());
+    }
+
+    @Test
+    public void neverHandsOneAccountsSnapshotToAnother() {
+        ReportSnapshotService service = new ReportSnapshotService(168, directory.toString());
+        service.save(new ReportSnapshot("https://www.example.com/", "first", "abc123", "doc-1", List.of(),
+                System.currentTimeMillis()));
+
+        assertNull(service.findUnchanged("example.com", "second", "abc123"));
+        assertNull(service.getLatest("example.com", "second"));
+        assertNull(new ReportSnapshotService(168, directory.toString()).findUnchanged("example.com", "second",
+                "abc123"));
+
+        // Each account keeps its own latest snapshot of the same website
+        service.save(new ReportSnapshot("example.com", "second", "abc123", "doc-2", List.of(),
+                System.currentTimeMillis()));
+        assertEquals("doc-1", service.findUnchanged("example.com", "first", "abc123").getDocumentId());
+        assertEquals("doc-2", new ReportSnapshotService(168, directory.toString())
+                .findUnchanged("example.com", "second", "abc123").getDocumentId());
+    }
+}
@@ -0,0 +1,357 @@
+package com.reportweaver.reportweaver.tests.synthetic;
+
+import com.reportweaver.reportweaver.model.Error;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates PopeTech-shaped HTML at any scale: the downloadable report with
+ * its table of rules, the documentation page of each rule and the paginated
+ * table of pages affected by each rule.
+ * Everything is derived from the seed, the website and the position of the
+ * item, so any page can be generated on its own, in any order, and is
+ * identical across runs. Affected pages are drawn from a pool of site pages
+ * shared by all rules, as on a real site where one page fails several rules.
+ * {@link #expectedErrors(String)} returns what extraction should produce from
+ * the generated pages.
+ *
+ * <p>
+ * Links in the report follow the layout {@code <origin>/docs/<website>/<rule>}
+ * for documentation and {@code <origin>/results/<website>/<rule>} for rule
+ * details. The affected pages table has a next-page button linking to
+ * {@code ?page=<n + 1>}, disabled on the last page.
+ * </p>
+ */
+public class SyntheticReportGenerator {
+
+    // Words used to build rule names and page paths.
+    private static final String[] WORDS = { "about", "admissions", "contact", "news", "events", "faculty",
+            "research", "students", "library", "athletics", "alumni", "campus", "apply", "tuition", "housing" };
+
+    // Number of rules in each report.
+    private final int errors;
+
+    // Number of affected pages table pages per rule.
+    private final int pagesPerError;
+
+    // Number of affected pages per table page.
+    private final int rowsPerPage;
+
+    // Number of distinct pages on the website.
+    private final int sitePages;
+
+    // Seed of all generated content.
+    private final long seed;
+
+    /**
+     * Constructs a SyntheticReportGenerator whose site has twice as many pages
+     * as each rule affects.
+     *
+     * @param errors        Number of rules in each report.
+     * @param pagesPerError Number of affected pages table pages per rule.
+     * @param rowsPerPage   Number of affected pages per table page.
+     * @param seed          Seed of all generated content.
+     */
+    public SyntheticReportGenerator(int errors, int pagesPerError, int rowsPerPage, long seed) {
+        this(errors, pagesPerError, rowsPerPage, 2 * Math.max(1, pagesPerError) * Math.max(1, rowsPerPage), seed);
+    }
+
+    /**
+     * Constructs a SyntheticReportGenerator.
+     *
+     * @param errors        Number of rules in each report.
+     * @param pagesPerError Number of affected pages table pages per rule.
+     * @param rowsPerPage   Number of affected pages per table page.
+     * @param sitePages     Number of distinct pages on the website; raised to
+     *                      the number of pages each rule affects if smaller.
+     * @param seed          Seed of all generated content.
+     */
+    public SyntheticReportGenerator(int errors, int pagesPerError, int rowsPerPage, int sitePages, long seed) {
+        this.errors = Math.max(0, errors);
+        this.pagesPerError = Math.max(1, pagesPerError);
+        this.rowsPerPage = Math.max(1, rowsPerPage);
+        this.sitePages = Math.max(sitePages, this.pagesPerError * this.rowsPerPage);
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the number of rules in each report.
+     *
+     * @return The number of rules.
+     */
+    public int getErrors() {
+        return errors;
+    }
+
+    /**
+     * Retrieves the number of affected pages table pages per rule.
+     *
+     * @return The number of table pages.
+     */
+    public int getPagesPerError() {
+        return pagesPerError;
+    }
+
+    /**
+     * Retrieves the number of affected pages per table page.
+     *
+     * @return The number of rows.
+     */
+    public int getRowsPerPage() {
+        return rowsPerPage;
+    }
+
+    /**
+     * Retrieves the URL slug of a rule, used in its links.
+     *
+     * @param error Position of the rule in the report.
+     * @return The slug, unique within a report.
+     */
+    public String ruleSlug(int error) {
+        return slug(new Random(mix(seed, "rule", error, 0)), 3) + "-" + error;
+    }
+
+    /**
+     * Retrieves the name of a rule as shown in the report.
+     *
+     * @param error Position of the rule in the report.
+     * @return The rule name.
+     */
+    public String errorName(int error) {
+        return ruleSlug(error).replace('-', ' ');
+    }
+
+    /**
+     * Retrieves the category of a rule. Most rules are errors; every fifth is a
+     * contrast error and every seventh an alert, which extraction skips.
+     *
+     * @param error Position of the rule in the report.
+     * @return The category.
+     */
+    public String category(int error) {
+        if (error % 7 == 6) {
+            return "Alerts";
+        }
+        return error % 5 == 4 ? "Contrast Errors" : "Errors";
+    }
+
+    /**
+     * Generates the downloadable HTML report of a website.
+     *
+     * @param website    The website, e.g. "www.example.edu".
+     * @param linkOrigin Origin of the documentation and rule detail links, e.g.
+     *                   "https://app.pope.tech".
+     * @return The report HTML.
+     */
+    public String reportHtml(String website, String linkOrigin) {
+        StringBuilder html = new StringBuilder(errors * 320 + 1024);
+        html.append("<html><body><div><main><div></div><div><div></div>")
+                .append("<div><div class=\"section-body-table\"><table><tbody>");
+        for (int error = 0; error < errors; error++) {
+            String rule = ruleSlug(error);
+            html.append("<tr><td><a href=\"").append(linkOrigin).append("/docs/").append(website).append('/')
+                    .append(rule).append("\">Docs</a></td>")
+                    .append("<th><span><a href=\"").append(linkOrigin).append("/results/").append(website)
+                    .append('/').append(rule).append("\">").append(errorName(error)).append("</a></span></th>")
+                    .append("<td>").append(category(error)).append("</td>")
+                    .append("<td>").append(instanceCount(website, error)).append("</td></tr>");
+        }
+        html.append("</tbody></table></div></div><div></div><div><div></div><div></div>")
+                .append("<div><div><div><table><tbody>")
+                .append("<tr><th><a href=\"https://").append(website).append("/\">Home</a></th></tr>")
+                .append("</tbody></table></div></div></div></div></div></main></div></body></html>");
+        return html.toString();
+    }
+
+    /**
+     * Generates the documentation of a rule, as shown on its documentation
+     * page.
+     *
+     * @param website The website.
+     * @param error   Position of the rule in the report.
+     * @return The documentation element HTML.
+     */
+    public String documentationHtml(String website, int error) {
+        return "<div id=\"result-documentation-content\">"
+                + "<p>" + documentation(error) + "</p>"
+                + "<p>" + whyItMatters(website, error) + "</p>"
+                + "<p>Related guidelines.</p>"
+                + "<p>" + howToFixIt(error) + "</p></div>";
+    }
+
+    /**
+     * Generates one page of the table of pages affected by a rule.
+     *
+     * @param website The website.
+     * @param error   Position of the rule in the report.
+     * @param page    The table page, starting at 1.
+     * @return The table HTML with its next-page button.
+     */
+    public String errorCountPageHtml(String website, int error, int page) {
+        StringBuilder html = new StringBuilder(rowsPerPage * 96 + 256);
+        html.append("<div class=\"data-table\"><div class=\"data-table-row-wrapper\"><table><tbody>");
+        int start = firstSitePage(website, error);
+        int[] counts = pageCounts(website, error, page);
+        for (int row = 0; row < rowsPerPage; row++) {
+            html.append("<tr><td class=\"column-uri\">")
+                    .append(pagePath(sitePage(start, page, row)))
+                    .append("</td><td class=\"column-count\">").append(counts[row]).append("</td></tr>");
+        }
+        html.append("</tbody></table></div><button class=\"pagination-nextpage\" ")
+                .append(page < pagesPerError ? "onclick=\"location.href='?page=" + (page + 1) + "'\"" : "disabled")
+                .append(">Next</button></div>");
+        return html.toString();
+    }
+
+    /**
+     * Retrieves the instance count of a rule, the sum of the counts on all of
+     * its affected pages.
+     *
+     * @param website The website.
+     * @param error   Position of the rule in the report.
+     * @return The instance count.
+     */
+    public int instanceCount(String website, int error) {
+        int total = 0;
+        for (int page = 1; page <= pagesPerError; page++) {
+            for (int count : pageCounts(website, error, page)) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Builds the errors extraction should produce from a website's report,
+     * with documentation and affected pages, skipping rules that are not
+     * errors.
+     *
+     * @param website The website.
+     * @return The errors, in report order.
+     */
+    public List<Error> expectedErrors(String website) {
+        List<Error> result = new ArrayList<>();
+        for (int error = 0; error < errors; error++) {
+            if (category(error).endsWith("Errors")) {
+                result.add(expectedError(website, error));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the error extraction should produce for one rule.
+     *
+     * @param website The website.
+     * @param error   Position of the rule in the report.
+     * @return The error with its affected pages.
+     */
+    public Error expectedError(String website, int error) {
+        Error result = new Error(instanceCount(website, error), errorName(error), category(error),
+                documentation(error), whyItMatters(website, error), howToFixIt(error));
+        int start = firstSitePage(website, error);
+        for (int page = 1; page <= pagesPerError; page++) {
+            int[] counts = pageCounts(website, error, page);
+            for (int row = 0; row < rowsPerPage; row++) {
+                result.addDataEntry("https://" + website + pagePath(sitePage(start, page, row)), counts[row]);
+            }
+        }
+        return result;
+    }
+
+    private String documentation(int error) {
+        return "What " + errorName(error) + " checks.";
+    }
+
+    private String whyItMatters(String website, int error) {
+        return "Why " + errorName(error) + " matters for " + website + ".";
+    }
+
+    private String howToFixIt(int error) {
+        return "How to fix " + errorName(error) + ".";
+    }
+
+    /**
+     * Generates the counts shown on one page of a rule's affected pages table.
+     *
+     * @param website The website.
+     * @param error   Position of the rule in the report.
+     * @param page    The table page, starting at 1.
+     * @return The count of each row.
+     */
+    private int[] pageCounts(String website, int error, int page) {
+        Random random = new Random(mix(seed, website, error, page));
+        int[] counts = new int[rowsPerPage];
+        for (int row = 0; row < rowsPerPage; row++) {
+            // Mostly small counts with a long tail, as on real sites
+            counts[row] = random.nextInt(10) == 0 ? 20 + random.nextInt(200) : 1 + random.nextInt(5);
+        }
+        return counts;
+    }
+
+    /**
+     * Picks where in the site's page pool a rule's affected pages start. Each
+     * rule affects consecutive pool entries, so its pages are distinct while
+     * different rules overlap.
+     *
+     * @param website The website.
+     * @param error   Position of the rule in the report.
+     * @return Index of the first affected page in the pool.
+     */
+    private int firstSitePage(String website, int error) {
+        return new Random(mix(seed, website, error, 0)).nextInt(sitePages);
+    }
+
+    private int sitePage(int start, int page, int row) {
+        return (start + (page - 1) * rowsPerPage + row) % sitePages;
+    }
+
+    /**
+     * Builds the path of a page in the site's page pool.
+     *
+     * @param sitePage Index of the page in the pool.
+     * @return The path, starting with a slash.
+     */
+    private String pagePath(int sitePage) {
+        Random random = new Random(mix(seed, "page", sitePage, 0));
+        return "/" + WORDS[sitePage % WORDS.length] + "/" + slug(random, 2) + "-" + sitePage
+                + (sitePage % 3 == 0 ? "/" : "");
+    }
+
+    /**
+     * Joins random words with hyphens.
+     *
+     * @param random The random generator.
+     * @param words  Number of words.
+     * @return The slug.
+     */
+    private static String slug(Random random, int words) {
+        StringBuilder slug = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                slug.append('-');
+            }
+            slug.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return slug.toString();
+    }
+
+    /**
+     * Derives the seed of one generated item.
+     *
+     * @param seed  The generator seed.
+     * @param scope What is generated, e.g. the website.
+     * @param error Position of the rule.
+     * @param page  The table page.
+     * @return The item seed.
+     */
+    private static long mix(long seed, String scope, int error, int page) {
+        long hash = seed;
+        hash = hash * 1_000_003L + scope.hashCode();
+        hash = hash * 1_000_003L + error;
+        hash = hash * 1_000_003L + page;
+        return hash;
+    }
+}
@@ -0,0 +1,98 @@
+package com.reportweaver.reportweaver.tests.synthetic;
+
+import com.reportweaver.reportweaver.model.DataEntry;
+import com.reportweaver.reportweaver.model.Error;
+import com.reportweaver.reportweaver.model.ParsedReport;
+import com.reportweaver.reportweaver.model.ReportRow;
+import com.reportweaver.reportweaver.util.ReportFileParser;
+import com.reportweaver.reportweaver.util.WebScraperUtils;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SyntheticReportGeneratorTests {
+
+    private static final String WEBSITE = "www.example.edu";
+
+    private static final String ORIGIN = "https://app.pope.tech";
+
+    @Test
+    public void testReportParsesWithMatchingCounts() {
+        SyntheticReportGenerator generator = new SyntheticReportGenerator(30, 3, 20, 7);
+        ParsedReport report = ReportFileParser.parse(Jsoup.parse(generator.reportHtml(WEBSITE, ORIGIN), ORIGIN));
+
+        assertEquals("https://" + WEBSITE, report.getBaseUrl());
+        assertEquals(30, report.getRows().size());
+        for (int error = 0; error < 30; error++) {
+            ReportRow row = report.getRows().get(error);
+            assertEquals(generator.errorName(error), row.getErrorName());
+            assertEquals(generator.category(error), row.getErrorCategory());
+            assertEquals(generator.instanceCount(WEBSITE, error), row.getInstanceCount());
+            assertEquals(ORIGIN + "/results/" + WEBSITE + "/" + generator.ruleSlug(error), row.getDetailUrl());
+        }
+    }
+
+    @Test
+    public void testErrorCountPagesMatchExpectedErrors() {
+        SyntheticReportGenerator generator = new SyntheticReportGenerator(12, 4, 25, 150, 11);
+        List<Error> expected = generator.expectedErrors(WEBSITE);
+        assertEquals(11, expected.size());
+
+        Error error = generator.expectedError(WEBSITE, 4);
+        List<String> scrapedUrls = new ArrayList<>();
+        int scrapedTotal = 0;
+        for (int page = 1; page <= 4; page++) {
+            Document document = Jsoup.parse(generator.errorCountPageHtml(WEBSITE, 4, page));
+            for (Element row : document.select(WebScraperUtils.ERROR_COUNT_ROW_SELECTOR)) {
+                scrapedUrls.add("https://" + WEBSITE + row.selectFirst(".column-uri").text());
+                scrapedTotal += Integer.parseInt(row.selectFirst(".column-count").text());
+            }
+            assertEquals(page == 4, document.selectFirst(".pagination-nextpage").hasAttr("disabled"));
+        }
+
+        List<String> expectedUrls = new ArrayList<>();
+        for (DataEntry entry : error.getDataEntries()) {
+            expectedUrls.add(entry.getUrl());
+        }
+        assertEquals(expectedUrls, scrapedUrls);
+        assertEquals(100, new HashSet<>(scrapedUrls).size());
+        assertEquals(error.getTotalErrors(), scrapedTotal);
+        assertEquals(error.getInstanceCount(), error.getTotalErrors());
+        assertEquals("Contrast Errors", error.getErrorCategory());
+    }
+
+    @Test
+    public void testOutputIsDeterministicAndPagesAreSharedAcrossErrors() {
+        SyntheticReportGenerator first = new SyntheticReportGenerator(20, 2, 50, 150, 3);
+        SyntheticReportGenerator second = new SyntheticReportGenerator(20, 2, 50, 150, 3);
+
+        assertEquals(first.reportHtml(WEBSITE, ORIGIN), second.reportHtml(WEBSITE, ORIGIN));
+        assertEquals(first.errorCountPageHtml(WEBSITE, 5, 2), second.errorCountPageHtml(WEBSITE, 5, 2));
+        assertNotEquals(first.reportHtml(WEBSITE, ORIGIN),
+                new SyntheticReportGenerator(20, 2, 50, 150, 4).reportHtml(WEBSITE, ORIGIN));
+
+        // 18 errors of 100 pages each drawn from 150 site pages must overlap
+        Set<String> distinctUrls = new HashSet<>();
+        int entries = 0;
+        for (Error error : first.expectedErrors(WEBSITE)) {
+            for (DataEntry entry : error.getDataEntries()) {
+                distinctUrls.add(entry.getUrl());
+                entries++;
+            }
+        }
+        assertTrue(distinctUrls.size() <= 150);
+        assertFalse(distinctUrls.size() == entries);
+    }
+}
@@ -0,0 +1,78 @@
+package com.reportweaver.reportweaver.tests.websocket;
+
+import com.reportweaver.reportweaver.model.ProgressEvent;
+import com.reportweaver.reportweaver.util.JobContext;
+import com.reportweaver.reportweaver.websocket.SeleniumStatusHandler;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SeleniumStatusHandlerTests {
+
+    @Test
+    public void deliversUpdatesOnlyToSubscribersOfTheCurrentJob() throws Exception {
+        SeleniumStatusHandler handler = new SeleniumStatusHandler();
+        WebSocketSession first = openSession("first");
+        WebSocketSession second = openSession("second");
+        handler.afterConnectionEstablished(first);
+        handler.afterConnectionEstablished(second);
+        handler.handleMessage(first,
+                new TextMessage("{\"type\":\"subscribe\",\"jobId\":\"job-a\",\"verbose\":true}"));
+        handler.handleMessage(second, new TextMessage("{\"type\":\"subscribe\",\"jobId\":\"job-b\"}"));
+
+        // The job ID follows the work onto other threads
+        try (JobContext.Scope scope = JobContext.open("job-a")) {
+            CompletableFuture.runAsync(JobContext.wrap(() -> handler.sendUpdate("Logging in..."))).join();
+        }
+        handler.sendUpdate("Outside any job");
+
+        // Updates are sent in the background by each session's outbox
+        verify(first, timeout(2000)).sendMessage(
+                new TextMessage("{\"type\":\"log\",\"jobId\":\"job-a\",\"message\":\"Logging in...\"}"));
+        Thread.sleep(300);
+        verify(second, never()).sendMessage(any());
+
+        handler.afterConnectionClosed(first, CloseStatus.NORMAL);
+        handler.sendUpdate("job-a", "After close");
+        verify(first, times(1)).sendMessage(any());
+    }
+
+    @Test
+    public void sendsProgressToEverySubscriberAndLogsOnlyToVerboseOnes() throws Exception {
+        SeleniumStatusHandler handler = new SeleniumStatusHandler();
+        WebSocketSession quiet = openSession("quiet");
+        handler.afterConnectionEstablished(quiet);
+        handler.handleMessage(quiet, new TextMessage("{\"type\":\"subscribe\",\"jobId\":\"job-c\"}"));
+
+        handler.sendUpdate("job-c", "Fetching report rows...");
+        handler.sendProgress("job-c", ProgressEvent.Stage.COMPLETED, 0, 0);
+
+        ArgumentCaptor<TextMessage> frame = ArgumentCaptor.forClass(TextMessage.class);
+        verify(quiet, timeout(2000)).sendMessage(frame.capture());
+        String payload = frame.getValue().getPayload();
+        assertTrue(payload.startsWith("{\"type\":\"progress\",\"jobId\":\"job-c\",\"stage\":\"COMPLETED\""), payload);
+        assertFalse(payload.contains("Fetching report rows"), payload);
+    }
+
+    private static WebSocketSession openSession(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+}
@@ -0,0 +1,50 @@
+package com.reportweaver.reportweaver.tests.websocket;
+
+import com.reportweaver.reportweaver.websocket.SessionOutbox;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SessionOutboxTests {
+
+    @Test
+    public void stalledClientNeverBlocksAndKeepsTheLatestUpdates() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(session).sendMessage(any());
+
+        SessionOutbox outbox = new SessionOutbox(session, 3, 20, SessionOutbox.OverflowPolicy.DROP_OLDEST);
+        outbox.offer("1");
+        assertTrue(sending.await(2, TimeUnit.SECONDS));
+
+        // The client is stuck on the first frame; further updates must not wait for it
+        long start = System.nanoTime();
+        for (int i = 2; i <= 10; i++) {
+            outbox.offer(String.valueOf(i));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+
+        // Only the newest updates fit in the queue and arrive as a single frame
+        release.countDown();
+        verify(session, timeout(2000)).sendMessage(new TextMessage("8\n9\n10"));
+        assertTrue(SessionOutbox.getOutboxStats().getUpdatesDropped() >= 6);
+    }
+}
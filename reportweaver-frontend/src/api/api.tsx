@@ -25,3 +25,84 @@ export const stopSeleniumSessions = async (): Promise<string> => {
     return "Failed to stop Selenium sessions.";
   }
 };
+
+/**
+ * Progress of a report job as pushed over the status WebSocket.
+ */
+export interface ProgressUpdate {
+  type: "progress";
+  jobId: string;
+  stage: string;
+  done: number;
+  total: number;
+  elapsedMillis: number;
+  etaMillis?: number;
+}
+
+// Readable names of the report pipeline stages
+const STAGE_LABELS: Record<string, string> = {
+  QUEUED: "Queued",
+  LOGGING_IN: "Logging in",
+  FINDING_REPORT: "Finding report",
+  DOWNLOADING: "Downloading report",
+  EXTRACTING: "Extracting report",
+  ENRICHING: "Collecting error details",
+  WRITING_DOCUMENT: "Writing Google Doc",
+  SHARING: "Sharing Google Doc",
+  COMPLETED: "Completed",
+  FAILED: "Failed",
+};
+
+/**
+ * Formats a progress update as a status line, e.g.
+ * "Collecting error details (12/40, about 1 min left)".
+ *
+ * @param {ProgressUpdate} progress - The progress update.
+ * @returns {string} The status line.
+ */
+export const formatProgress = (progress: ProgressUpdate): string => {
+  const label = STAGE_LABELS[progress.stage] ?? progress.stage;
+  const details: string[] = [];
+  if (progress.total > 0) {
+    details.push(`${progress.done}/${progress.total}`);
+  }
+  if (progress.etaMillis !== undefined && progress.done < progress.total) {
+    const seconds = Math.ceil(progress.etaMillis / 1000);
+    details.push(
+      seconds < 60
+        ? `about ${seconds} s left`
+        : `about ${Math.ceil(seconds / 60)} min left`
+    );
+  }
+  return details.length > 0 ? `${label} (${details.join(", ")})...` : `${label}...`;
+};
+
+/**
+ * Status of a report job as returned by the backend.
+ */
+export interface ReportJobStatus {
+  jobId: string;
+  status: "QUEUED" | "RUNNING" | "COMPLETED" | "FAILED";
+  queuePosition: number;
+  documentId: string | null;
+  error: string | null;
+}
+
+/**
+ * Fetches the current status of a report job.
+ *
+ * @param {string} jobId - The ID returned when the report was requested.
+ * @returns {Promise<ReportJobStatus>} The job status.
+ */
+export const fetchJobStatus = async (
+  jobId: string
+): Promise<ReportJobStatus> => {
+  const response = await fetch(`${API_BASE_URL}/jobs/${jobId}`);
+
+  // Surface the HTTP status so callers can show a matching message
+  if (!response.ok) {
+    throw new Error(String(response.status));
+  }
+
+  return await response.json();
+};
@@ -1,5 +1,10 @@
-import React, { FC, useState, useEffect } from "react";
-import { API_BASE_URL } from "../api/api";
+import React, { FC, useState, useEffect, useRef } from "react";
+import {
+  API_BASE_URL,
+  fetchJobStatus,
+  formatProgress,
+  ReportJobStatus,
+} from "../api/api";
 import { handleApiError } from "../api/errorHandler";
 import { Input } from "../components/ui/input";
 import { Label } from "../components/ui/label";
@@ -11,6 +16,12 @@ import {
   CardTitle,
 } from "../components/ui/card";
 
+// Interval between job status checks, in milliseconds
+const JOB_POLL_INTERVAL_MS = 3000;
+
+// Whether the detailed log messages of a job are shown besides its progress
+const VERBOSE_STATUS = import.meta.env.VITE_VERBOSE_STATUS === "true";
+
 /**
  * Props definition for the UserInputForm component.
  */
@@ -48,15 +59,26 @@ const UserInputForm: FC<UserInputFormProps> = ({
   const darkButtonClasses =
     "dark:bg-gray-900 dark:text-white dark:hover:bg-gray-700";
 
+  // WebSocket connection used to receive the status updates of submitted jobs
+  const socketRef = useRef<WebSocket | null>(null);
+
   /**
    * Establishes a WebSocket connection to receive Selenium status updates.
    * Updates the status in the parent component when messages are received.
    */
   useEffect(() => {
     const socket = new WebSocket("ws://localhost:8080/ws/selenium-status");
+    socketRef.current = socket;
 
     socket.onmessage = (event) => {
-      onStatusUpdate(event.data); // Updates status in parent component
+      // Bursts of updates arrive as one frame with one JSON update per line;
+      // only the latest one is shown
+      const updates = String(event.data).split("\n");
+      const update = JSON.parse(updates[updates.length - 1]);
+      // Updates status in parent component
+      onStatusUpdate(
+        update.type === "progress" ? formatProgress(update) : update.message
+      );
     };
 
     socket.onclose = () => {
@@ -68,6 +90,29 @@ const UserInputForm: FC<UserInputFormProps> = ({
     };
   }, []); // Runs only once on component mount
 
+  /**
+   * Subscribes to the status updates of a job. Only updates of subscribed jobs
+   * are delivered, so other users' jobs never show up here.
+   *
+   * @param {string} jobId - The ID returned when the report was requested.
+   */
+  const subscribeToJob = (jobId: string) => {
+    const socket = socketRef.current;
+    if (!socket) {
+      return;
+    }
+    const message = JSON.stringify({
+      type: "subscribe",
+      jobId,
+      verbose: VERBOSE_STATUS,
+    });
+    if (socket.readyState === WebSocket.OPEN) {
+      socket.send(message);
+    } else if (socket.readyState === WebSocket.CONNECTING) {
+      socket.addEventListener("open", () => socket.send(message), { once: true });
+    }
+  };
+
   /**
    * Handles input field changes and updates state dynamically.
    *
@@ -99,16 +144,25 @@ const UserInputForm: FC<UserInputFormProps> = ({
       });
 
       if (response.ok) {
-        const documentId = await response.text();
+        const job: ReportJobStatus = await response.json();
+        subscribeToJob(job.jobId);
+        if (job.queuePosition > 0) {
+          onStatusUpdate(`Report queued (position ${job.queuePosition})...`);
+        }
+        resetForm();
+
+        const finishedJob = await waitForJob(job.jobId);
         const documentUrl =
-          documentId === "Processing"
-            ? null
-            : `https://docs.google.com/document/d/${documentId}/edit`;
+          finishedJob.status === "COMPLETED" && finishedJob.documentId
+            ? `https://docs.google.com/document/d/${finishedJob.documentId}/edit`
+            : null;
 
         console.log("Document URL:", documentUrl);
+        if (finishedJob.error) {
+          onStatusUpdate(finishedJob.error);
+        }
         onDocumentUrlUpdate(documentUrl);
-        onButtonTextUpdate("Done");
-        resetForm();
+        onButtonTextUpdate(documentUrl ? "Done" : "Close");
       } else {
         onStatusUpdate(handleApiError(response.status));
         onButtonTextUpdate("Close");
@@ -120,6 +174,25 @@ const UserInputForm: FC<UserInputFormProps> = ({
     }
   };
 
+  /**
+   * Polls a report job until it has completed or failed.
+   *
+   * @param {string} jobId - The ID returned when the report was requested.
+   * @returns {Promise<ReportJobStatus>} The final job status.
+   */
+  const waitForJob = async (jobId: string): Promise<ReportJobStatus> => {
+    while (true) {
+      await new Promise((resolve) => setTimeout(resolve, JOB_POLL_INTERVAL_MS));
+      const job = await fetchJobStatus(jobId);
+      if (job.status === "COMPLETED" || job.status === "FAILED") {
+        return job;
+      }
+      if (job.status === "QUEUED" && job.queuePosition > 0) {
+        onStatusUpdate(`Report queued (position ${job.queuePosition})...`);
+      }
+    }
+  };
+
   /**
    * Resets the form fields to their initial state.
    */